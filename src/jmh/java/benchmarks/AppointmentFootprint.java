@@ -0,0 +1,52 @@
+package benchmarks;
+
+import Objects.AppointmentObjects.Appointment;
+import dao.AppointmentQuery;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Measures how much heap the appointments read from the database take, per appointment.
+ * The database is shut down once the appointments are read, then the heap in use is compared after full collections
+ * while the appointments are held and after they are let go, so the figure covers exactly the appointment objects,
+ * their strings and the list holding them. H2's value cache is turned off, as it would share strings that the MySQL
+ * driver hands out as separate copies.
+ * Usage: AppointmentFootprint [appointments]
+ * Exits with status 1 if an appointment takes more than the target, so it can guard releases.
+ */
+public class AppointmentFootprint {
+
+    //The heap an appointment may take, including its own title and description. Measured at 195 bytes with 200,000 appointments.
+    private static final long targetBytesPerAppointment = 240;
+
+    //Held in a field so the appointments stay reachable until they are let go.
+    private static List<Appointment> appointments;
+
+    public static void main(String[] args) throws SQLException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        System.setProperty("h2.objectCache", "false");
+        BenchmarkDatabase.open(50, count / 10, count);
+        appointments = AppointmentQuery.findAppointments();
+        BenchmarkDatabase.shutdown();
+
+        long held = usedHeap();
+        int size = appointments.size();
+        appointments = null;
+        long released = usedHeap();
+
+        long bytesPerAppointment = (held - released) / size;
+        System.out.println(size + " appointments | " + bytesPerAppointment + " bytes per appointment | target: " + targetBytesPerAppointment + " bytes");
+        if (bytesPerAppointment > targetBytesPerAppointment) {
+            System.exit(1);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,76 @@
+package benchmarks;
+
+import dao.ConnectionPool;
+import dao.DataGenerator;
+import dao.JDBC;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * An embedded H2 database in MySQL mode that stands in for client_schedule while benchmarking.
+ * The database is created from benchmarks/schema.sql, filled by the DataGenerator with a dataset of the requested size and
+ * handed to the data access objects through JDBC.setConnectionSource, so they run their normal queries against it.
+ * The dataset is the same for every run with the same sizes, whatever the date and time zone, so results can be
+ * compared between releases.
+ */
+public abstract class BenchmarkDatabase {
+
+    private static final String jdbcUrl = "jdbc:h2:mem:client_schedule;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=END";
+    private static final long randomSeed = 42;
+    private static final LocalDate firstDay = LocalDate.of(2025, 1, 1);
+    private static final int days = 730;
+
+    private static ConnectionPool pool;
+    private static String loaded;
+
+    /**
+     * Creates the database with a dataset of the given size, unless a dataset of that size is already loaded.
+     *
+     * @param contacts     The number of contacts, each with a contact user.
+     * @param customers    The number of customers.
+     * @param appointments The number of appointments.
+     * @throws SQLException If the database couldn't be created or filled.
+     */
+    public static synchronized void open(int contacts, int customers, int appointments) throws SQLException {
+        String size = contacts + "/" + customers + "/" + appointments;
+        if (size.equals(loaded)) {
+            return;
+        }
+        if (pool == null) {
+            pool = new ConnectionPool(jdbcUrl, "sa", "", 8, 60_000, 30 * 60_000, 60_000, 30_000);
+            JDBC.setConnectionSource(pool);
+        }
+
+        try (Connection connection = pool.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP ALL OBJECTS");
+                statement.execute("RUNSCRIPT FROM 'classpath:/benchmarks/schema.sql'");
+            }
+            new DataGenerator(randomSeed, 3, 10, contacts, customers, appointments, 1.0, 0.02, firstDay, days, ZoneOffset.UTC)
+                    .generate(connection);
+        }
+        loaded = size;
+    }
+
+    /**
+     * Shuts the database down and closes its connections, so the heap only holds what was read from it.
+     * The next call to open creates it again.
+     *
+     * @throws SQLException If the database couldn't be shut down.
+     */
+    public static synchronized void shutdown() throws SQLException {
+        if (pool == null) {
+            return;
+        }
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+        pool.close();
+        pool = null;
+        loaded = null;
+    }
+}
@@ -0,0 +1,27 @@
+package benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks and writes the results as JSON, so they can be kept and compared between releases.
+ * Usage: BenchmarkRunner [result file] [benchmark name pattern]
+ * The result file defaults to jmh-results.json and the pattern to every benchmark in this package.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String resultFile = args.length > 0 ? args[0] : "jmh-results.json";
+        String include = args.length > 1 ? args[1] : BenchmarkRunner.class.getPackageName() + "\\.";
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,131 @@
+package benchmarks;
+
+import Objects.AppointmentObjects.Appointment;
+import Objects.AppointmentObjects.AppointmentList;
+import Objects.ReportObjects.ContactSchedule;
+import Objects.ReportObjects.ReportRow;
+import dao.AppointmentQuery;
+import dao.ReportDimension;
+import dao.ReportQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the queries behind the appointment screens, the overlap check, the alert service and the reports,
+ * run against the embedded benchmark database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoBenchmarks {
+
+    @Param({"10000", "100000"})
+    public int appointments;
+
+    @Param({"50"})
+    public int contacts;
+
+    private Timestamp freeStart, freeEnd;
+    private Instant alertFrom, alertTo;
+    private Timestamp pageStart;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.open(contacts, appointments / 10, appointments);
+
+        //A slot before any appointment, so the overlap check runs both its in-memory and database lookups
+        //and never shows its conflict alert.
+        LocalDate freeDay = LocalDate.now().minusYears(2);
+        freeStart = Timestamp.valueOf(LocalDateTime.of(freeDay, LocalTime.of(9, 0)));
+        freeEnd = Timestamp.valueOf(LocalDateTime.of(freeDay, LocalTime.of(10, 0)));
+
+        //The window the alert service loads ahead of now.
+        alertFrom = Instant.now().minus(1, ChronoUnit.DAYS);
+        alertTo = Instant.now().plus(1, ChronoUnit.DAYS);
+
+        //Pages are read from today, in the middle of the generated history.
+        pageStart = Timestamp.from(LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant());
+
+        AppointmentQuery.getAppointments();
+    }
+
+    @Benchmark
+    public int getAppointments() throws SQLException {
+        AppointmentQuery.getAppointments();
+        return AppointmentList.getAllAppointments().size();
+    }
+
+    @Benchmark
+    public List<Appointment> findPageAfter() throws SQLException {
+        return AppointmentQuery.findPageAfter(pageStart, 0, 200);
+    }
+
+    @Benchmark
+    public boolean checkForOverlaps() throws SQLException {
+        return AppointmentQuery.checkForOverlaps(freeStart, freeEnd, 1, 1, 0);
+    }
+
+    @Benchmark
+    public List<Appointment> getAlerts() throws SQLException {
+        return AppointmentQuery.findByRange(alertFrom, alertTo);
+    }
+
+    @Benchmark
+    public List<ReportRow> countAppointmentsByTypeAndMonth() throws SQLException {
+        return ReportQuery.countAppointments(ReportDimension.TYPE, ReportDimension.MONTH);
+    }
+
+    @Benchmark
+    public List<ReportRow> countAppointmentsByCountryAndContact() throws SQLException {
+        return ReportQuery.countAppointments(ReportDimension.COUNTRY, ReportDimension.CONTACT);
+    }
+
+    @Benchmark
+    public String countAppointmentsByType() throws SQLException {
+        return ReportQuery.countAppointmentsByType();
+    }
+
+    @Benchmark
+    public String countAppointmentsByMonth() throws SQLException {
+        return ReportQuery.countAppointmentsByMonth();
+    }
+
+    @Benchmark
+    public List<ContactSchedule> getContactSchedules() throws SQLException {
+        return ReportQuery.getContactSchedules();
+    }
+
+    @Benchmark
+    public String getContactsReport() throws SQLException {
+        return ReportQuery.getContacts();
+    }
+
+    @Benchmark
+    public String getCountriesReport() throws SQLException {
+        return ReportQuery.getCountries();
+    }
+}
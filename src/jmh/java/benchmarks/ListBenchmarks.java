@@ -0,0 +1,71 @@
+package benchmarks;
+
+import Objects.AppointmentObjects.Appointment;
+import Objects.AppointmentObjects.AppointmentList;
+import Objects.CustomerObjects.Customer;
+import Objects.CustomerObjects.CustomersList;
+import dao.AppointmentQuery;
+import dao.CustomersQuery;
+import javafx.collections.ObservableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the lookups and searches answered by the in-memory lists once the data has been loaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListBenchmarks {
+
+    @Param({"10000", "100000"})
+    public int appointments;
+
+    @Param({"quarterly", "bud", "design launch"})
+    public String customerSearch;
+
+    private int[] appointmentIDs;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.open(50, appointments / 10, appointments);
+        AppointmentQuery.getAppointments();
+        CustomersQuery.getCustomers();
+
+        //Looks up the appointments in a fixed random order, so every run does the same lookups.
+        Random random = new Random(7);
+        appointmentIDs = new int[1024];
+        for (int i = 0; i < appointmentIDs.length; i++) {
+            appointmentIDs[i] = 1 + random.nextInt(appointments);
+        }
+    }
+
+    @Benchmark
+    public ObservableList<Customer> searchForCustomer() {
+        return CustomersList.searchForCustomer(customerSearch);
+    }
+
+    @Benchmark
+    public Appointment lookupAppointment() {
+        next = (next + 1) & (appointmentIDs.length - 1);
+        return AppointmentList.lookupAppointment(appointmentIDs[next]);
+    }
+}
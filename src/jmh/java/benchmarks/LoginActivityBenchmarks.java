@@ -0,0 +1,40 @@
+package benchmarks;
+
+import Controllers.FileControllers.LoginActivityFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks recording a login attempt, which is what the login button waits on.
+ * The attempt is formatted and queued on the calling thread, the file is written in the background.
+ * Attempts are appended to login_activity.txt and the login_activity store in the working directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginActivityBenchmarks {
+
+    @Benchmark
+    public void logUserActivity() {
+        LoginActivityFile.logUserActivity("benchmark", "Successful");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void logUserActivityContended() {
+        LoginActivityFile.logUserActivity("benchmark", "Failed");
+    }
+}
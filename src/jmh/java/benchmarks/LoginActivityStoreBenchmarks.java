@@ -0,0 +1,108 @@
+package benchmarks;
+
+import Controllers.FileControllers.LoginActivityImporter;
+import Controllers.FileControllers.LoginActivityRecord;
+import Controllers.FileControllers.LoginActivityStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks the login activity store's queries, which replace searching login_activity.txt line by line.
+ * The store is filled with one attempt a second from a few thousand users, a quarter of them successful,
+ * in a temporary directory that is deleted afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginActivityStoreBenchmarks {
+
+    private static final int users = 5_000;
+    private static final long start = 1_700_000_000_000L;
+
+    @Param({"1000000"})
+    public int attempts;
+
+    private static final DateTimeFormatter timestampFormatter = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM);
+
+    private Path directory;
+    private LoginActivityStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("login-activity");
+        Path storeDirectory = directory.resolve("store");
+
+        //Goes through a text log so the importer is exercised too.
+        Path text = directory.resolve("login_activity.txt");
+        Random random = new Random(42);
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < attempts; i++) {
+            String time = timestampFormatter.format(Instant.ofEpochMilli(start + i * 1000L).atZone(ZoneId.systemDefault()));
+            lines.append("User: user").append(random.nextInt(users)).append(" | ").append(time)
+                    .append(" | Attempt: ").append(random.nextInt(4) == 0 ? "Successful" : "Unsuccessful").append('\n');
+        }
+        Files.writeString(text, lines);
+        LoginActivityImporter.importFiles(storeDirectory, 1 << 20, List.of(text));
+        store = LoginActivityStore.open(storeDirectory, 1 << 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public List<LoginActivityRecord> findByUser() throws IOException {
+        return store.findByUser("user1234");
+    }
+
+    //One hour of attempts from the middle of the store.
+    @Benchmark
+    public List<LoginActivityRecord> findByTimeRange() throws IOException {
+        long from = start + attempts / 2 * 1000L;
+        return store.findByTimeRange(from, from + TimeUnit.HOURS.toMillis(1));
+    }
+
+    //Failures per minute over a day, for everyone.
+    @Benchmark
+    public long[] countFailuresPerMinute() throws IOException {
+        return store.countFailures(null, start, start + TimeUnit.DAYS.toMillis(1), TimeUnit.MINUTES.toMillis(1));
+    }
+}
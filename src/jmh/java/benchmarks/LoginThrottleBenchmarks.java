@@ -0,0 +1,54 @@
+package benchmarks;
+
+import dao.LoginThrottle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks what a failed login costs the throttle during a credential stuffing storm,
+ * with many threads trying many user names from a handful of sources.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginThrottleBenchmarks {
+
+    private static final int userNames = 50_000;
+    private static final int sources = 8;
+
+    private LoginThrottle throttle;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        throttle = new LoginThrottle(5, 30, 15 * 60 * 1000, 30 * 1000, 30 * 60 * 1000);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long failedLogin() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String userName = "user" + random.nextInt(userNames);
+        String source = "source" + random.nextInt(sources);
+        long retryAfterMillis = throttle.retryAfterMillis(userName, source);
+        if (retryAfterMillis == 0) {
+            throttle.recordFailure(userName, source);
+        }
+        return retryAfterMillis;
+    }
+}
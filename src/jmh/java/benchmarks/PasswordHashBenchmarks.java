@@ -0,0 +1,56 @@
+package benchmarks;
+
+import dao.Pbkdf2PasswordHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks checking a password at several costs, which is most of what a login waits on.
+ * Used to pick Pbkdf2PasswordHasher.defaultIterations: the highest cost that keeps a login check under 250 ms
+ * on the slowest machine we support, including when both password threads are busy at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashBenchmarks {
+
+    @Param({"210000", "600000", "1000000"})
+    public int iterations;
+
+    private Pbkdf2PasswordHasher hasher;
+    private String storedHash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hasher = new Pbkdf2PasswordHasher(iterations);
+        storedHash = hasher.hash("benchmark password");
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return hasher.verify("benchmark password", storedHash);
+    }
+
+    //The password pool runs two checks at once.
+    @Benchmark
+    @Threads(2)
+    public boolean verifyContended() {
+        return hasher.verify("benchmark password", storedHash);
+    }
+}
@@ -0,0 +1,59 @@
+-- The client_schedule tables, written so H2 in MySQL mode accepts them.
+-- Only the columns the data access objects read or write are included.
+
+CREATE TABLE countries (
+    Country_ID INT AUTO_INCREMENT PRIMARY KEY,
+    Country VARCHAR(50)
+);
+
+CREATE TABLE first_level_divisions (
+    Division_ID INT AUTO_INCREMENT PRIMARY KEY,
+    Division VARCHAR(50),
+    Country_ID INT,
+    FOREIGN KEY (Country_ID) REFERENCES countries (Country_ID)
+);
+
+CREATE TABLE customers (
+    Customer_ID INT AUTO_INCREMENT PRIMARY KEY,
+    Customer_Name VARCHAR(50),
+    Address VARCHAR(100),
+    Postal_Code VARCHAR(50),
+    Phone VARCHAR(50),
+    Division_ID INT,
+    FOREIGN KEY (Division_ID) REFERENCES first_level_divisions (Division_ID)
+);
+
+CREATE TABLE users (
+    User_ID INT AUTO_INCREMENT PRIMARY KEY,
+    User_Name VARCHAR(50) UNIQUE,
+    Password TEXT,
+    Type VARCHAR(20)
+);
+
+CREATE TABLE contacts (
+    Contact_ID INT AUTO_INCREMENT PRIMARY KEY,
+    Contact_Name VARCHAR(50),
+    Email VARCHAR(50),
+    User_ID INT
+);
+
+CREATE TABLE appointments (
+    Appointment_ID INT AUTO_INCREMENT PRIMARY KEY,
+    Title VARCHAR(50),
+    Description VARCHAR(50),
+    Location VARCHAR(50),
+    Type VARCHAR(50),
+    Start DATETIME,
+    End DATETIME,
+    Customer_ID INT,
+    User_ID INT,
+    Contact_ID INT,
+    FOREIGN KEY (Customer_ID) REFERENCES customers (Customer_ID),
+    FOREIGN KEY (User_ID) REFERENCES users (User_ID),
+    FOREIGN KEY (Contact_ID) REFERENCES contacts (Contact_ID)
+);
+
+-- The indexes from Migrations/001_appointment_start_indexes.sql.
+CREATE INDEX idx_appointments_start ON appointments (Start);
+CREATE INDEX idx_appointments_contact_start ON appointments (Contact_ID, Start);
+CREATE INDEX idx_appointments_customer_start ON appointments (Customer_ID, Start);
@@ -0,0 +1,297 @@
+package Controllers.AppointmentControllers;
+
+import LambdaInterfaces.AppointmentAlertInterface;
+import LambdaInterfaces.DateAndTimeInterface;
+import Objects.AppointmentObjects.Appointment;
+import dao.AppointmentQuery;
+import javafx.application.Platform;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Schedules alerts for upcoming appointments in the background.
+ * Appointments starting within the widest alert window are loaded with a bounded range query and kept in a
+ * queue ordered by the time each alert is due, so listeners are called exactly when an appointment enters a window.
+ * Later appointments are picked up by small incremental queries as time moves forward.
+ * Each appointment is alerted at most once per window, also across reloads.
+ * The database is only queried from the service thread and listeners are always called on the JavaFX thread.
+ */
+public class AppointmentAlertService {
+
+    /**
+     * How far ahead of its start an appointment is alerted.
+     */
+    public enum AlertWindow {
+        FIFTEEN_MINUTES(Duration.ofMinutes(15)),
+        ONE_HOUR(Duration.ofHours(1)),
+        DAY_AHEAD(Duration.ofDays(1));
+
+        private final long millis;
+
+        AlertWindow(Duration duration) {
+            this.millis = duration.toMillis();
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+    }
+
+    //How often appointments entering the widest window are loaded.
+    private static final long refillPeriodMillis = TimeUnit.MINUTES.toMillis(15);
+    private static final long horizonMillis = AlertWindow.DAY_AHEAD.getMillis();
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "appointment-alerts");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    //Alerts ordered by the time they are due. Only touched on the scheduler thread.
+    private static final PriorityQueue<PendingAlert> pendingAlerts = new PriorityQueue<>(Comparator.comparingLong(alert -> alert.dueAt));
+
+    //The latest version of every appointment starting within the horizon. Alerts for older versions are skipped.
+    private static final Map<Integer, Appointment> upcomingAppointments = new ConcurrentHashMap<>();
+    //The windows each upcoming appointment has been alerted for. Only touched on the scheduler thread.
+    private static final Map<Integer, EnumSet<AlertWindow>> firedAlerts = new HashMap<>();
+    private static final Map<AlertWindow, AppointmentAlertInterface> listeners = new ConcurrentHashMap<>(new EnumMap<>(AlertWindow.class));
+
+    private static ScheduledFuture<?> nextWakeUp;
+    private static long loadedUntil;
+    private static boolean started;
+
+    /**
+     * Loads the upcoming appointments and starts scheduling alerts. Calling it again has no effect.
+     */
+    public static synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        scheduler.execute(() -> {
+            //Starts a day back so appointments already underway are included, no appointment can span a whole day.
+            loadedUntil = System.currentTimeMillis() - horizonMillis;
+            refill();
+        });
+        scheduler.scheduleWithFixedDelay(AppointmentAlertService::refill, refillPeriodMillis, refillPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sets the listener called when an appointment enters an alert window, replacing any previous listener.
+     *
+     * @param window   The alert window.
+     * @param listener The listener, or null to stop listening.
+     */
+    public static void setListener(AlertWindow window, AppointmentAlertInterface listener) {
+        if (listener == null) {
+            listeners.remove(window);
+        } else {
+            listeners.put(window, listener);
+        }
+    }
+
+    /**
+     * Removes a listener, unless it has already been replaced by another one.
+     *
+     * @param window   The alert window.
+     * @param listener The listener to remove.
+     */
+    public static void removeListener(AlertWindow window, AppointmentAlertInterface listener) {
+        listeners.remove(window, listener);
+    }
+
+    /**
+     * Retrieves the appointments that are in progress or start within an alert window.
+     * The result is handed to the callback on the JavaFX thread once the upcoming appointments have been loaded.
+     *
+     * @param window   The alert window.
+     * @param callback Receives the appointments ordered by start time.
+     */
+    public static void getUpcoming(AlertWindow window, Consumer<List<Appointment>> callback) {
+        scheduler.execute(() -> {
+            long now = System.currentTimeMillis();
+
+            //Checks whether an appointment is underway or starts before the window closes.
+            DateAndTimeInterface<Appointment> withinWindow = appointment ->
+                    appointment.getEndMillis() > now && appointment.getStartMillis() <= now + window.getMillis();
+
+            List<Appointment> upcoming = new ArrayList<>();
+            for (Appointment appointment : upcomingAppointments.values()) {
+                if (withinWindow.check(appointment)) {
+                    upcoming.add(appointment);
+                }
+            }
+            upcoming.sort(Comparator.comparingLong(Appointment::getStartMillis));
+            Platform.runLater(() -> callback.accept(upcoming));
+        });
+    }
+
+    /**
+     * Schedules alerts for a new or updated appointment.
+     *
+     * @param appointment The appointment that was saved.
+     */
+    public static void appointmentSaved(Appointment appointment) {
+        scheduler.execute(() -> {
+            //A moved appointment is alerted again for its new time.
+            Appointment previous = upcomingAppointments.remove(appointment.getA_id());
+            if (previous != null && previous.getStartMillis() != appointment.getStartMillis()) {
+                firedAlerts.remove(appointment.getA_id());
+            }
+            if (appointment.getStartMillis() < loadedUntil) {
+                track(appointment, System.currentTimeMillis());
+                reschedule();
+            }
+        });
+    }
+
+    /**
+     * Cancels the alerts of a deleted appointment.
+     *
+     * @param appointmentID The ID of the appointment that was deleted.
+     */
+    public static void appointmentDeleted(int appointmentID) {
+        scheduler.execute(() -> {
+            upcomingAppointments.remove(appointmentID);
+            firedAlerts.remove(appointmentID);
+        });
+    }
+
+    /**
+     * Reloads the upcoming appointments after a change that wasn't reported one appointment at a time,
+     * such as deleting a customer together with their appointments.
+     * Alerts that have already fired aren't fired again.
+     */
+    public static void reload() {
+        scheduler.execute(() -> {
+            upcomingAppointments.clear();
+            pendingAlerts.clear();
+            //Starts a day back so appointments already underway are included, no appointment can span a whole day.
+            loadedUntil = System.currentTimeMillis() - horizonMillis;
+            refill();
+        });
+    }
+
+    /**
+     * Loads the appointments that have entered the horizon since the last load and schedules their alerts.
+     */
+    private static void refill() {
+        long now = System.currentTimeMillis();
+        long until = now + horizonMillis;
+        boolean loaded = false;
+        try {
+            for (Appointment appointment : AppointmentQuery.findByRange(Instant.ofEpochMilli(loadedUntil), Instant.ofEpochMilli(until))) {
+                if (!upcomingAppointments.containsKey(appointment.getA_id())) {
+                    track(appointment, now);
+                }
+            }
+            loadedUntil = until;
+            loaded = true;
+        } catch (SQLException e) {
+            System.out.println("Error:" + e.getMessage());
+        }
+
+        //Forgets appointments that have already ended, and once loaded, the alerts of appointments no longer tracked.
+        upcomingAppointments.values().removeIf(appointment -> appointment.getEndMillis() <= now);
+        if (loaded) {
+            firedAlerts.keySet().retainAll(upcomingAppointments.keySet());
+        }
+        reschedule();
+    }
+
+    /**
+     * Keeps an appointment that hasn't ended and, if it hasn't started yet, queues an alert for every window it
+     * hasn't entered. Of the windows it is already inside, only the narrowest is alerted right away, and only if
+     * it hasn't been alerted yet.
+     */
+    private static void track(Appointment appointment, long now) {
+        long start = appointment.getStartMillis();
+        if (appointment.getEndMillis() <= now) {
+            return;
+        }
+        upcomingAppointments.put(appointment.getA_id(), appointment);
+        if (start <= now) {
+            return;
+        }
+        EnumSet<AlertWindow> fired = firedAlerts.get(appointment.getA_id());
+        boolean narrowestEnteredSeen = false;
+
+        //Windows are declared from the narrowest to the widest.
+        for (AlertWindow window : AlertWindow.values()) {
+            long dueAt = start - window.getMillis();
+            if (dueAt > now) {
+                pendingAlerts.add(new PendingAlert(appointment, window, dueAt));
+            } else if (!narrowestEnteredSeen) {
+                narrowestEnteredSeen = true;
+                if (fired == null || !fired.contains(window)) {
+                    pendingAlerts.add(new PendingAlert(appointment, window, now));
+                }
+            }
+        }
+    }
+
+    /**
+     * Fires every alert that is due and sleeps until the next one.
+     */
+    private static void fireDueAlerts() {
+        long now = System.currentTimeMillis();
+        while (!pendingAlerts.isEmpty() && pendingAlerts.peek().dueAt <= now) {
+            PendingAlert alert = pendingAlerts.poll();
+
+            //Skips alerts for appointments that were deleted or changed since the alert was queued.
+            if (upcomingAppointments.get(alert.appointment.getA_id()) != alert.appointment) {
+                continue;
+            }
+            firedAlerts.computeIfAbsent(alert.appointment.getA_id(), id -> EnumSet.noneOf(AlertWindow.class)).add(alert.window);
+            AppointmentAlertInterface listener = listeners.get(alert.window);
+            if (listener != null) {
+                Platform.runLater(() -> listener.onAlert(alert.appointment));
+            }
+        }
+        reschedule();
+    }
+
+    //Wakes the scheduler thread when the earliest pending alert is due.
+    private static void reschedule() {
+        if (nextWakeUp != null) {
+            nextWakeUp.cancel(false);
+            nextWakeUp = null;
+        }
+        PendingAlert next = pendingAlerts.peek();
+        if (next != null) {
+            long delay = Math.max(0, next.dueAt - System.currentTimeMillis());
+            nextWakeUp = scheduler.schedule(AppointmentAlertService::fireDueAlerts, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * An alert waiting for its appointment to enter a window.
+     */
+    private static class PendingAlert {
+        private final Appointment appointment;
+        private final AlertWindow window;
+        private final long dueAt;
+
+        PendingAlert(Appointment appointment, AlertWindow window, long dueAt) {
+            this.appointment = appointment;
+            this.window = window;
+            this.dueAt = dueAt;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package Controllers.AppointmentControllers;
+
+import Objects.AppointmentObjects.Appointment;
+import Objects.AppointmentObjects.AppointmentList;
+import dao.AppointmentQuery;
+import dao.AsyncQuery;
+import javafx.beans.InvalidationListener;
+import javafx.concurrent.Task;
+import javafx.scene.Node;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.TableView;
+import javafx.scene.control.skin.VirtualFlow;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Loads the appointments shown in a table one page at a time as the user scrolls.
+ * Pages are read with keyset queries ordered by start time, so reading a page costs the same however much history
+ * there is. Only a window of pages is kept in the `AppointmentList`: once there are more, the page furthest from
+ * the one being loaded is dropped, and loaded again if the user scrolls back to it.
+ * The table's rows stay where they are on screen while pages are added and dropped above them.
+ */
+public class AppointmentPager {
+
+    private final TableView<Appointment> table;
+    private final int pageSize;
+    private final int maxPages;
+
+    //The loaded pages in start order.
+    private final Deque<Page> pages = new ArrayDeque<>();
+    private final InvalidationListener scrolled = observable -> loadIfNeeded();
+
+    private VirtualFlow<?> flow;
+    private Task<?> loading;
+    private boolean reachedFirst;
+    private boolean reachedLast;
+    private boolean stopped = true;
+
+    /**
+     * Creates a pager for a table.
+     *
+     * @param table    The table the appointments are shown in.
+     * @param pageSize The number of appointments read per page, also used as the fetch size.
+     * @param maxPages The number of pages kept in memory, at least three so the pages around the visible rows are never dropped.
+     */
+    public AppointmentPager(TableView<Appointment> table, int pageSize, int maxPages) {
+        this.table = table;
+        this.pageSize = pageSize;
+        this.maxPages = Math.max(maxPages, 3);
+
+        //The table's scrolling can only be watched once its skin has been created.
+        table.skinProperty().addListener(observable -> watchScrolling());
+        watchScrolling();
+    }
+
+    /**
+     * Shows the appointments around a point in time, replacing whatever the `AppointmentList` holds.
+     * A page before and a page from the point are loaded, and the table is scrolled to the first appointment from it.
+     *
+     * @param anchor The point in time.
+     */
+    public void start(Instant anchor) {
+        stop();
+        stopped = false;
+        pages.clear();
+        reachedFirst = false;
+        reachedLast = false;
+
+        AppointmentList.resetAllAppointments();
+        table.setItems(AppointmentList.getAllAppointments());
+
+        Timestamp at = Timestamp.from(anchor);
+        loading = AsyncQuery.load(table, () -> List.of(AppointmentQuery.findPageBefore(at, 0, pageSize), AppointmentQuery.findPageAfter(at, 0, pageSize)), loaded -> {
+            List<Appointment> before = loaded.get(0);
+            List<Appointment> after = loaded.get(1);
+            reachedFirst = before.size() < pageSize;
+            reachedLast = after.size() < pageSize;
+
+            AppointmentList.resetAllAppointments();
+            addPage(before, false);
+            addPage(after, false);
+            table.scrollTo(before.size());
+            loadIfNeeded();
+        });
+    }
+
+    /**
+     * Stops loading pages, for when the table is used to show other appointments.
+     * The loaded appointments are left in the `AppointmentList`.
+     */
+    public void stop() {
+        stopped = true;
+        if (loading != null) {
+            loading.cancel();
+        }
+    }
+
+    /**
+     * Loads the next or previous page when the user has scrolled close to the end of the loaded appointments.
+     */
+    private void loadIfNeeded() {
+        if (stopped || flow == null || pages.isEmpty() || (loading != null && !loading.isDone())) {
+            return;
+        }
+        IndexedCell<?> firstVisible = flow.getFirstVisibleCell();
+        IndexedCell<?> lastVisible = flow.getLastVisibleCell();
+        if (firstVisible == null || lastVisible == null) {
+            return;
+        }
+
+        //Starts loading a quarter of a page before the user reaches the end, so scrolling rarely has to wait.
+        int threshold = pageSize / 4;
+        if (!reachedLast && lastVisible.getIndex() >= AppointmentList.getAllAppointments().size() - threshold) {
+            loadNext();
+        } else if (!reachedFirst && firstVisible.getIndex() < threshold) {
+            loadPrevious();
+        }
+    }
+
+    private void loadNext() {
+        Page last = pages.getLast();
+        loading = AsyncQuery.submit(table, () -> AppointmentQuery.findPageAfter(last.lastStart, last.lastID, pageSize), page -> {
+            reachedLast = page.size() < pageSize;
+            addPage(page, false);
+
+            //Drops the first page, keeping the rows the user is looking at in place.
+            if (pages.size() > maxPages) {
+                int firstVisible = firstVisibleIndex();
+                int removed = removePage(pages.removeFirst());
+                reachedFirst = false;
+                table.scrollTo(Math.max(firstVisible - removed, 0));
+            }
+            loadIfNeeded();
+        });
+    }
+
+    private void loadPrevious() {
+        Page first = pages.getFirst();
+        loading = AsyncQuery.submit(table, () -> AppointmentQuery.findPageBefore(first.firstStart, first.firstID, pageSize), page -> {
+            reachedFirst = page.size() < pageSize;
+
+            //Keeps the rows the user is looking at in place while the page is inserted above them.
+            int firstVisible = firstVisibleIndex();
+            addPage(page, true);
+            table.scrollTo(firstVisible + page.size());
+
+            //Drops the last page.
+            if (pages.size() > maxPages) {
+                removePage(pages.removeLast());
+                reachedLast = false;
+            }
+            loadIfNeeded();
+        });
+    }
+
+    private void addPage(List<Appointment> appointments, boolean atStart) {
+        if (appointments.isEmpty()) {
+            return;
+        }
+        Page page = new Page(appointments);
+        if (atStart) {
+            pages.addFirst(page);
+            AppointmentList.addAppointments(0, appointments);
+        } else {
+            pages.addLast(page);
+            AppointmentList.addAppointments(appointments);
+        }
+    }
+
+    /**
+     * Removes a page's appointments from the `AppointmentList`.
+     *
+     * @return The number of appointments removed.
+     */
+    private int removePage(Page page) {
+        int size = AppointmentList.getAllAppointments().size();
+        AppointmentList.deleteAppointments(page.appointmentIDs);
+        return size - AppointmentList.getAllAppointments().size();
+    }
+
+    private int firstVisibleIndex() {
+        IndexedCell<?> firstVisible = flow == null ? null : flow.getFirstVisibleCell();
+        return firstVisible == null ? 0 : firstVisible.getIndex();
+    }
+
+    private void watchScrolling() {
+        if (flow != null) {
+            return;
+        }
+        Node node = table.lookup(".virtual-flow");
+        if (node instanceof VirtualFlow) {
+            flow = (VirtualFlow<?>) node;
+            flow.positionProperty().addListener(scrolled);
+        }
+    }
+
+    /**
+     * A loaded page, remembering the appointments at its ends that the neighbouring pages are read from.
+     */
+    private static class Page {
+        private final List<Integer> appointmentIDs;
+        private final Timestamp firstStart;
+        private final int firstID;
+        private final Timestamp lastStart;
+        private final int lastID;
+
+        Page(List<Appointment> appointments) {
+            appointmentIDs = new ArrayList<>(appointments.size());
+            for (Appointment appointment : appointments) {
+                appointmentIDs.add(appointment.getA_id());
+            }
+            Appointment first = appointments.get(0);
+            Appointment last = appointments.get(appointments.size() - 1);
+            firstStart = first.getStart();
+            firstID = first.getA_id();
+            lastStart = last.getStart();
+            lastID = last.getA_id();
+        }
+    }
+}
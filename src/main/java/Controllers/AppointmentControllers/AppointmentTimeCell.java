@@ -0,0 +1,44 @@
+package Controllers.AppointmentControllers;
+
+import Objects.AppointmentObjects.Appointment;
+import Objects.AppointmentObjects.AppointmentTimeFormat;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+
+import java.time.format.FormatStyle;
+
+/**
+ * A table cell showing an appointment time in the user's locale.
+ * The time is only formatted when the cell shows it, so only the rows on screen are formatted,
+ * and the column still sorts by time rather than by the formatted text.
+ */
+public class AppointmentTimeCell extends TableCell<Appointment, Long> {
+
+    private final FormatStyle style;
+
+    /**
+     * Creates a cell.
+     *
+     * @param style The length of the formatted date and time.
+     */
+    public AppointmentTimeCell(FormatStyle style) {
+        this.style = style;
+    }
+
+    /**
+     * Creates a cell factory for a column of appointment times.
+     *
+     * @param style The length of the formatted dates and times.
+     * @return The cell factory.
+     */
+    public static Callback<TableColumn<Appointment, Long>, TableCell<Appointment, Long>> forStyle(FormatStyle style) {
+        return column -> new AppointmentTimeCell(style);
+    }
+
+    @Override
+    protected void updateItem(Long epochMillis, boolean empty) {
+        super.updateItem(epochMillis, empty);
+        setText(empty || epochMillis == null ? null : AppointmentTimeFormat.format(epochMillis, style));
+    }
+}
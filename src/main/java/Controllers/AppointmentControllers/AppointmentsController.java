@@ -1,11 +1,17 @@
 package Controllers.AppointmentControllers;
 
+import LambdaInterfaces.AppointmentAlertInterface;
+import LambdaInterfaces.QueryInterface;
 import Objects.AppointmentObjects.Appointment;
 import Objects.AppointmentObjects.AppointmentList;
+import Objects.AppointmentObjects.AppointmentTimeFormat;
 import Objects.ContactObjects.ContactAppointmentList;
 import dao.AppointmentQuery;
-import javafx.application.Platform;
+import dao.AsyncQuery;
+import dao.UnitOfWork;
+import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -19,14 +25,16 @@ import javafx.stage.Stage;
 import java.io.IOException;
 import java.net.URL;
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.ResourceBundle;
-
-import static dao.AppointmentQuery.getAppointments;
+import java.util.function.Consumer;
 
 /**
  * The AppointmentsController is used to manage appointments.
@@ -44,8 +52,8 @@ public class AppointmentsController implements Initializable {
     public TableColumn<Appointment, String> appointmentLoc_col;
     public TableColumn<Appointment, String> appointmentContact_col;
     public TableColumn<Appointment, String> appointmentType_col;
-    public TableColumn<Appointment, String> appointmentStartDate_col;
-    public TableColumn<Appointment, String> appointmentEndDate_col;
+    public TableColumn<Appointment, Long> appointmentStartDate_col;
+    public TableColumn<Appointment, Long> appointmentEndDate_col;
     public TableColumn<Appointment, Integer> customerID_col;
     public TableColumn<Appointment, Integer> userID_col;
     public Button updateAppointment_btn;
@@ -58,6 +66,17 @@ public class AppointmentsController implements Initializable {
     public Button refresh_btn;
     public TextField appointmentSearchTxt_field;
 
+    //Appointments read per page and the number of pages kept while scrolling through all appointments.
+    private static final int pageSize = 200;
+    private static final int maxPages = 5;
+
+    //The appointment query currently filling the table.
+    private Task<List<Appointment>> appointmentLoad;
+    private AppointmentPager appointmentPager;
+
+    //Kept so the same listener can be removed when the screen is left.
+    private final AppointmentAlertInterface upcomingListener = this::showUpcomingAppointment;
+
     /**
      * Initialize the controller.
      *
@@ -67,11 +86,7 @@ public class AppointmentsController implements Initializable {
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
 
-        try {
-            setTable();
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
+        setTable();
 
         setLabels();
     }
@@ -79,15 +94,16 @@ public class AppointmentsController implements Initializable {
     /**
      * Sets the appointment table using entries from the observable AppointmentList
      * Sets the columns using the data received by the appointment list
-     * @throws SQLException If a database error occurs.
+     * The appointments around today are loaded in the background, and earlier or later pages are loaded as the user scrolls.
      */
-    public void setTable() throws SQLException {
+    public void setTable() {
 
         System.out.println(ZonedDateTime.now().format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM)));
-        getAppointments();
 
-        //Populates the table with data from the database.
-        appointmentTable.setItems(AppointmentList.getAllAppointments());
+        //Populates the table with the pages around the start of today once the query finishes.
+        appointmentPager = new AppointmentPager(appointmentTable, pageSize, maxPages);
+        appointmentPager.start(LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant());
+
         //Populates the columns used in the table.
         appointmentID_col.setCellValueFactory(new PropertyValueFactory<>("a_id"));
         appointmentTitle_col.setCellValueFactory(new PropertyValueFactory<>("title"));
@@ -95,57 +111,93 @@ public class AppointmentsController implements Initializable {
         appointmentLoc_col.setCellValueFactory(new PropertyValueFactory<>("location"));
         appointmentType_col.setCellValueFactory(new PropertyValueFactory<>("type"));
         appointmentContact_col.setCellValueFactory(new PropertyValueFactory<>("contactName"));
-        appointmentStartDate_col.setCellValueFactory(new PropertyValueFactory<>("visibleStart"));
-        appointmentEndDate_col.setCellValueFactory(new PropertyValueFactory<>("visibleEnd"));
+        appointmentStartDate_col.setCellValueFactory(new PropertyValueFactory<>("startMillis"));
+        appointmentEndDate_col.setCellValueFactory(new PropertyValueFactory<>("endMillis"));
         customerID_col.setCellValueFactory(new PropertyValueFactory<>("customerID"));
         userID_col.setCellValueFactory(new PropertyValueFactory<>("userID"));
+        setTimeStyle(FormatStyle.MEDIUM);
+    }
+
+    /**
+     * Sets how the start and end times are shown, the month and week views use the short style.
+     *
+     * @param style The length of the formatted dates and times.
+     */
+    private void setTimeStyle(FormatStyle style) {
+        appointmentStartDate_col.setCellFactory(AppointmentTimeCell.forStyle(style));
+        appointmentEndDate_col.setCellFactory(AppointmentTimeCell.forStyle(style));
+    }
+
+    /**
+     * Loads appointments into the table in the background, replacing any load that is still running.
+     *
+     * @param query    The query retrieving the appointments.
+     * @param onLoaded Puts the appointments into the table's list on the JavaFX thread.
+     */
+    private void loadAppointments(QueryInterface<List<Appointment>> query, Consumer<List<Appointment>> onLoaded) {
+        if (appointmentLoad != null) {
+            appointmentLoad.cancel();
+        }
+        appointmentLoad = AsyncQuery.load(appointmentTable, query, onLoaded);
     }
 
     /**
      * Updates the label on the screen to show if there is an appointment within 15 minutes.
      * Shows the default label otherwise, which says that there are no appointments within 15 minutes.
+     * The upcoming appointments come from the alert service, which also updates the label when another appointment gets close.
      */
     public void setLabels(){
-        try {
-            //Checks to see if there are any appointments within 15 minutes and returns the appointment ID.
-            int appointmentID = AppointmentQuery.getAlerts();
-            if(AppointmentQuery.getAlerts() > 0){
-                //Looks up the appointment by ID
-                Appointment appointmentInfo = AppointmentList.lookupAppointment(appointmentID);
-                //Updates the labels on the appointment screen to show the appointment information.
-                try {
-                    assert appointmentInfo != null;
-                    String appointmentStartTime = appointmentInfo.getStart().toLocalDateTime().format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM));
-                    String appointmentEndTime = appointmentInfo.getEnd().toLocalDateTime().format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM));
-                    upcomingAppointment.setText("Appointment ID: " + appointmentInfo.getA_id() + " | " + appointmentStartTime + " - " + appointmentEndTime + " starts within 15 minutes");
-                    appointmentTable.getSelectionModel().select(appointmentInfo);
-
-                    Platform.runLater(() ->{
-                        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-                        alert.setTitle("Appointments Alert");
-                        alert.setContentText("Appointment ID: " + appointmentInfo.getA_id() + " | " + appointmentStartTime + " - " + appointmentEndTime + " starts within 15 minutes");
-                        alert.showAndWait();
-                    });
-
-                }catch (NullPointerException ignored){}
+
+        //Checks to see if there are any appointments within 15 minutes without querying the database on this thread.
+        AppointmentAlertService.getUpcoming(AppointmentAlertService.AlertWindow.FIFTEEN_MINUTES, upcoming -> {
+            if(!upcoming.isEmpty()){
+                showUpcomingAppointment(upcoming.get(0));
             }else{
                 //Updates the label on the appointment screen to inform the user that there are no appointments within 15 minutes.
                 upcomingAppointment.setText("There are no appointments within 15 minutes.");
 
-                Platform.runLater(() -> {
-
-                    //Inline lambda expression
-                    //Runs after the appointment screen is loaded
-
-                    Alert alert = new Alert(Alert.AlertType.INFORMATION);
-                    alert.setTitle("Appointments Alert");
-                    alert.setContentText("There are no upcoming appointments!");
-                    alert.showAndWait();
+                //Runs after the appointment screen is loaded
+                Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                alert.setTitle("Appointments Alert");
+                alert.setContentText("There are no upcoming appointments!");
+                alert.showAndWait();
+            }
+        });
+
+        //Alerts the user when an appointment enters the 15-minute window while this screen is open.
+        AppointmentAlertService.setListener(AppointmentAlertService.AlertWindow.FIFTEEN_MINUTES, upcomingListener);
+
+        //Every screen change replaces the scene, so the listener is removed once this screen's scene leaves its window.
+        appointmentTable.sceneProperty().addListener((observable, oldScene, scene) -> {
+            if (scene != null) {
+                scene.windowProperty().addListener((windowObservable, oldWindow, window) -> {
+                    if (window == null) {
+                        AppointmentAlertService.removeListener(AppointmentAlertService.AlertWindow.FIFTEEN_MINUTES, upcomingListener);
+                    }
                 });
             }
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
+        });
+    }
+
+    /**
+     * Shows an appointment that starts within 15 minutes in the label and in an alert.
+     *
+     * @param appointmentInfo The upcoming appointment.
+     */
+    private void showUpcomingAppointment(Appointment appointmentInfo){
+
+        //Updates the labels on the appointment screen to show the appointment information.
+        String appointmentStartTime = AppointmentTimeFormat.format(appointmentInfo.getStartMillis(), FormatStyle.MEDIUM);
+        String appointmentEndTime = AppointmentTimeFormat.format(appointmentInfo.getEndMillis(), FormatStyle.MEDIUM);
+        upcomingAppointment.setText("Appointment ID: " + appointmentInfo.getA_id() + " | " + appointmentStartTime + " - " + appointmentEndTime + " starts within 15 minutes");
+
+        //Selects the loaded copy of the appointment in the table.
+        appointmentTable.getSelectionModel().select(AppointmentList.lookupAppointment(appointmentInfo.getA_id()));
+
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Appointments Alert");
+        alert.setContentText("Appointment ID: " + appointmentInfo.getA_id() + " | " + appointmentStartTime + " - " + appointmentEndTime + " starts within 15 minutes");
+        alert.showAndWait();
     }
 
     /**
@@ -204,10 +256,10 @@ public class AppointmentsController implements Initializable {
      * Validates whether the user selected an appointment.
      * Displays a confirmation message to confirm which appointment is to be deleted.
      * Displays a confirmation message confirming which appoint was deleted.
+     * The appointment is deleted from the database in the background.
      * @param actionEvent The action event triggered by clicking the button.
-     * @throws SQLException If a database error occurs during the appointment deletion.
      */
-    public void onAppointmentDelete_click(ActionEvent actionEvent) throws SQLException {
+    public void onAppointmentDelete_click(ActionEvent actionEvent) {
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
         Alert alert2 = new Alert(Alert.AlertType.INFORMATION);
 
@@ -225,14 +277,15 @@ public class AppointmentsController implements Initializable {
             Optional<ButtonType> result = alert.showAndWait();
             if(result.isPresent() && result.get() == ButtonType.OK){
                 //Deletes the selected appointment after receiving confirmation from the user.
-                int rowsAffected = AppointmentQuery.deleteAppointment(removeAppointment.getA_id());
-                if(rowsAffected > 0){
-                    //Displays a confirmation that the appointment was deleted.
-                    alert2.setTitle("Appointment " + removeAppointment.getA_id() + " has been canceled");
-                    alert2.setContentText("Appointment ID: " + removeAppointment.getA_id() + "\n" + "Appointment type: " + removeAppointment.getType() + " \nThis appointment has been canceled");
-                    alert2.showAndWait();
-                    AppointmentList.deleteAppointment(removeAppointment);
-                }
+                //The appointment is removed from the list stored in memory once the deletion has been committed.
+                new UnitOfWork().deleteAppointment(removeAppointment.getA_id()).submit(rowsAffected -> {
+                    if(rowsAffected > 0){
+                        //Displays a confirmation that the appointment was deleted.
+                        alert2.setTitle("Appointment " + removeAppointment.getA_id() + " has been canceled");
+                        alert2.setContentText("Appointment ID: " + removeAppointment.getA_id() + "\n" + "Appointment type: " + removeAppointment.getType() + " \nThis appointment has been canceled");
+                        alert2.showAndWait();
+                    }
+                });
             }
         }
     }
@@ -257,15 +310,16 @@ public class AppointmentsController implements Initializable {
      * Handles a click event on the "Month" radio button.
      * Clears the current table and repopulates it from the database in Month order.
      * @param actionEvent The action event triggered by selecting the radio button.
-     * @throws SQLException If a database error occurs during data retrieval.
      */
-    public void onMonthRadio_click(ActionEvent actionEvent) throws SQLException {
+    public void onMonthRadio_click(ActionEvent actionEvent) {
 
-        //Clears the tables current layout
+        //Stops loading pages and clears the tables current layout
+        appointmentPager.stop();
         appointmentTable.getItems().clear();
+        setTimeStyle(FormatStyle.SHORT);
         //Displays the appointments by month.
-        AppointmentQuery.getAppointmentsByMonth();
         appointmentTable.setItems(AppointmentList.getAllAppointments());
+        loadAppointments(AppointmentQuery::findAppointmentsByMonth, AppointmentQuery::showAppointments);
 
     }
 
@@ -273,15 +327,16 @@ public class AppointmentsController implements Initializable {
      * Handle a click event on the "Week" radio button.
      * Clears the current table and repopulates it from the database in Week order.
      * @param actionEvent The action event triggered by selecting the radio button.
-     * @throws SQLException If a database error occurs during data retrieval.
      */
-    public void onWeekRadio_click(ActionEvent actionEvent) throws SQLException {
+    public void onWeekRadio_click(ActionEvent actionEvent) {
 
-        //Clears the tables current layout
+        //Stops loading pages and clears the tables current layout
+        appointmentPager.stop();
         appointmentTable.getItems().clear();
+        setTimeStyle(FormatStyle.SHORT);
         //Displays the appointments by week.
-        AppointmentQuery.getAppointmentsByWeek();
         appointmentTable.setItems(AppointmentList.getAllAppointments());
+        loadAppointments(AppointmentQuery::findAppointmentsByWeek, AppointmentQuery::showAppointments);
     }
 
     /**
@@ -315,19 +370,33 @@ public class AppointmentsController implements Initializable {
         stage.show();
     }
 
+    /**
+     * Handles a search in the appointment search field.
+     * Searches the loaded appointments first, and the database when none of them match.
+     * @param actionEvent The action event triggered by submitting the search.
+     */
     public void onAppointmentSearch(ActionEvent actionEvent) {
 
         String appointmentSearch = appointmentSearchTxt_field.getText();
         ObservableList<Appointment> appointmentSearchList = AppointmentList.searchForAppointment(appointmentSearch);
+        appointmentSearchTxt_field.setText("");
 
-        appointmentTable.setItems(appointmentSearchList);
-        if(appointmentSearchList.isEmpty()){
-            Alert alert = new Alert(Alert.AlertType.INFORMATION);
-            alert.setTitle("Invalid search");
-            alert.setContentText("No appointments founds");
-            alert.showAndWait();
-            appointmentSearchTxt_field.setText("");
+        if(!appointmentSearchList.isEmpty()){
+            appointmentPager.stop();
+            appointmentTable.setItems(appointmentSearchList);
+            return;
         }
-        appointmentSearchTxt_field.setText("");
+
+        //Searches the appointments that aren't loaded.
+        AsyncQuery.submit(appointmentTable, () -> AppointmentQuery.searchAppointments(appointmentSearch, pageSize), found -> {
+            appointmentPager.stop();
+            appointmentTable.setItems(FXCollections.observableArrayList(found));
+            if(found.isEmpty()){
+                Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                alert.setTitle("Invalid search");
+                alert.setContentText("No appointments founds");
+                alert.showAndWait();
+            }
+        });
     }
 }
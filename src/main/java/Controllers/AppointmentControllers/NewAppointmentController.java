@@ -1,14 +1,14 @@
 package Controllers.AppointmentControllers;
 
 import Objects.ContactObjects.Contact;
-import Objects.ContactObjects.ContactList;
 import Objects.UserObjects.User;
-import Objects.UserObjects.UsersList;
+import Objects.UserObjects.UserSession;
 import dao.AppointmentQuery;
-import Objects.AppointmentObjects.AppointmentList;
+import dao.AsyncQuery;
 import Objects.AppointmentObjects.AppointmentInHouse;
 import dao.CustomersQuery;
 import dao.UsersQuery;
+import dao.UnitOfWork;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -28,11 +28,10 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
 import java.util.Objects;
 import java.util.ResourceBundle;
-import static dao.AppointmentQuery.checkForOverlaps;
 
 /**
  * The NewAppointmentController allows the user to create a new appointment.
- * The Appointment ID field is auto generated using a temporary placeholder while the user is on this screen.
+ * The Appointment ID is generated by the database when the appointment is saved.
  * Users can enter title, description, location, type, start date and time, end date and time, contact id, customer id, and user id into the form fields.
  *
  */
@@ -50,61 +49,43 @@ public class NewAppointmentController implements Initializable {
     public DatePicker endDate_picker;
     public ComboBox<String> startDateDropDown_list;
     public ComboBox<String> endDateDropDown_list;
-    public static int autoGenAppointmentID;
-    public String title, description, location, contact, type, startTime, endTime, visibleStart, visibleEnd;
+    public String title, description, location, contact, type, startTime, endTime;
     public int customerID, userID, contactID;
     LocalDate AppointmentStartDate, AppointmentEndDate;
     LocalTime AppointmentStartTime, AppointmentEndTime;
     ZonedDateTime AppointmentStartTimeInfo, AppointmentEndTimeInfo;
     ZonedDateTime businessStartTime, businessEndTime;
     Timestamp startTimeStamp, endTimeStamp;
-    public Timestamp placeholder = Timestamp.valueOf(LocalDateTime.now().plusYears(1000)), placeholder2 = Timestamp.valueOf(LocalDateTime.now().plusHours(4).plusYears(1000));
 
     /**
      * Initialize the controller.
-     * Creates a temporary appointment in the database to generate the appointment ID
      * @param url            The location used to resolve relative paths for the root object.
      * @param resourceBundle The resources for the root object.
      */
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
 
-        try {
-            //Creates a placeholder appointment on initialization, to generate the appointment ID.
-            AppointmentQuery.insertAppointment("placeholder", "", "null", "null", placeholder, placeholder2, 1, 1, 1);
-
-            //Gets the appointment ID that was created using the placeholder.
-            autoGenAppointmentID = AppointmentQuery.getPlaceholderAppointment("placeholder");
-
-            //Sets the dropdown list using data from the database.
-            UIDDropDown_list.setItems(UsersQuery.getUserIDs());
-            CIDDropDown_list.setItems(CustomersQuery.getCustomerIDs());
-
+        //The appointment ID is generated by the database on save, so the field shows its prompt text until then.
+        appointmentID_input.clear();
 
-            ObservableList<User> user = UsersList.getLoggedInUser();
-            int userID = user.get(0).getUser_ID();
-            String userType = user.get(0).getUser_Type();
+        //Sets the dropdown lists using data from the database once it has been loaded.
+        AsyncQuery.submit(UIDDropDown_list, UsersQuery::getUserIDs, UIDDropDown_list::setItems);
+        AsyncQuery.submit(CIDDropDown_list, CustomersQuery::getCustomerIDs, CIDDropDown_list::setItems);
 
+        UserSession session = UserSession.getCurrent();
 
+        if(session.isAdmin()) {
+            AsyncQuery.submit(contactDropDown_list, AppointmentQuery::getContacts, contactDropDown_list::setItems);
+        } else if (session.isContact()) {
+            String contactName = session.getContactName();
 
-            if(Objects.equals(userType, "admin")) {
-                contactDropDown_list.setItems(AppointmentQuery.getContacts());
-            } else if (Objects.equals(userType,"contact")) {
-                Contact contact = ContactList.lookupContact(userID);
-                assert contact != null;
-                String contactName = contact.getName();
-
-                contactDropDown_list.setDisable(true);
-                contactDropDown_list.setItems(AppointmentQuery.getContacts());
+            contactDropDown_list.setDisable(true);
+            AsyncQuery.submit(contactDropDown_list, AppointmentQuery::getContacts, contacts -> {
+                contactDropDown_list.setItems(contacts);
                 contactDropDown_list.getSelectionModel().select(contactName);
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
+            });
         }
 
-        //Initializes the Appointment ID field with the appointment ID that was generated from the database.
-        appointmentID_input.setText(autoGenAppointmentID + " Auto-Generated ");
-
         //Lists used to hold UTC times from 00:00 - 23:49
         ObservableList<String> startTimes = FXCollections.observableArrayList();
         ObservableList<String> endTimes = FXCollections.observableArrayList();
@@ -141,11 +122,10 @@ public class NewAppointmentController implements Initializable {
      * Handles a click event on the "Save" button.
      * Validates the user inputs to see if any were left empty.
      * Adds a new appointment to the database and appointment list
+     * The contact lookup and the overlap check run in the background.
      * @param actionEvent The action event triggered by clicking the button.
-     * @throws IOException  If an I/O error occurs when saving the appointment.
-     * @throws SQLException If a database error occurs during appointment validation.
      */
-    public void onSaveBtn_click(ActionEvent actionEvent) throws IOException, SQLException {
+    public void onSaveBtn_click(ActionEvent actionEvent) {
 
         //Loads the appointment screen
 
@@ -159,7 +139,7 @@ public class NewAppointmentController implements Initializable {
 
         try {
             //Get customer inputs from the form dropdown fields
-            contactID = AppointmentQuery.getContactID(contactDropDown_list.getSelectionModel().getSelectedItem());
+            contact = contactDropDown_list.getSelectionModel().getSelectedItem();
             customerID = CIDDropDown_list.getSelectionModel().getSelectedItem();
             userID = UIDDropDown_list.getSelectionModel().getSelectedItem();
             startTime = startDateDropDown_list.getSelectionModel().getSelectedItem();
@@ -185,9 +165,6 @@ public class NewAppointmentController implements Initializable {
             startTimeStamp = Timestamp.valueOf(LocalDateTime.of(AppointmentStartDate, AppointmentStartTime));
             endTimeStamp = Timestamp.valueOf(LocalDateTime.of(AppointmentEndDate, AppointmentEndTime));
 
-            //Convert the UTC time to the users local time to be displayed in the dropdown lists.
-            visibleStart = startTimeStamp.toLocalDateTime().format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM));
-            visibleEnd = endTimeStamp.toLocalDateTime().format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM));
 
             //Gets the appointment start and end time using the zone defaults.
             AppointmentStartTimeInfo = LocalDateTime.of(AppointmentStartDate, AppointmentStartTime).atZone(ZoneId.systemDefault());
@@ -216,50 +193,13 @@ public class NewAppointmentController implements Initializable {
                 alert.show();
                 return;
             }
-            //Checks to see if new appointment overlaps any appointments on the same day.
-            if (checkForOverlaps(startTimeStamp)) {
-            }else{
-
-                //Updates the placeholder appointment, creating a new appointment.
-                int rowsAffected = AppointmentQuery.updateAppointment(autoGenAppointmentID, title, description, location, type, startTimeStamp, endTimeStamp, customerID, userID, contactID);
-
-                //If the placeholder was successfully updated, this adds it to the list stored in memory.
-                if (rowsAffected > 0) {
-
-                    //Searches for a contact by their contact ID
-                    contact = AppointmentQuery.getContact(contactID);
-
-                    //Creates a new appointment object
-                    AppointmentInHouse newAppointment = new AppointmentInHouse(autoGenAppointmentID, title, description, location, contact, type, startTimeStamp, endTimeStamp, customerID, userID, visibleStart, visibleEnd);
-
-                    //Adds the appointment object to the observable list.
-                    AppointmentList.addAppointment(newAppointment);
-
-                    ObservableList<User> user = UsersList.getLoggedInUser();
-                    String userName = user.get(0).getUser_Name();
-                    String userType = UsersQuery.getUserType(userName);
-
-                    if(Objects.equals(userType, "admin")) {
-                        //Displays the appointment screen.
-                        Parent AppointmentScreenLoader = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/AppointmentModels/appointmentsUI.fxml")));
-                        Stage stage = (Stage) ((Button) actionEvent.getSource()).getScene().getWindow();
-                        Scene scene = new Scene(AppointmentScreenLoader, 1300, 600);
-                        stage.setTitle("Appointments Management Screen");
-                        stage.setScene(scene);
-                        stage.show();
-                    } else if (Objects.equals(userType, "contact")) {
-
-                        //Returns user to the contact landing page.
-                        Parent CustomerScreenLoader = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/ContactModels/contactUI.fxml")));
-                        Stage stage = (Stage) ((Button) actionEvent.getSource()).getScene().getWindow();
-                        Scene scene = new Scene(CustomerScreenLoader, 1500, 850);
-                        stage.setTitle("Spikes Scheduler");
-                        stage.setScene(scene);
-                        stage.centerOnScreen();
-                        stage.show();
-                    }
-                }
-            }
+            Button saveButton = (Button) actionEvent.getSource();
+
+            //Looks up the contact ID by name, then checks to see if new appointment overlaps another appointment of the same contact or customer.
+            AsyncQuery.submit(saveButton, () -> AppointmentQuery.getContactID(contact), id -> {
+                contactID = id;
+                AppointmentQuery.checkForOverlaps(saveButton, startTimeStamp, endTimeStamp, contactID, customerID, 0, () -> saveAppointment(saveButton));
+            });
         } catch (NullPointerException e) {
 
             //Displays an error message to the user using the alert object.
@@ -268,9 +208,58 @@ public class NewAppointmentController implements Initializable {
         }
     }
 
+    /**
+     * Inserts the appointment in the background once it has been validated and returns the user to their landing screen.
+     */
+    private void saveAppointment(Button saveButton) {
+
+        //Creates a new appointment object, its ID is generated by the database when it is inserted.
+        AppointmentInHouse newAppointment = new AppointmentInHouse(0, title, description, location, contact, contactID, type, startTimeStamp, endTimeStamp, customerID, userID);
+
+        //Inserts the new appointment, and adds it to the list stored in memory once it has been committed.
+        new UnitOfWork().insertAppointment(newAppointment).submit(rowsAffected -> {
+            try {
+                showLandingScreen(saveButton, newAppointment);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /**
+     * Returns the user to their landing screen if the appointment was saved.
+     */
+    private void showLandingScreen(Button saveButton, AppointmentInHouse newAppointment) throws IOException {
+
+        //If the appointment was successfully inserted, it now has the ID the database generated for it.
+        if (newAppointment.getA_id() > 0) {
+
+            String userType = UserSession.getCurrent().getUserType();
+
+            if(Objects.equals(userType, "admin")) {
+                //Displays the appointment screen.
+                Parent AppointmentScreenLoader = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/AppointmentModels/appointmentsUI.fxml")));
+                Stage stage = (Stage) saveButton.getScene().getWindow();
+                Scene scene = new Scene(AppointmentScreenLoader, 1300, 600);
+                stage.setTitle("Appointments Management Screen");
+                stage.setScene(scene);
+                stage.show();
+            } else if (Objects.equals(userType, "contact")) {
+
+                //Returns user to the contact landing page.
+                Parent CustomerScreenLoader = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/ContactModels/contactUI.fxml")));
+                Stage stage = (Stage) saveButton.getScene().getWindow();
+                Scene scene = new Scene(CustomerScreenLoader, 1500, 850);
+                stage.setTitle("Spikes Scheduler");
+                stage.setScene(scene);
+                stage.centerOnScreen();
+                stage.show();
+            }
+        }
+    }
+
     /**
      * Handles a click event on the "Cancel" button.
-     * Deletes the placeholder appointment from the database.
      * Cancel the creation of a new appointment.
      * @param actionEvent The action event triggered by clicking the button.
      * @throws IOException  If an I/O error occurs when canceling the appointment.
@@ -278,14 +267,9 @@ public class NewAppointmentController implements Initializable {
      */
     public void onCancelBtn_click(ActionEvent actionEvent) throws IOException, SQLException {
 
-        ObservableList<User> user = UsersList.getLoggedInUser();
-        String userName = user.get(0).getUser_Name();
-        String userType = UsersQuery.getUserType(userName);
+        String userType = UserSession.getCurrent().getUserType();
 
         if(Objects.equals(userType, "admin")) {
-            //Deletes placeholder appointment
-            AppointmentQuery.deletePlaceHolderAppointments("placeholder");
-
             //Displays the appointment screen.
             Parent newAppointmentLoader = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/AppointmentModels/appointmentsUI.fxml")));
             Stage stage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
@@ -1,13 +1,13 @@
 package Controllers.AppointmentControllers;
 
 import Objects.AppointmentObjects.Appointment;
-import Objects.UserObjects.User;
-import Objects.UserObjects.UsersList;
+import Objects.UserObjects.UserSession;
 import dao.AppointmentQuery;
-import Objects.AppointmentObjects.AppointmentList;
+import dao.AsyncQuery;
 import Objects.AppointmentObjects.AppointmentInHouse;
 import dao.CustomersQuery;
 import dao.UsersQuery;
+import dao.UnitOfWork;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -26,9 +26,6 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
 import java.util.*;
 
-import static dao.AppointmentQuery.checkAppointmentStartTime;
-import static dao.AppointmentQuery.checkForOverlaps;
-
 /**
  * The UpdateAppointmentController allows the user to update an appointment.
  * The fields are auto-populated from the users selection on the appointment screen.
@@ -47,7 +44,7 @@ public class UpdateAppointmentController implements Initializable {
     public DatePicker endDate_picker;
     public ComboBox<String> startDateDropDown_list;
     public ComboBox<String> endDateDropDown_list;
-    public String title, description, location, contact, type, startTime, endTime, visibleStart, visibleEnd;
+    public String title, description, location, contact, type, startTime, endTime;
     public int appointmentID, customerID, userID, contactID;
     LocalDate AppointmentStartDate, AppointmentEndDate;
     LocalTime AppointmentStartTime, AppointmentEndTime;
@@ -55,17 +52,19 @@ public class UpdateAppointmentController implements Initializable {
     ZonedDateTime AppointmentStartTimeInfo, AppointmentEndTimeInfo;
     ZonedDateTime businessStartTime, businessEndTime;
 
+    //The dropdowns are filled in the background, so the appointment's choices are selected again once they load.
+    private Appointment transferredAppointment;
+
     /**
      * Handles a click event on the "Update" button for updating an existing appointment.
      * Displays all fields in Local date and time.
      * Gets any update values from the input form.
      * Validates the appointment against EST business hours and checks for appointment overlaps.
+     * The contact lookup and the overlap check run in the background.
      * Returns the user to the appointmnet screen.
      * @param actionEvent The action event triggered by clicking the button.
-     * @throws IOException  If an I/O error occurs when updating the appointment.
-     * @throws SQLException If a database error occurs during appointment update.
      */
-    public void onUpdateBtn_click(ActionEvent actionEvent) throws IOException, SQLException {
+    public void onUpdateBtn_click(ActionEvent actionEvent) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
 
         //Get customer inputs from the form input fields
@@ -76,7 +75,7 @@ public class UpdateAppointmentController implements Initializable {
         type = appointmentType_input.getText();
 
         //Get customer inputs from the form dropdown fields
-        contactID = AppointmentQuery.getContactID(contactDropDown_list.getSelectionModel().getSelectedItem());
+        contact = contactDropDown_list.getSelectionModel().getSelectedItem();
         customerID = CIDDropDown_list.getSelectionModel().getSelectedItem();
         userID = UIDDropDown_list.getSelectionModel().getSelectedItem();
         startTime = startDateDropDown_list.getSelectionModel().getSelectedItem();
@@ -96,9 +95,6 @@ public class UpdateAppointmentController implements Initializable {
 
         ZonedDateTime.of(LocalDateTime.of(AppointmentStartDate, AppointmentStartTime), ZoneId.of("US/Eastern"));
 
-        //Convert the UTC time to the users local time to be displayed in the dropdown lists.
-        visibleStart = startTimeStamp.toLocalDateTime().format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM));
-        visibleEnd = endTimeStamp.toLocalDateTime().format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM));
 
         //New zone date time object using the system default zone.
         AppointmentStartTimeInfo = LocalDateTime.of(AppointmentStartDate, AppointmentStartTime).atZone(ZoneId.systemDefault());
@@ -127,99 +123,61 @@ public class UpdateAppointmentController implements Initializable {
             alert.show();
             return;
         }
-        //Checks to see if new appointment overlaps any appointments on the same day.
-        if(checkAppointmentStartTime(appointmentID, startTimeStamp)){
-
-            //Attempts to update the appointment and returns an integer greater than 0 if successful.
-            int rowsAffected = AppointmentQuery.updateAppointment(appointmentID, title, description, location, type, startTimeStamp, endTimeStamp, customerID, userID, contactID);
-
-            //Proceeds if the integer was greater than 0.
-            if (rowsAffected > 0) {
-
-                //Looks up the contact by contact ID
-                contact = AppointmentQuery.getContact(contactID);
-
-                //Creates a new appointment object.
-                AppointmentInHouse newAppointment = new AppointmentInHouse(appointmentID, title, description, location, contact, type, startTimeStamp, endTimeStamp, customerID, userID, visibleStart, visibleEnd);
-
-                //Finds the index of the new appointment object.
-                int index = AppointmentList.getAllAppointments().indexOf(AppointmentList.lookupAppointment(appointmentID));
-
-                //Updates the appointment in the observable list using its index.
-                AppointmentList.updateAppointment(index, newAppointment);
-
-                ObservableList<User> user = UsersList.getLoggedInUser();
-                String userName = user.get(0).getUser_Name();
-                String userType = UsersQuery.getUserType(userName);
-
-                if(Objects.equals(userType, "admin")) {
-                    //Displays the appointment screen.
-                    Parent AppointmentScreenLoader = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/AppointmentModels/appointmentsUI.fxml")));
-                    Stage stage = (Stage) ((Button) actionEvent.getSource()).getScene().getWindow();
-                    Scene scene = new Scene(AppointmentScreenLoader, 1300, 600);
-                    stage.setTitle("Appointments Management Screen");
-                    stage.setScene(scene);
-                    stage.show();
-                } else if (Objects.equals(userType, "contact")) {
-
-                    //Returns user to the contact landing page.
-                    Parent CustomerScreenLoader = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/ContactModels/contactUI.fxml")));
-                    Stage stage = (Stage) ((Button) actionEvent.getSource()).getScene().getWindow();
-                    Scene scene = new Scene(CustomerScreenLoader, 1500, 850);
-                    stage.setTitle("Spikes Scheduler");
-                    stage.setScene(scene);
-                    stage.centerOnScreen();
-                    stage.show();
-                }
+        Button updateButton = (Button) actionEvent.getSource();
+
+        //Looks up the contact ID by name, then checks to see if appointment overlaps with another appointment of the same contact or customer.
+        AsyncQuery.submit(updateButton, () -> AppointmentQuery.getContactID(contact), id -> {
+            contactID = id;
+            AppointmentQuery.checkForOverlaps(updateButton, startTimeStamp, endTimeStamp, contactID, customerID, appointmentID, () -> saveAppointment(updateButton));
+        });
+    }
+
+    /**
+     * Updates the appointment in the background once it has been validated and returns the user to their landing screen.
+     */
+    private void saveAppointment(Button updateButton) {
+
+        //Creates a new appointment object.
+        AppointmentInHouse newAppointment = new AppointmentInHouse(appointmentID, title, description, location, contact, contactID, type, startTimeStamp, endTimeStamp, customerID, userID);
+
+        //Attempts to update the appointment in the database, and the list stored in memory once it has been committed. Passes an integer greater than 0 if successful.
+        new UnitOfWork().updateAppointment(newAppointment).submit(rowsAffected -> {
+            try {
+                showLandingScreen(updateButton, rowsAffected);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
             }
-        }else {
-
-            //Checks to see if appointment overlaps with another.
-            if(checkForOverlaps(startTimeStamp)) {
-            }else{
-
-                //Attempts to update the appointment in the database and returns an integer greater than 0 if successful.
-                int rowsAffected = AppointmentQuery.updateAppointment(appointmentID, title, description, location, type, startTimeStamp, endTimeStamp, customerID, userID, contactID);
-
-                //Proceeds if integer was greater 0.
-                if (rowsAffected > 0) {
-
-                    //Looks up contact by contact ID.
-                    contact = AppointmentQuery.getContact(contactID);
-
-                    //Creates a new appointment object.
-                    AppointmentInHouse newAppointment = new AppointmentInHouse(appointmentID, title, description, location, contact, type, startTimeStamp, endTimeStamp, customerID, userID, visibleStart, visibleEnd);
-
-                    //Looks up appointment by appointment ID
-                    int index = AppointmentList.getAllAppointments().indexOf(AppointmentList.lookupAppointment(appointmentID));
-
-                    //Updates the appointment by its index.
-                    AppointmentList.updateAppointment(index, newAppointment);
-
-                    ObservableList<User> user = UsersList.getLoggedInUser();
-                    String userName = user.get(0).getUser_Name();
-                    String userType = UsersQuery.getUserType(userName);
-
-                    if(Objects.equals(userType, "admin")) {
-                        //Displays the appointment screen.
-                        Parent AppointmentScreenLoader = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/AppointmentModels/appointmentsUI.fxml")));
-                        Stage stage = (Stage) ((Button) actionEvent.getSource()).getScene().getWindow();
-                        Scene scene = new Scene(AppointmentScreenLoader, 1300, 600);
-                        stage.setTitle("Appointments Management Screen");
-                        stage.setScene(scene);
-                        stage.show();
-                    } else if (Objects.equals(userType, "contact")) {
-
-                        //Returns user to the contact landing page.
-                        Parent CustomerScreenLoader = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/ContactModels/contactUI.fxml")));
-                        Stage stage = (Stage) ((Button) actionEvent.getSource()).getScene().getWindow();
-                        Scene scene = new Scene(CustomerScreenLoader, 1500, 850);
-                        stage.setTitle("Spikes Scheduler");
-                        stage.setScene(scene);
-                        stage.centerOnScreen();
-                        stage.show();
-                    }
-                }
+        });
+    }
+
+    /**
+     * Returns the user to their landing screen if the appointment was saved.
+     */
+    private void showLandingScreen(Button updateButton, int rowsAffected) throws IOException {
+
+        //Proceeds if integer was greater 0.
+        if (rowsAffected > 0) {
+
+            String userType = UserSession.getCurrent().getUserType();
+
+            if(Objects.equals(userType, "admin")) {
+                //Displays the appointment screen.
+                Parent AppointmentScreenLoader = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/AppointmentModels/appointmentsUI.fxml")));
+                Stage stage = (Stage) updateButton.getScene().getWindow();
+                Scene scene = new Scene(AppointmentScreenLoader, 1300, 600);
+                stage.setTitle("Appointments Management Screen");
+                stage.setScene(scene);
+                stage.show();
+            } else if (Objects.equals(userType, "contact")) {
+
+                //Returns user to the contact landing page.
+                Parent CustomerScreenLoader = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/ContactModels/contactUI.fxml")));
+                Stage stage = (Stage) updateButton.getScene().getWindow();
+                Scene scene = new Scene(CustomerScreenLoader, 1500, 850);
+                stage.setTitle("Spikes Scheduler");
+                stage.setScene(scene);
+                stage.centerOnScreen();
+                stage.show();
             }
         }
     }
@@ -233,9 +191,7 @@ public class UpdateAppointmentController implements Initializable {
      */
     public void onCancelBtn_click(ActionEvent actionEvent) throws IOException, SQLException {
 
-        ObservableList<User> user = UsersList.getLoggedInUser();
-        String userName = user.get(0).getUser_Name();
-        String userType = UsersQuery.getUserType(userName);
+        String userType = UserSession.getCurrent().getUserType();
 
         if(Objects.equals(userType, "admin")) {
 
@@ -301,15 +257,25 @@ public class UpdateAppointmentController implements Initializable {
         startDateDropDown_list.setItems(startTimes);
         endDateDropDown_list.setItems(endTimes);
 
-        try {
-
-            //Sets the contactID, userID, and contactID drop down lists.
-            contactDropDown_list.setItems(AppointmentQuery.getContacts());
-            CIDDropDown_list.setItems(CustomersQuery.getCustomerIDs());
-            UIDDropDown_list.setItems(UsersQuery.getUserIDs());
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
+        //Sets the contact, customer ID, and user ID drop down lists once they have been loaded.
+        AsyncQuery.submit(contactDropDown_list, AppointmentQuery::getContacts, contacts -> {
+            contactDropDown_list.setItems(contacts);
+            if (transferredAppointment != null) {
+                contactDropDown_list.getSelectionModel().select(transferredAppointment.getContactName());
+            }
+        });
+        AsyncQuery.submit(CIDDropDown_list, CustomersQuery::getCustomerIDs, customerIDs -> {
+            CIDDropDown_list.setItems(customerIDs);
+            if (transferredAppointment != null) {
+                CIDDropDown_list.getSelectionModel().select((Integer) transferredAppointment.getCustomerID());
+            }
+        });
+        AsyncQuery.submit(UIDDropDown_list, UsersQuery::getUserIDs, userIDs -> {
+            UIDDropDown_list.setItems(userIDs);
+            if (transferredAppointment != null) {
+                UIDDropDown_list.getSelectionModel().select((Integer) transferredAppointment.getUserID());
+            }
+        });
     }
 
     /**
@@ -320,6 +286,7 @@ public class UpdateAppointmentController implements Initializable {
      * @throws SQLException If a database error occurs when loading the appointment information.
      */
     public void transferAppointmentInfo(Appointment appointment) throws SQLException {
+        transferredAppointment = appointment;
 
         //Sets the form input using information passed from the appointment screen.
         appointmentID_input.setText(String.valueOf(appointment.getA_id()));
@@ -1,20 +1,21 @@
 package Controllers.ContactControllers;
 
+import Controllers.AppointmentControllers.AppointmentTimeCell;
 import Controllers.AppointmentControllers.UpdateAppointmentController;
 import Controllers.CustomerControllers.UpdateCustomerController;
+import LambdaInterfaces.QueryInterface;
 import Objects.AppointmentObjects.Appointment;
-import Objects.AppointmentObjects.AppointmentList;
-import Objects.ContactObjects.Contact;
 import Objects.ContactObjects.ContactAppointmentList;
-import Objects.ContactObjects.ContactList;
 import Objects.CustomerObjects.Customer;
 import Objects.CustomerObjects.CustomersList;
-import Objects.UserObjects.User;
-import Objects.UserObjects.UsersList;
+import Objects.UserObjects.UserSession;
 import dao.AppointmentQuery;
-import dao.UsersQuery;
+import dao.AsyncQuery;
+import dao.CustomersQuery;
+import dao.UnitOfWork;
 import javafx.application.Platform;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -27,6 +28,8 @@ import javafx.stage.Stage;
 import java.io.IOException;
 import java.net.URL;
 import java.sql.SQLException;
+import java.time.format.FormatStyle;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.ResourceBundle;
@@ -39,8 +42,8 @@ public class ContactScreenController implements Initializable {
     public TableColumn<Appointment, String> appointmentDesc_col;
     public TableColumn<Appointment, String> appointmentLoc_col;
     public TableColumn<Appointment, String> appointmentType_col;
-    public TableColumn<Appointment, String> appointmentStartDate_col;
-    public TableColumn<Appointment, String> appointmentEndDate_col;
+    public TableColumn<Appointment, Long> appointmentStartDate_col;
+    public TableColumn<Appointment, Long> appointmentEndDate_col;
     public TableView<Customer> customerTable;
     public TableColumn<Customer, String> customerName_col;
     public TableColumn<Customer, String> customerAddress_col;
@@ -49,47 +52,48 @@ public class ContactScreenController implements Initializable {
     public Label contactName_label;
     public TextField appointmentSearchTxt_field;
 
-    ObservableList<User> user = UsersList.getLoggedInUser();
-    int userID = user.get(0).getUser_ID();
-    Contact contact = ContactList.lookupContact(userID);
+    UserSession session = UserSession.getCurrent();
+
+    //The queries currently filling the appointment and customer tables.
+    private Task<List<Appointment>> appointmentLoad;
+    private Task<Customer> customerLoad;
 
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
 
-        //Populates the table with data from the database.
+        //Populates the table with the contact's appointments from the database once the query finishes.
         appointmentTable.setItems(ContactAppointmentList.getAllAppointments());
+        appointmentLoad = AsyncQuery.load(appointmentTable, () -> AppointmentQuery.findAppointmentsByContact(session.getContactID()), appointments -> {
+            AppointmentQuery.showAppointments(appointments);
+            selectFirstAppointment();
+        });
         //Populates the columns used in the table.
         appointmentTitle_col.setCellValueFactory(new PropertyValueFactory<>("title"));
         appointmentDesc_col.setCellValueFactory(new PropertyValueFactory<>("description"));
         appointmentLoc_col.setCellValueFactory(new PropertyValueFactory<>("location"));
         appointmentType_col.setCellValueFactory(new PropertyValueFactory<>("type"));
-        appointmentStartDate_col.setCellValueFactory(new PropertyValueFactory<>("visibleStart"));
-        appointmentEndDate_col.setCellValueFactory(new PropertyValueFactory<>("visibleEnd"));
-
-        assert contact != null;
-        String contactName = contact.getName();
+        appointmentStartDate_col.setCellValueFactory(new PropertyValueFactory<>("startMillis"));
+        appointmentEndDate_col.setCellValueFactory(new PropertyValueFactory<>("endMillis"));
+        setTimeStyle(FormatStyle.MEDIUM);
 
-        contactName_label.setText(contactName);
+        contactName_label.setText(session.getContactName());
 
-        try {
-            // Set up a listener for mouse click events on the appointment table
-            appointmentTable.setOnMouseClicked(event -> {
-                try {
-                    handleAppointmentClick();
-                } catch (SQLException e) {
-                    throw new RuntimeException(e);
-                }
-            });
+        // Set up a listener for mouse click events on the appointment table
+        appointmentTable.setOnMouseClicked(event -> handleAppointmentClick());
+        selectFirstAppointment();
+    }
 
-            // Set a default selected item (e.g., the first item in the list)
-            if (!appointmentTable.getItems().isEmpty()) {
-                appointmentTable.getSelectionModel().select(0);
-                String contactNames = appointmentTable.getSelectionModel().getSelectedItem().getContactName();
-                contactName_label.setText(contactNames);
-                // Trigger the mouse click event for the default selected item
-                handleAppointmentClick();
-            }
-        }catch (SQLException ignored){
+    /**
+     * Selects the first appointment in the table and shows its customer.
+     */
+    private void selectFirstAppointment() {
+        // Set a default selected item (e.g., the first item in the list)
+        if (!appointmentTable.getItems().isEmpty()) {
+            appointmentTable.getSelectionModel().select(0);
+            String contactNames = appointmentTable.getSelectionModel().getSelectedItem().getContactName();
+            contactName_label.setText(contactNames);
+            // Trigger the mouse click event for the default selected item
+            handleAppointmentClick();
         }
     }
 
@@ -97,18 +101,37 @@ public class ContactScreenController implements Initializable {
         Platform.exit();
     }
 
-    private void handleAppointmentClick() throws SQLException {
+    /**
+     * Shows the customer of the selected appointment.
+     * Customers that haven't been loaded yet are retrieved in the background.
+     */
+    private void handleAppointmentClick() {
         Appointment selectedAppointment = appointmentTable.getSelectionModel().getSelectedItem();
         if (selectedAppointment != null) {
             int customerInfo = selectedAppointment.getCustomerID();
-            // Update the customer table with customer information
-            customerTable.setItems(CustomersList.getCustomerInfo(customerInfo));
 
             // Set the columns used in the customer table
             customerName_col.setCellValueFactory(new PropertyValueFactory<>("name"));
             customerAddress_col.setCellValueFactory(new PropertyValueFactory<>("address"));
             customerPostal_col.setCellValueFactory(new PropertyValueFactory<>("postalCode"));
             customerPhone_col.setCellValueFactory(new PropertyValueFactory<>("phone"));
+
+            // Update the customer table with customer information
+            Customer customer = CustomersList.lookupCustomer(customerInfo);
+            if (customer != null) {
+                customerTable.setItems(CustomersList.getCustomerInfo(customer));
+                return;
+            }
+            if (customerLoad != null) {
+                customerLoad.cancel();
+            }
+            customerTable.setItems(CustomersList.getCustomerInfo((Customer) null));
+            customerLoad = AsyncQuery.load(customerTable, () -> CustomersQuery.findCustomer(customerInfo), loadedCustomer -> {
+                if (loadedCustomer != null && CustomersList.lookupCustomer(customerInfo) == null) {
+                    CustomersList.addCustomer(loadedCustomer);
+                }
+                customerTable.setItems(CustomersList.getCustomerInfo(CustomersList.lookupCustomer(customerInfo)));
+            });
         }
     }
 
@@ -150,7 +173,7 @@ public class ContactScreenController implements Initializable {
         stage.show();
     }
 
-    public void onCancelBtn_click(ActionEvent actionEvent) throws SQLException, IOException {
+    public void onCancelBtn_click(ActionEvent actionEvent) {
 
         Alert alert = new Alert(Alert.AlertType.WARNING);
         Alert alert1 = new Alert(Alert.AlertType.CONFIRMATION);
@@ -170,38 +193,43 @@ public class ContactScreenController implements Initializable {
             Optional<ButtonType> result = alert1.showAndWait();
             if(result.isPresent() && result.get() == ButtonType.OK){
                 //Deletes the selected appointment after receiving confirmation from the user.
-                int rowsAffected = AppointmentQuery.deleteAppointment(removeAppointment.getA_id());
-                if(rowsAffected > 0){
-                    //Displays a confirmation that the appointment was deleted.
-                    alert2.setTitle("Appointment " + removeAppointment.getA_id() + " has been canceled");
-                    alert2.setContentText("Appointment ID: " + removeAppointment.getA_id() + "\n" + "Appointment type: " + removeAppointment.getType() + " \nThis appointment has been canceled");
-                    alert2.showAndWait();
-                    AppointmentList.deleteAppointment(removeAppointment);
-
-                    ObservableList<User> user = UsersList.getLoggedInUser();
-                    String userName = user.get(0).getUser_Name();
-                    String userType = UsersQuery.getUserType(userName);
-
-                    if(Objects.equals(userType, "admin")) {
-                        //Displays the appointment screen.
-                        Parent AppointmentScreenLoader = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/AppointmentModels/appointmentsUI.fxml")));
-                        Stage stage = (Stage) ((Button) actionEvent.getSource()).getScene().getWindow();
-                        Scene scene = new Scene(AppointmentScreenLoader, 1300, 600);
-                        stage.setTitle("Appointments Management Screen");
-                        stage.setScene(scene);
-                        stage.show();
-                    } else if (Objects.equals(userType, "contact")) {
-
-                        //Returns user to the contact landing page.
-                        Parent CustomerScreenLoader = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/ContactModels/contactUI.fxml")));
-                        Stage stage = (Stage) ((Button) actionEvent.getSource()).getScene().getWindow();
-                        Scene scene = new Scene(CustomerScreenLoader, 1500, 850);
-                        stage.setTitle("Spikes Scheduler");
-                        stage.setScene(scene);
-                        stage.centerOnScreen();
-                        stage.show();
+                //The appointment is removed from the list stored in memory once the deletion has been committed.
+                new UnitOfWork().deleteAppointment(removeAppointment.getA_id()).submit(rowsAffected -> {
+                    if(rowsAffected > 0){
+                        //Displays a confirmation that the appointment was deleted.
+                        alert2.setTitle("Appointment " + removeAppointment.getA_id() + " has been canceled");
+                        alert2.setContentText("Appointment ID: " + removeAppointment.getA_id() + "\n" + "Appointment type: " + removeAppointment.getType() + " \nThis appointment has been canceled");
+                        alert2.showAndWait();
+                        ContactAppointmentList.deleteAppointment(removeAppointment);
+
+                        //Uses the type of the logged in user rather than looking it up again.
+                        String userType = session.getUserType();
+
+                        try {
+                            if(Objects.equals(userType, "admin")) {
+                                //Displays the appointment screen.
+                                Parent AppointmentScreenLoader = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/AppointmentModels/appointmentsUI.fxml")));
+                                Stage stage = (Stage) ((Button) actionEvent.getSource()).getScene().getWindow();
+                                Scene scene = new Scene(AppointmentScreenLoader, 1300, 600);
+                                stage.setTitle("Appointments Management Screen");
+                                stage.setScene(scene);
+                                stage.show();
+                            } else if (Objects.equals(userType, "contact")) {
+
+                                //Returns user to the contact landing page.
+                                Parent CustomerScreenLoader = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/ContactModels/contactUI.fxml")));
+                                Stage stage = (Stage) ((Button) actionEvent.getSource()).getScene().getWindow();
+                                Scene scene = new Scene(CustomerScreenLoader, 1500, 850);
+                                stage.setTitle("Spikes Scheduler");
+                                stage.setScene(scene);
+                                stage.centerOnScreen();
+                                stage.show();
+                            }
+                        } catch (IOException e) {
+                            throw new RuntimeException(e);
+                        }
                     }
-                }
+                });
             }
         }
     }
@@ -244,30 +272,53 @@ public class ContactScreenController implements Initializable {
     public void onWeeklyReport_click(ActionEvent actionEvent) {
     }
 
-    public void onMonthRadio_click(ActionEvent actionEvent) throws SQLException {
+    public void onMonthRadio_click(ActionEvent actionEvent) {
 
         //Clears the tables current layout
         appointmentTable.getItems().clear();
         customerTable.getItems().clear();
+        setTimeStyle(FormatStyle.SHORT);
         //Displays the appointments by month.
-        AppointmentQuery.getAppointmentsByMonth();
         appointmentTable.setItems(ContactAppointmentList.getAllAppointments());
+        loadAppointments(AppointmentQuery::findAppointmentsByMonth);
 
     }
-    public void onWeekRadio_click(ActionEvent actionEvent) throws SQLException {
+    public void onWeekRadio_click(ActionEvent actionEvent) {
 
         //Clears the tables current layout
         appointmentTable.getItems().clear();
         customerTable.getItems().clear();
+        setTimeStyle(FormatStyle.SHORT);
         //Displays the appointments by week.
-        AppointmentQuery.getAppointmentsByWeek();
         appointmentTable.setItems(ContactAppointmentList.getAllAppointments());
+        loadAppointments(AppointmentQuery::findAppointmentsByWeek);
+    }
+
+    /**
+     * Sets how the start and end times are shown, the month and week views use the short style.
+     *
+     * @param style The length of the formatted dates and times.
+     */
+    private void setTimeStyle(FormatStyle style) {
+        appointmentStartDate_col.setCellFactory(AppointmentTimeCell.forStyle(style));
+        appointmentEndDate_col.setCellFactory(AppointmentTimeCell.forStyle(style));
+    }
+
+    /**
+     * Loads appointments into the table in the background, replacing any load that is still running.
+     *
+     * @param query The query retrieving the appointments.
+     */
+    private void loadAppointments(QueryInterface<List<Appointment>> query) {
+        if (appointmentLoad != null) {
+            appointmentLoad.cancel();
+        }
+        appointmentLoad = AsyncQuery.load(appointmentTable, query, AppointmentQuery::showAppointments);
     }
 
-    public void onAppointmentSearch(ActionEvent actionEvent) throws SQLException {
-        ObservableList<Appointment> currentAppointmentList = ContactAppointmentList.getAllAppointments();
+    public void onAppointmentSearch(ActionEvent actionEvent) {
         String appointmentSearch = appointmentSearchTxt_field.getText();
-        ObservableList<Appointment> appointmentSearchList = ContactAppointmentList.searchForAppointment(appointmentSearch, currentAppointmentList);
+        ObservableList<Appointment> appointmentSearchList = ContactAppointmentList.searchForAppointment(appointmentSearch);
 
         appointmentTable.setItems(appointmentSearchList);
         if(appointmentSearchList.isEmpty()){
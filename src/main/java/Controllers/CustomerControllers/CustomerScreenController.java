@@ -1,9 +1,10 @@
 package Controllers.CustomerControllers;
 
-import Objects.AppointmentObjects.Appointment;
+import Controllers.AppointmentControllers.AppointmentAlertService;
 import Objects.AppointmentObjects.AppointmentList;
 import Objects.CustomerObjects.Customer;
 import Objects.CustomerObjects.CustomersList;
+import dao.AsyncQuery;
 import dao.CustomersQuery;
 import dao.JDBC;
 import javafx.application.Platform;
@@ -21,9 +22,12 @@ import javafx.stage.Stage;
 import java.io.IOException;
 import java.net.URL;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.stream.Collectors;
 
 /**
  * The CustomerScreenController allows the user to view a list of customers from the database.
@@ -59,6 +63,9 @@ public class CustomerScreenController implements Initializable {
         //sets the table items using the observable customer list.
         customerTable.setItems(CustomersList.getAllCustomers());
 
+        //Several customers can be selected to delete them together.
+        customerTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+
         //Sets the columns used in the table.
         customerID_col.setCellValueFactory(new PropertyValueFactory<>("id"));
         customerName_col.setCellValueFactory(new PropertyValueFactory<>("name"));
@@ -143,22 +150,21 @@ public class CustomerScreenController implements Initializable {
 
     /**
      * Handles a click event on the "Delete Customer" button.
-     * Validates that a customer has been selected.
+     * Validates that at least one customer has been selected.
      * Confirms the delete customer action and proceeds with deletion if confirmation is received.
+     * The selected customers and their appointments are deleted from the database together in the background.
      * @param actionEvent The action event triggered by clicking the button.
-     * @throws SQLException If a database error occurs during the customer deletion.
      */
-    public void onDelCustomer_click(ActionEvent actionEvent) throws SQLException {
+    public void onDelCustomer_click(ActionEvent actionEvent) {
 
         //Create the alert object.
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
-        Alert alert2 = new Alert(Alert.AlertType.INFORMATION);
 
-        //Gets the selected customer from the table.
-        Customer removeCustomer = customerTable.getSelectionModel().getSelectedItem();
+        //Gets the selected customers from the table.
+        List<Customer> removeCustomers = new ArrayList<>(customerTable.getSelectionModel().getSelectedItems());
 
         //Checks to see if the user selected a customer.
-        if(removeCustomer == null){
+        if(removeCustomers.isEmpty()){
 
             //Displays a message to the user using the alert object.
             alert.setTitle("Invalid Action");
@@ -166,9 +172,13 @@ public class CustomerScreenController implements Initializable {
             alert.showAndWait();
         }else {
 
+            //Names the customer, or counts the customers when several are selected.
+            String removeNames = removeCustomers.size() == 1 ? removeCustomers.get(0).getName() : removeCustomers.size() + " customers";
+            List<Integer> removeIDs = removeCustomers.stream().map(Customer::getId).collect(Collectors.toList());
+
             //Prompts the user for confirmation .
             alert.setTitle("Delete Customer Confirmation");
-            alert.setContentText("Are you sure you want to delete " + removeCustomer.getName() + " ? ");
+            alert.setContentText("Are you sure you want to delete " + removeNames + " ? ");
 
             //Adds the prompt to the alert object and waits for user selection.
             Optional<ButtonType> result = alert.showAndWait();
@@ -176,23 +186,23 @@ public class CustomerScreenController implements Initializable {
             //Proceeds if the user selects yes.
             if (result.isPresent() && result.get() == ButtonType.OK) {
 
-                //Checks to see if customer has appointments and deletes those first.
-                CustomersQuery.checkForAppointments(removeCustomer.getId());
-
-                //Passes the selection to the database and attempts to delete the customer, returns an int greater than 0 if the deletion was successful.
-                int rowsAffected = CustomersQuery.deleteCustomer(removeCustomer.getId());
+                //Deletes the customers and their appointments in the background, returns an int greater than 0 if the deletion was successful.
+                AsyncQuery.submit(() -> CustomersQuery.deleteCustomers(removeIDs), rowsAffected -> {
+                    AppointmentAlertService.reload();
 
-                //Checks to see if integer is greater than 0 before displaying a confirmation message.
-                if (rowsAffected > 0) {
+                    //Checks to see if integer is greater than 0 before displaying a confirmation message.
+                    if (rowsAffected > 0) {
 
-                    //Displays the confirmation to the user using the alert object.
-                    alert.setTitle("Delete Customer Confirmation");
-                    alert.setContentText("Customer " + removeCustomer.getName() + " and their appointments have been deleted.");
-                    alert.showAndWait();
+                        //Deletes the customers and their appointments from the lists stored in memory.
+                        AppointmentList.deleteAppointmentsByCustomers(removeIDs);
+                        CustomersList.deleteCustomers(removeIDs);
 
-                    //Deletes the customer from the table.
-                    CustomersList.deleteCustomer(removeCustomer);
-                }
+                        //Displays the confirmation to the user using the alert object.
+                        alert.setTitle("Delete Customer Confirmation");
+                        alert.setContentText((removeCustomers.size() == 1 ? "Customer " : "") + removeNames + " and their appointments have been deleted.");
+                        alert.showAndWait();
+                    }
+                });
             }
         }
     }
@@ -1,14 +1,10 @@
 package Controllers.CustomerControllers;
 
 import Objects.CustomerObjects.Customer;
-import Objects.UserObjects.User;
-import Objects.UserObjects.UsersList;
+import Objects.UserObjects.UserSession;
 import dao.CountryQuery;
-import dao.CustomersQuery;
+import dao.UnitOfWork;
 import Objects.CustomerObjects.CustomersInHouse;
-import Objects.CustomerObjects.CustomersList;
-import dao.UsersQuery;
-import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -61,19 +57,8 @@ public class UpdateCustomerController implements Initializable {
         String division = CountryQuery.getDivision(customer.getDivisionID());
 
 
-        if(Objects.equals(country, "U.S")){
-
-            //Preselects the division drop down list using info received from the customer screen.
-            divisionDropDown_list.setItems(CountryQuery.getDivisions(1));
-        }else if(Objects.equals(country, "UK")){
-
-            //Preselects the division drop down list using info received from the customer screen.
-            divisionDropDown_list.setItems(CountryQuery.getDivisions(2));
-        }else if(Objects.equals(country, "Canada")){
-
-            //Preselects the country drop down list using info received from the customer screen.
-            divisionDropDown_list.setItems(CountryQuery.getDivisions(3));
-        }
+        //Preselects the division drop down list using info received from the customer screen.
+        divisionDropDown_list.setItems(CountryQuery.getDivisions(country));
 
         //Preselects the country and division drop downs.
         countryDropDown_list.getSelectionModel().select(country);
@@ -83,12 +68,11 @@ public class UpdateCustomerController implements Initializable {
     /**
      * Handles a click event on the "Save" button for updating customer information.
      * Validates the updated form fields and drop down lists.
-     * Returns the user to the customer screen.
+     * Updates the customer in the background and returns the user to the customer screen.
      * @param actionEvent The action event triggered by clicking the button.
-     * @throws IOException  If an I/O error occurs when updating customer information.
-     * @throws SQLException If a database error occurs during the update.
+     * @throws SQLException If a database error occurs while looking up the division.
      */
-    public void updateCustomerSaveBtn_click(ActionEvent actionEvent) throws IOException, SQLException {
+    public void updateCustomerSaveBtn_click(ActionEvent actionEvent) throws SQLException {
 
         //Variables used to hold what the user input into the form.
         id = Integer.parseInt(customerID_input.getText());
@@ -98,24 +82,28 @@ public class UpdateCustomerController implements Initializable {
         phone = customerPhone_input.getText();
         division = CountryQuery.getDivisionID(divisionDropDown_list.getSelectionModel().getSelectedItem());
 
-        //Attempts to update the selected customer and returns an integer greater than 0 if successful.
-        int rowsAffected = CustomersQuery.updateCustomer(id, name, address, postal, phone, division);
+        //Creates a new customer object using updated information.
+        CustomersInHouse updateCustomer = new CustomersInHouse(id, name, address, postal, phone, division);
 
-        //Proceeds if integer was greater than 0;
-        if(rowsAffected > 0){
-
-            //Creates a new customer object using updated information.
-            CustomersInHouse updateCustomer = new CustomersInHouse(id, name, address, postal, phone, division);
+        //Attempts to update the selected customer, and the customer list once it has been committed. Passes an integer greater than 0 if successful.
+        new UnitOfWork().updateCustomer(updateCustomer).submit(rowsAffected -> {
+            try {
+                showLandingScreen(actionEvent, rowsAffected);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
 
-            //Looks for the old customer object by customer ID
-            int index = CustomersList.getAllCustomers().indexOf(CustomersList.lookupCustomer(id));
+    /**
+     * Returns the user to their landing screen if the customer was updated.
+     */
+    private void showLandingScreen(ActionEvent actionEvent, int rowsAffected) throws IOException {
 
-            //Updates the customer object using its index.
-            CustomersList.updateCustomer(index, updateCustomer);
+        //Proceeds if integer was greater than 0;
+        if(rowsAffected > 0){
 
-            ObservableList<User> user = UsersList.getLoggedInUser();
-            String userName = user.get(0).getUser_Name();
-            String userType = UsersQuery.getUserType(userName);
+            String userType = UserSession.getCurrent().getUserType();
 
             if(Objects.equals(userType, "admin")){
 
@@ -150,9 +138,7 @@ public class UpdateCustomerController implements Initializable {
      */
     public void onCancelBtnClick(ActionEvent actionEvent) throws IOException, SQLException {
 
-        ObservableList<User> user = UsersList.getLoggedInUser();
-        String userName = user.get(0).getUser_Name();
-        String userType = UsersQuery.getUserType(userName);
+        String userType = UserSession.getCurrent().getUserType();
 
         if(Objects.equals(userType, "admin")) {
             //Displays the customer screen.
@@ -186,19 +172,8 @@ public class UpdateCustomerController implements Initializable {
         //Gets the selected country from the dropdown list.
         String selectedCountry = countryDropDown_list.getSelectionModel().getSelectedItem();
 
-        if(Objects.equals(selectedCountry, "U.S")){
-
-            //Updates the division drop down list in real time based on the selected country.
-            divisionDropDown_list.setItems(CountryQuery.getDivisions(1));
-        }else if(Objects.equals(selectedCountry, "UK")){
-
-            //Updates the division drop down list in real time based on the selected country.
-            divisionDropDown_list.setItems(CountryQuery.getDivisions(2));
-        }else if(Objects.equals(selectedCountry, "Canada")){
-
-            //Updates the division drop down list in real time based on the selected country.
-            divisionDropDown_list.setItems(CountryQuery.getDivisions(3));
-        }
+        //Updates the division drop down list in real time based on the selected country.
+        divisionDropDown_list.setItems(CountryQuery.getDivisions(selectedCountry));
     }
 
     /**
@@ -0,0 +1,337 @@
+package Controllers.FileControllers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appends records to a log file from a background thread.
+ * Callers only add the record to a bounded lock-free queue, the writer thread drains it in batches with a single
+ * channel write per batch, syncs the file according to the fsync policy, and rotates the file once it grows too large
+ * or too old. When the queue is full records are dropped or the caller briefly waits, depending on the overflow policy.
+ */
+public class AuditLogWriter implements AutoCloseable {
+
+    /**
+     * When written records are forced to disk.
+     */
+    public enum FsyncPolicy {
+        //Leaves flushing to the operating system.
+        NEVER,
+        //Forces the file after every batch.
+        EVERY_BATCH,
+        //Forces the file at most once per fsync interval.
+        PERIODIC
+    }
+
+    /**
+     * What happens to a record that arrives while the queue is full.
+     */
+    public enum OverflowPolicy {
+        //Drops the record straight away.
+        DROP,
+        //Waits up to the offer timeout for room, then drops the record.
+        WAIT
+    }
+
+    private static final DateTimeFormatter rotationSuffix = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final byte[] lineSeparator = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+    private static final int maxBatchSize = 512;
+
+    private final Path file;
+    private final int capacity;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalMillis;
+    private final OverflowPolicy overflowPolicy;
+    private final long offerTimeoutMillis;
+    private final long maxFileBytes;
+    private final long rotationIntervalMillis;
+
+    private final ConcurrentLinkedQueue<String> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong fsyncCount = new AtomicLong();
+    private final AtomicLong rotationCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final Thread writerThread;
+    private volatile boolean closed;
+
+    //Only touched by the writer thread.
+    private FileChannel channel;
+    private long fileOpenedAt;
+    private long lastFsyncAt;
+    private boolean unsynced;
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+    /**
+     * Creates a writer and starts its background thread.
+     *
+     * @param file                   The log file, created if it doesn't exist.
+     * @param capacity               The maximum number of records waiting to be written.
+     * @param fsyncPolicy            When written records are forced to disk.
+     * @param fsyncIntervalMillis    The minimum time between forces for the periodic policy.
+     * @param overflowPolicy         What happens to records that arrive while the queue is full.
+     * @param offerTimeoutMillis     How long the wait policy waits for room in the queue.
+     * @param maxFileBytes           The size at which the file is rotated, 0 to disable.
+     * @param rotationIntervalMillis The age at which the file is rotated, 0 to disable.
+     */
+    public AuditLogWriter(Path file, int capacity, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis,
+                          OverflowPolicy overflowPolicy, long offerTimeoutMillis, long maxFileBytes, long rotationIntervalMillis) {
+        this.file = file;
+        this.capacity = capacity;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.maxFileBytes = maxFileBytes;
+        this.rotationIntervalMillis = rotationIntervalMillis;
+
+        writerThread = new Thread(this::run, "audit-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Queues a record to be appended to the log. Never blocks longer than the offer timeout.
+     *
+     * @param record The record, without a line separator.
+     * @return True if the record was queued, false if it was dropped.
+     */
+    public boolean append(String record) {
+        if (closed) {
+            droppedCount.incrementAndGet();
+            return false;
+        }
+        long deadline = overflowPolicy == OverflowPolicy.WAIT ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis) : 0;
+
+        //Reserves a slot before adding so the queue never holds more than its capacity.
+        while (true) {
+            int size = queued.get();
+            if (size < capacity) {
+                if (queued.compareAndSet(size, size + 1)) {
+                    break;
+                }
+                continue;
+            }
+            if (overflowPolicy == OverflowPolicy.DROP || System.nanoTime() - deadline >= 0) {
+                droppedCount.incrementAndGet();
+                return false;
+            }
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        queue.offer(record);
+        LockSupport.unpark(writerThread);
+        return true;
+    }
+
+    /**
+     * Writes every queued record, forces the file to disk and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    public long getFsyncCount() {
+        return fsyncCount.get();
+    }
+
+    public long getRotationCount() {
+        return rotationCount.get();
+    }
+
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    @Override
+    public String toString() {
+        return "Audit log | written: " + getWrittenCount() + " | dropped: " + getDroppedCount() + " | queued: " + getQueuedCount()
+                + " | batches: " + getBatchCount() + " | fsyncs: " + getFsyncCount() + " | rotations: " + getRotationCount()
+                + " | errors: " + getErrorCount();
+    }
+
+    /**
+     * Drains the queue until the writer is closed and everything queued has been written.
+     */
+    private void run() {
+        List<String> batch = new ArrayList<>(maxBatchSize);
+        while (true) {
+            String record;
+            while (batch.size() < maxBatchSize && (record = queue.poll()) != null) {
+                batch.add(record);
+            }
+            if (!batch.isEmpty()) {
+                queued.addAndGet(-batch.size());
+                writeBatch(batch);
+                batch.clear();
+                continue;
+            }
+            //Stops once closed and no caller is still adding a record.
+            if (closed && queued.get() == 0) {
+                break;
+            }
+            if (fsyncPolicy == FsyncPolicy.PERIODIC) {
+                forceIfDue();
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(Math.max(1, fsyncIntervalMillis)));
+        }
+        closeChannel();
+    }
+
+    /**
+     * Writes a batch of records with a single channel write.
+     */
+    private void writeBatch(List<String> batch) {
+        buffer.clear();
+        for (String record : batch) {
+            byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+            ensureCapacity(bytes.length + lineSeparator.length);
+            buffer.put(bytes).put(lineSeparator);
+        }
+        buffer.flip();
+
+        try {
+            rotateIfDue(buffer.remaining());
+            if (channel == null) {
+                openChannel();
+            }
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            writtenCount.addAndGet(batch.size());
+            batchCount.incrementAndGet();
+            unsynced = true;
+
+            if (fsyncPolicy == FsyncPolicy.EVERY_BATCH) {
+                force();
+            } else if (fsyncPolicy == FsyncPolicy.PERIODIC) {
+                forceIfDue();
+            }
+        } catch (IOException e) {
+            errorCount.incrementAndGet();
+            droppedCount.addAndGet(batch.size());
+            System.out.println("Error:" + e.getMessage());
+            closeChannel();
+        }
+    }
+
+    private void ensureCapacity(int length) {
+        if (buffer.remaining() < length) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + length));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+    }
+
+    /**
+     * Renames the current file aside once it is too large to take the next batch or has been open too long.
+     */
+    private void rotateIfDue(int nextBatchBytes) throws IOException {
+        boolean tooLarge = maxFileBytes > 0 && Files.exists(file) && Files.size(file) + nextBatchBytes > maxFileBytes;
+        boolean tooOld = rotationIntervalMillis > 0 && channel != null && System.currentTimeMillis() - fileOpenedAt >= rotationIntervalMillis;
+        if (!tooLarge && !tooOld) {
+            return;
+        }
+        closeChannel();
+
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        //Names the rotated file after the rotation time, numbering files rotated within the same second.
+        String name = file.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        String base = extension > 0 ? name.substring(0, extension) : name;
+        String suffix = extension > 0 ? name.substring(extension) : "";
+        String stamp = LocalDateTime.now().format(rotationSuffix);
+        Path rotated = file.resolveSibling(base + "-" + stamp + suffix);
+        for (int i = 1; Files.exists(rotated); i++) {
+            rotated = file.resolveSibling(base + "-" + stamp + "-" + i + suffix);
+        }
+        Files.move(file, rotated);
+        rotationCount.incrementAndGet();
+    }
+
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileOpenedAt = System.currentTimeMillis();
+    }
+
+    //Forces records written since the last force once the fsync interval has passed.
+    private void forceIfDue() {
+        if (unsynced && System.currentTimeMillis() - lastFsyncAt >= fsyncIntervalMillis) {
+            force();
+        }
+    }
+
+    private void force() {
+        try {
+            channel.force(false);
+            fsyncCount.incrementAndGet();
+            lastFsyncAt = System.currentTimeMillis();
+            unsynced = false;
+        } catch (IOException e) {
+            errorCount.incrementAndGet();
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            if (fsyncPolicy != FsyncPolicy.NEVER && unsynced) {
+                channel.force(false);
+                fsyncCount.incrementAndGet();
+                unsynced = false;
+            }
+            channel.close();
+        } catch (IOException e) {
+            errorCount.incrementAndGet();
+        }
+        channel = null;
+    }
+}
@@ -2,35 +2,99 @@ package Controllers.FileControllers;
 
 import LambdaInterfaces.LoginActivityInterface;
 
-import java.io.*;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A utility class for logging user login activity to a file.
+ * Records are formatted on the caller's thread and written to the file and the login activity store in the background.
  */
 public class LoginActivityFile {
 
-    public static LoginActivityInterface loginAttempt = (userName, attempt) -> "User: " + userName + " | " + LocalDateTime.now().format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM)) + " | Attempt: " + attempt;
+    private static final String filename = "login_activity.txt";
+
+    //Audit log settings
+    private static final int queueCapacity = 10_000;
+    private static final long fsyncIntervalMillis = 1000;
+    private static final long offerTimeoutMillis = 5;
+    private static final long maxFileBytes = 10 * 1024 * 1024;
+    private static final long rotationIntervalMillis = TimeUnit.DAYS.toMillis(1);
+    private static final long storeShutdownMillis = 5000;
+
+    //Login activity store settings, shared with the importer.
+    static final String storeDirectory = "login_activity";
+    static final int maxRecordsPerSegment = 1 << 20;
+
+    //Formatting patterns are resolved once instead of for every attempt.
+    private static final DateTimeFormatter timestampFormatter = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM);
+
+    public static LoginActivityInterface loginAttempt = (userName, attempt) -> "User: " + userName + " | " + LocalDateTime.now().format(timestampFormatter) + " | Attempt: " + attempt;
+
+    private static final AuditLogWriter auditLog = new AuditLogWriter(Path.of(filename), queueCapacity,
+            AuditLogWriter.FsyncPolicy.PERIODIC, fsyncIntervalMillis, AuditLogWriter.OverflowPolicy.WAIT, offerTimeoutMillis,
+            maxFileBytes, rotationIntervalMillis);
+
+    //Null if the store couldn't be opened, in which case attempts are only written to the text file.
+    private static final LoginActivityStore activityStore = openActivityStore();
+
+    //Appends to the store one attempt at a time, in the order they were made.
+    private static final ExecutorService storeWriter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "login-activity-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    //Writes any queued attempts before the application exits.
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            auditLog.close();
+            storeWriter.shutdown();
+            try {
+                storeWriter.awaitTermination(storeShutdownMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (activityStore != null) {
+                activityStore.close();
+            }
+        }, "audit-log-shutdown"));
+    }
 
     /**
      * Log user login activity to a file.
      * Lambda expression is used to get the users info and the status of the login attempt
      * Lambda expression simplifies the recording of the login attempt and improves readability where login attempts need to be tracked.
-     * Output is then put into the LoginActivity.txt file
+     * Output is queued and then written to the login_activity.txt file by the audit log writer.
+     * The attempt is also queued for the login activity store, so it can be searched by user and time.
      * @param userInfo The user's information (e.g., username).
      * @param attempt  The status of the login attempt (e.g., "Successful" or "Failed").
      */
     public static void logUserActivity(String userInfo, String attempt) {
-
-        String filename = "login_activity.txt";
-
-        try (FileWriter writer = new FileWriter(filename, true);
-             PrintWriter outputFile = new PrintWriter(writer)) {
-            outputFile.println(loginAttempt.getLoginAttempt(userInfo, attempt));
-        } catch (IOException e) {
-            e.printStackTrace(); // Handle or log the exception as needed
+        long attemptedAt = System.currentTimeMillis();
+        auditLog.append(loginAttempt.getLoginAttempt(userInfo, attempt));
+        if (activityStore == null) {
+            return;
+        }
+        long userHash = LoginActivityStore.hashUserName(userInfo);
+        boolean successful = Objects.equals(attempt, "Successful");
+        try {
+            storeWriter.execute(() -> {
+                try {
+                    activityStore.append(attemptedAt, userHash, successful);
+                } catch (IOException e) {
+                    System.out.println("Error:" + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            //The application is shutting down, the attempt is still in the text file.
         }
     }
 
@@ -39,4 +103,31 @@ public class LoginActivityFile {
         logUserActivity(userNameInput, successful);
 
     }
+
+    /**
+     * Retrieves the writer behind the login activity file, for its counters.
+     *
+     * @return The audit log writer.
+     */
+    public static AuditLogWriter getAuditLog() {
+        return auditLog;
+    }
+
+    /**
+     * Retrieves the store that login attempts are searched in.
+     *
+     * @return The login activity store, or null if it couldn't be opened.
+     */
+    public static LoginActivityStore getActivityStore() {
+        return activityStore;
+    }
+
+    private static LoginActivityStore openActivityStore() {
+        try {
+            return LoginActivityStore.open(Path.of(storeDirectory), maxRecordsPerSegment);
+        } catch (IOException e) {
+            System.out.println("Error:" + e.getMessage());
+            return null;
+        }
+    }
 }
@@ -0,0 +1,190 @@
+package Controllers.FileControllers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.FormatStyle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Copies the attempts in login_activity.txt files into the login activity store.
+ * Lines are read in the format written by LoginActivityFile, with times in this computer's locale and time zone,
+ * so the import should run on the computer that wrote the files. An attempt already in the store with the same
+ * second, user and outcome is skipped, as attempts made since the store was added are recorded in both.
+ * The store only appends in time order, so it is written again with the imported attempts merged in, and the
+ * application must not be running while it is imported into.
+ * Usage: LoginActivityImporter [text file]...
+ * Imports login_activity.txt into the default store directory if no files are given.
+ */
+public abstract class LoginActivityImporter {
+
+    private static final String userPrefix = "User:";
+    private static final String separator = " | ";
+    private static final String attemptSeparator = " | Attempt: ";
+
+    private static final DateTimeFormatter timestampFormatter = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM);
+
+    public static void main(String[] args) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String arg : args) {
+            files.add(Path.of(arg));
+        }
+        if (files.isEmpty()) {
+            files.add(Path.of("login_activity.txt"));
+        }
+
+        int[] counts = importFiles(Path.of(LoginActivityFile.storeDirectory), LoginActivityFile.maxRecordsPerSegment, files);
+        System.out.println("Imported: " + counts[0] + " | already stored: " + counts[1] + " | unreadable lines: " + counts[2]);
+    }
+
+    /**
+     * Imports the attempts in text log files into a store that isn't open.
+     * The store is written to a new directory with its own and the imported attempts in time order, which then
+     * replaces the store's directory, so an import that fails partway leaves the store as it was.
+     *
+     * @param directory            The directory of the store to add the attempts to.
+     * @param maxRecordsPerSegment The number of records at which the store starts a new segment.
+     * @param files                The text log files, in any order.
+     * @return The number of attempts imported, skipped as already stored, and lines that couldn't be read.
+     * @throws IOException If a file can't be read or the store can't be written.
+     */
+    public static int[] importFiles(Path directory, int maxRecordsPerSegment, List<Path> files) throws IOException {
+        List<LoginActivityRecord> records = new ArrayList<>();
+        int unreadable = 0;
+        for (Path file : files) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    LoginActivityRecord record = parse(line);
+                    if (record == null) {
+                        unreadable++;
+                    } else {
+                        records.add(record);
+                    }
+                }
+            }
+        }
+
+        //Rotated files can be given in any order, and the store needs the attempts in time order.
+        records.sort(Comparator.comparingLong(LoginActivityRecord::getTimestampMillis));
+
+        List<LoginActivityRecord> stored;
+        try (LoginActivityStore store = LoginActivityStore.open(directory, maxRecordsPerSegment)) {
+            stored = store.findByTimeRange(Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+
+        //The text log only has whole seconds, and its time is taken just before the store's.
+        Map<String, Integer> storedCounts = new HashMap<>();
+        for (LoginActivityRecord record : stored) {
+            storedCounts.merge(key(record, 0), 1, Integer::sum);
+        }
+        List<LoginActivityRecord> added = new ArrayList<>();
+        int skipped = 0;
+        for (LoginActivityRecord record : records) {
+            if (takeStored(storedCounts, key(record, 0)) || takeStored(storedCounts, key(record, 1))) {
+                skipped++;
+            } else {
+                added.add(record);
+            }
+        }
+        if (!added.isEmpty()) {
+            rewrite(directory, maxRecordsPerSegment, stored, added);
+        }
+        return new int[] {added.size(), skipped, unreadable};
+    }
+
+    /**
+     * Writes the stored and added attempts in time order to a new directory and swaps it in for the store's.
+     */
+    private static void rewrite(Path directory, int maxRecordsPerSegment, List<LoginActivityRecord> stored,
+                                List<LoginActivityRecord> added) throws IOException {
+        Path current = directory.toAbsolutePath().normalize();
+        Path rebuilt = current.resolveSibling(current.getFileName() + ".import");
+        Path replaced = current.resolveSibling(current.getFileName() + ".replaced");
+        deleteDirectory(rebuilt);
+        deleteDirectory(replaced);
+
+        try (LoginActivityStore store = LoginActivityStore.open(rebuilt, maxRecordsPerSegment)) {
+            int storedIndex = 0;
+            int addedIndex = 0;
+            while (storedIndex < stored.size() || addedIndex < added.size()) {
+                LoginActivityRecord record;
+                if (addedIndex == added.size() || storedIndex < stored.size()
+                        && stored.get(storedIndex).getTimestampMillis() <= added.get(addedIndex).getTimestampMillis()) {
+                    record = stored.get(storedIndex++);
+                } else {
+                    record = added.get(addedIndex++);
+                }
+                store.append(record.getTimestampMillis(), record.getUserHash(), record.isSuccessful());
+            }
+        }
+        Files.move(current, replaced);
+        Files.move(rebuilt, current);
+        deleteDirectory(replaced);
+    }
+
+    private static String key(LoginActivityRecord record, int secondsLater) {
+        return (Math.floorDiv(record.getTimestampMillis(), 1000) + secondsLater) + ":" + record.getUserHash() + ":" + record.isSuccessful();
+    }
+
+    private static boolean takeStored(Map<String, Integer> storedCounts, String key) {
+        Integer count = storedCounts.get(key);
+        if (count == null) {
+            return false;
+        }
+        if (count == 1) {
+            storedCounts.remove(key);
+        } else {
+            storedCounts.put(key, count - 1);
+        }
+        return true;
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Reads one line of the text log.
+     *
+     * @return The attempt, or null if the line isn't in the expected format.
+     */
+    static LoginActivityRecord parse(String line) {
+        int attempt = line.lastIndexOf(attemptSeparator);
+        int time = attempt < 0 ? -1 : line.lastIndexOf(separator, attempt - 1);
+        if (!line.startsWith(userPrefix) || time < userPrefix.length()) {
+            return null;
+        }
+        String userName = line.substring(userPrefix.length(), time).trim();
+        String outcome = line.substring(attempt + attemptSeparator.length()).trim();
+        try {
+            LocalDateTime timestamp = LocalDateTime.parse(line.substring(time + separator.length(), attempt), timestampFormatter);
+            long millis = timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            return new LoginActivityRecord(millis, LoginActivityStore.hashUserName(userName), Objects.equals(outcome, "Successful"));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package Controllers.FileControllers;
+
+/**
+ * A login attempt read back from the login activity store.
+ * The store only keeps a hash of the user name, so a record can be matched against a name but can't give it back.
+ */
+public class LoginActivityRecord {
+
+    private final long timestampMillis;
+    private final long userHash;
+    private final boolean successful;
+
+    /**
+     * Constructs a record with the specified attributes.
+     *
+     * @param timestampMillis The time of the attempt in milliseconds since the epoch.
+     * @param userHash        The hash of the user name the attempt was made with.
+     * @param successful      Whether the attempt logged the user in.
+     */
+    public LoginActivityRecord(long timestampMillis, long userHash, boolean successful) {
+        this.timestampMillis = timestampMillis;
+        this.userHash = userHash;
+        this.successful = successful;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public long getUserHash() {
+        return userHash;
+    }
+
+    public boolean isSuccessful() {
+        return successful;
+    }
+
+    /**
+     * Checks whether the attempt was made with a user name.
+     *
+     * @param userName The user name.
+     * @return True if the attempt was made with the user name; otherwise, false.
+     */
+    public boolean isUser(String userName) {
+        return userHash == LoginActivityStore.hashUserName(userName);
+    }
+
+    @Override
+    public String toString() {
+        return "Login attempt | time: " + timestampMillis + " | user hash: " + Long.toHexString(userHash) + " | successful: " + successful;
+    }
+}
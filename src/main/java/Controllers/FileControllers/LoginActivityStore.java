@@ -0,0 +1,406 @@
+package Controllers.FileControllers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An append-only binary store of login attempts that can be searched by user and by time.
+ * Attempts are kept in segment files of fixed-width 16 byte records: the time in milliseconds with the outcome in the
+ * low byte, followed by a 64-bit hash of the user name. Segments are read through memory maps.
+ * The store keeps the time of every 256th record as a sparse time index, and the positions of each user's records as
+ * a per-user index. Both are rebuilt from the segments when the store is opened, so nothing but the segments is written.
+ * Records are stored in time order; an attempt timed before the latest record is stored at the latest record's time.
+ */
+public class LoginActivityStore implements AutoCloseable {
+
+    private static final int magic = 0x4C414354; // "LACT"
+    private static final short version = 1;
+    private static final int headerBytes = 16;
+    private static final int recordBytes = 16;
+    private static final int sparseInterval = 256;
+    private static final String segmentPrefix = "segment-";
+    private static final String segmentSuffix = ".lact";
+
+    private static final int successfulOutcome = 1;
+    private static final int unsuccessfulOutcome = 0;
+
+    private final Path directory;
+    private final int maxRecordsPerSegment;
+    private final List<Segment> segments = new ArrayList<>();
+    private final Map<Long, PositionList> userIndex = new HashMap<>();
+    private final ByteBuffer recordBuffer = ByteBuffer.allocate(recordBytes);
+    private long lastTimestamp;
+    private boolean closed;
+
+    private LoginActivityStore(Path directory, int maxRecordsPerSegment) {
+        this.directory = directory;
+        this.maxRecordsPerSegment = maxRecordsPerSegment;
+    }
+
+    /**
+     * Opens a store, creating its directory if it doesn't exist, and rebuilds its indexes from the segments.
+     *
+     * @param directory            The directory the segments are kept in.
+     * @param maxRecordsPerSegment The number of records at which a new segment is started.
+     * @return The open store.
+     * @throws IOException If a segment can't be read or isn't a login activity segment.
+     */
+    public static LoginActivityStore open(Path directory, int maxRecordsPerSegment) throws IOException {
+        if (maxRecordsPerSegment < sparseInterval || maxRecordsPerSegment % sparseInterval != 0
+                || maxRecordsPerSegment > (Integer.MAX_VALUE - headerBytes) / recordBytes) {
+            throw new IllegalArgumentException("maxRecordsPerSegment must be a multiple of " + sparseInterval + " and keep segments under 2 GB");
+        }
+        Files.createDirectories(directory);
+        LoginActivityStore store = new LoginActivityStore(directory, maxRecordsPerSegment);
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, segmentPrefix + "*" + segmentSuffix)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        try {
+            for (Path file : files) {
+                store.load(file);
+            }
+        } catch (IOException e) {
+            store.close();
+            throw e;
+        }
+        return store;
+    }
+
+    /**
+     * Hashes a user name the way the store does. Names are compared without regard to case, like MySQL does.
+     *
+     * @param userName The user name.
+     * @return The 64-bit FNV-1a hash of the lower case name.
+     */
+    public static long hashUserName(String userName) {
+        String name = userName == null ? "" : userName.trim().toLowerCase(Locale.ROOT);
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < name.length(); i++) {
+            hash ^= name.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Appends a login attempt made now.
+     *
+     * @param userName   The user name the attempt was made with.
+     * @param successful Whether the attempt logged the user in.
+     * @throws IOException If the record can't be written.
+     */
+    public synchronized void append(String userName, boolean successful) throws IOException {
+        append(System.currentTimeMillis(), hashUserName(userName), successful);
+    }
+
+    /**
+     * Appends a login attempt made at a given time, such as one read from the text log.
+     *
+     * @param timestampMillis The time of the attempt in milliseconds since the epoch.
+     * @param userHash        The hash of the user name.
+     * @param successful      Whether the attempt logged the user in.
+     * @throws IOException If the record can't be written.
+     */
+    synchronized void append(long timestampMillis, long userHash, boolean successful) throws IOException {
+        if (closed) {
+            throw new IOException("Login activity store is closed");
+        }
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segment.records == maxRecordsPerSegment) {
+            segment = createSegment();
+        }
+        long timestamp = Math.max(timestampMillis, lastTimestamp);
+
+        recordBuffer.clear();
+        recordBuffer.putLong(timestamp << 8 | (successful ? successfulOutcome : unsuccessfulOutcome)).putLong(userHash).flip();
+        long offset = headerBytes + (long) segment.records * recordBytes;
+        while (recordBuffer.hasRemaining()) {
+            offset += segment.channel.write(recordBuffer, offset);
+        }
+        index(segment, segment.records, timestamp, userHash);
+        segment.records++;
+        lastTimestamp = timestamp;
+    }
+
+    /**
+     * Retrieves every attempt made with a user name, oldest first.
+     *
+     * @param userName The user name.
+     * @return The attempts.
+     * @throws IOException If a segment can't be read.
+     */
+    public synchronized List<LoginActivityRecord> findByUser(String userName) throws IOException {
+        List<LoginActivityRecord> records = new ArrayList<>();
+        PositionList positions = userIndex.get(hashUserName(userName));
+        if (positions != null) {
+            for (int i = 0; i < positions.size; i++) {
+                records.add(read(positions.values[i]));
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Retrieves every attempt made within a time range, oldest first.
+     *
+     * @param fromMillis The start of the range, inclusive.
+     * @param toMillis   The end of the range, exclusive.
+     * @return The attempts.
+     * @throws IOException If a segment can't be read.
+     */
+    public synchronized List<LoginActivityRecord> findByTimeRange(long fromMillis, long toMillis) throws IOException {
+        List<LoginActivityRecord> records = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment.records == 0 || segment.firstTimestamp() >= toMillis || segment.lastTimestamp < fromMillis) {
+                continue;
+            }
+            ByteBuffer view = segment.view();
+            for (int i = segment.lowerBound(view, fromMillis); i < segment.records; i++) {
+                LoginActivityRecord record = decode(view, i);
+                if (record.getTimestampMillis() >= toMillis) {
+                    break;
+                }
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Counts failed attempts in consecutive windows of a time range.
+     *
+     * @param userName     The user name to count, or null to count every user.
+     * @param fromMillis   The start of the range, inclusive.
+     * @param toMillis     The end of the range, exclusive.
+     * @param windowMillis The length of each window.
+     * @return The failures in each window, the first starting at the start of the range.
+     * @throws IOException If a segment can't be read.
+     */
+    public synchronized long[] countFailures(String userName, long fromMillis, long toMillis, long windowMillis) throws IOException {
+        if (windowMillis < 1 || toMillis < fromMillis) {
+            throw new IllegalArgumentException("Invalid failure count range");
+        }
+        long[] counts = new long[(int) Math.ceil((double) (toMillis - fromMillis) / windowMillis)];
+        if (userName == null) {
+            for (LoginActivityRecord record : findByTimeRange(fromMillis, toMillis)) {
+                if (!record.isSuccessful()) {
+                    counts[(int) ((record.getTimestampMillis() - fromMillis) / windowMillis)]++;
+                }
+            }
+            return counts;
+        }
+
+        PositionList positions = userIndex.get(hashUserName(userName));
+        if (positions == null) {
+            return counts;
+        }
+        for (int i = 0; i < positions.size; i++) {
+            LoginActivityRecord record = read(positions.values[i]);
+            long timestamp = record.getTimestampMillis();
+            if (timestamp >= toMillis) {
+                break;
+            }
+            if (timestamp >= fromMillis && !record.isSuccessful()) {
+                counts[(int) ((timestamp - fromMillis) / windowMillis)]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Retrieves the time of the latest attempt.
+     *
+     * @return The time in milliseconds since the epoch, or 0 if the store is empty.
+     */
+    public synchronized long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public synchronized long getRecordCount() {
+        long count = 0;
+        for (Segment segment : segments) {
+            count += segment.records;
+        }
+        return count;
+    }
+
+    public synchronized int getUserCount() {
+        return userIndex.size();
+    }
+
+    /**
+     * Forces the segments to disk and closes them.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Segment segment : segments) {
+            try {
+                segment.channel.force(false);
+                segment.channel.close();
+            } catch (IOException e) {
+                System.out.println("Error:" + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Opens an existing segment and adds its records to the indexes.
+     * A record cut short by a crash is dropped, so the next record starts at a record boundary.
+     */
+    private void load(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Segment segment = new Segment(channel, segments.size(), maxRecordsPerSegment);
+        segments.add(segment);
+
+        long size = channel.size();
+        if (size < headerBytes) {
+            throw new IOException(file + " is not a login activity segment");
+        }
+        ByteBuffer header = ByteBuffer.allocate(headerBytes);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            //Reads until the whole header is in the buffer.
+        }
+        header.flip();
+        if (header.getInt() != magic || header.getShort() != version || header.getShort() != recordBytes) {
+            throw new IOException(file + " is not a login activity segment");
+        }
+        int records = (int) Math.min((size - headerBytes) / recordBytes, maxRecordsPerSegment);
+        if (size != headerBytes + (long) records * recordBytes) {
+            channel.truncate(headerBytes + (long) records * recordBytes);
+        }
+
+        segment.records = records;
+        ByteBuffer view = segment.view();
+        for (int i = 0; i < records; i++) {
+            long timestamp = view.getLong(headerBytes + i * recordBytes) >>> 8;
+            index(segment, i, timestamp, view.getLong(headerBytes + i * recordBytes + 8));
+        }
+        if (records > 0) {
+            lastTimestamp = Math.max(lastTimestamp, segment.lastTimestamp);
+        }
+    }
+
+    private Segment createSegment() throws IOException {
+        Path file = directory.resolve(String.format("%s%06d%s", segmentPrefix, segments.size() + 1, segmentSuffix));
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(headerBytes);
+        header.putInt(magic).putShort(version).putShort((short) recordBytes).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        Segment segment = new Segment(channel, segments.size(), maxRecordsPerSegment);
+        segments.add(segment);
+        return segment;
+    }
+
+    private void index(Segment segment, int record, long timestamp, long userHash) {
+        if (record % sparseInterval == 0) {
+            segment.sparseTimestamps[record / sparseInterval] = timestamp;
+        }
+        segment.lastTimestamp = timestamp;
+        userIndex.computeIfAbsent(userHash, hash -> new PositionList()).add(segment.number * maxRecordsPerSegment + record);
+    }
+
+    private LoginActivityRecord read(long position) throws IOException {
+        Segment segment = segments.get((int) (position / maxRecordsPerSegment));
+        return decode(segment.view(), (int) (position % maxRecordsPerSegment));
+    }
+
+    private static LoginActivityRecord decode(ByteBuffer view, int record) {
+        int offset = headerBytes + record * recordBytes;
+        long timeAndOutcome = view.getLong(offset);
+        return new LoginActivityRecord(timeAndOutcome >>> 8, view.getLong(offset + 8), (timeAndOutcome & 0xFF) == successfulOutcome);
+    }
+
+    /**
+     * A segment file and the part of the time index that covers it.
+     */
+    private static final class Segment {
+
+        private final FileChannel channel;
+        private final long number;
+        private final long[] sparseTimestamps;
+        private int records;
+        private long lastTimestamp;
+
+        //Mapped again once records have been appended since it was last mapped.
+        private MappedByteBuffer map;
+        private int mappedRecords = -1;
+
+        private Segment(FileChannel channel, int number, int maxRecords) {
+            this.channel = channel;
+            this.number = number;
+            this.sparseTimestamps = new long[maxRecords / sparseInterval];
+        }
+
+        private ByteBuffer view() throws IOException {
+            if (map == null || mappedRecords != records) {
+                map = channel.map(FileChannel.MapMode.READ_ONLY, 0, headerBytes + (long) records * recordBytes);
+                mappedRecords = records;
+            }
+            return map;
+        }
+
+        private long firstTimestamp() {
+            return sparseTimestamps[0];
+        }
+
+        /**
+         * Finds the first record at or after a time, searching the sparse index and then scanning one block.
+         */
+        private int lowerBound(ByteBuffer view, long fromMillis) {
+            int low = 0;
+            int high = (records + sparseInterval - 1) / sparseInterval;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (sparseTimestamps[middle] < fromMillis) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+
+            //The first block starting at or after the time may have matching records at the end of the block before it.
+            int record = Math.max(0, low - 1) * sparseInterval;
+            while (record < records && view.getLong(headerBytes + record * recordBytes) >>> 8 < fromMillis) {
+                record++;
+            }
+            return record;
+        }
+    }
+
+    /**
+     * A growable list of record positions, so the per-user index doesn't box every position.
+     */
+    private static final class PositionList {
+
+        private long[] values = new long[4];
+        private int size;
+
+        private void add(long position) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = position;
+        }
+    }
+}
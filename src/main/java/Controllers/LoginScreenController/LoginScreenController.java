@@ -1,15 +1,18 @@
 package Controllers.LoginScreenController;
 
 import Controllers.FileControllers.LoginActivityFile;
-import Models.LoginScreen;
+import Models.StartupLoader;
 import Objects.ContactObjects.Contact;
 import Objects.ContactObjects.ContactList;
 import Objects.UserObjects.User;
+import Objects.UserObjects.UserSession;
 import Objects.UserObjects.UsersList;
 import dao.AppointmentQuery;
 import dao.ContactQuery;
 import dao.CustomersQuery;
+import dao.PasswordVerifier;
 import dao.UsersQuery;
+import javafx.concurrent.Task;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXMLLoader;
@@ -25,6 +28,7 @@ import java.time.ZoneId;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.ResourceBundle;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Controller for managing the login screen and user authentication.
@@ -40,6 +44,9 @@ public class LoginScreenController implements Initializable {
     public TextField password_input;
     public Dialog<String> newDialogScreen = new Dialog<>();
 
+    //Failed logins are also counted per source. On a desktop that is the operating system account the app runs under.
+    private static final String loginSource = System.getProperty("user.name", "unknown");
+
     /**
      * The login screen controller allows the user to login.
      * This controller can display all information in English or French depending on the system default language.
@@ -111,45 +118,49 @@ public class LoginScreenController implements Initializable {
         // Checks to see if the user left a form entry blank and displays an error in the appropriate language.
         if (setErrorDialogLanguage(userNameInput, passwordInput)) {
             // Validates the username and password input by the user.
-            if (credentialsValidation(userNameInput, passwordInput)) {
-
-                //Loads information from database and sets up observable lists.
-                LoginScreen.loadDatabaseInfo();
-
-                //Gets the user type of the user that is logging in.
-                String userType = UsersQuery.getUserType(userNameInput);
-
-                if(Objects.equals(userType, "admin")) {
-
-                    // Updates the Login Activity file with a successful entry.
-                    LoginActivityFile.getUserActivity(userNameInput, "Successful");
-                    // Loads the customer screen.
-                    Parent CustomerScreenLoader = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/Models/customerUI.fxml")));
-                    Stage stage = (Stage) ((Button) actionEvent.getSource()).getScene().getWindow();
-                    Scene scene = new Scene(CustomerScreenLoader, 1250, 650);
-                    stage.setTitle("Spikes Scheduler");
-                    stage.setScene(scene);
-                    stage.centerOnScreen();
-                    stage.show();
-                } else if (Objects.equals(userType, "contact")) {
-
-                    // Updates the Login Activity file with a successful entry.
-                    LoginActivityFile.getUserActivity(userNameInput, "Successful");
-                    // Loads the customer screen.
-                    Parent CustomerScreenLoader = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/ContactModels/contactUI.fxml")));
-                    Stage stage = (Stage) ((Button) actionEvent.getSource()).getScene().getWindow();
-                    Scene scene = new Scene(CustomerScreenLoader, 1500, 850);
-                    stage.setTitle("Spikes Scheduler");
-                    stage.setScene(scene);
-                    stage.centerOnScreen();
-                    stage.show();
-                } else if (Objects.equals(userType, "test")) {
-                    Alert alert = new Alert(Alert.AlertType.WARNING);
-                    alert.setTitle("Unable to load.");
-                    alert.setContentText("Test user has been disabled for this application. Please contact the system administrator if you need access to this account.");
-                    alert.showAndWait();
-                }
-            }
+            credentialsValidation(userNameInput, passwordInput, () -> {
+
+                //Waits for the information loaded from the database at startup before showing the next screen.
+                StartupLoader.whenLoaded(() -> {
+                    try {
+                        //Gets the user type from the session started by the credential check.
+                        String userType = UserSession.getCurrent().getUserType();
+
+                        if(Objects.equals(userType, "admin")) {
+
+                            // Updates the Login Activity file with a successful entry.
+                            LoginActivityFile.getUserActivity(userNameInput, "Successful");
+                            // Loads the customer screen.
+                            Parent CustomerScreenLoader = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/Models/customerUI.fxml")));
+                            Stage stage = (Stage) ((Button) actionEvent.getSource()).getScene().getWindow();
+                            Scene scene = new Scene(CustomerScreenLoader, 1250, 650);
+                            stage.setTitle("Spikes Scheduler");
+                            stage.setScene(scene);
+                            stage.centerOnScreen();
+                            stage.show();
+                        } else if (Objects.equals(userType, "contact")) {
+
+                            // Updates the Login Activity file with a successful entry.
+                            LoginActivityFile.getUserActivity(userNameInput, "Successful");
+                            // Loads the customer screen.
+                            Parent CustomerScreenLoader = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/ContactModels/contactUI.fxml")));
+                            Stage stage = (Stage) ((Button) actionEvent.getSource()).getScene().getWindow();
+                            Scene scene = new Scene(CustomerScreenLoader, 1500, 850);
+                            stage.setTitle("Spikes Scheduler");
+                            stage.setScene(scene);
+                            stage.centerOnScreen();
+                            stage.show();
+                        } else if (Objects.equals(userType, "test")) {
+                            Alert alert = new Alert(Alert.AlertType.WARNING);
+                            alert.setTitle("Unable to load.");
+                            alert.setContentText("Test user has been disabled for this application. Please contact the system administrator if you need access to this account.");
+                            alert.showAndWait();
+                        }
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+            });
         }
     }
 
@@ -231,17 +242,44 @@ public class LoginScreenController implements Initializable {
 
     /**
      * Validate user credentials by checking them in the database.
+     * Passwords are checked on the password pool, as hashing them takes long enough to freeze the screen,
+     * and the login button is disabled until the check has finished.
+     * Logins that have failed too often are turned away without being checked.
      *
      * @param userNameInput The user's input for the username.
      * @param passwordInput The user's input for the password.
-     * @return True if user credentials are valid, false otherwise.
-     * @throws SQLException If a database error occurs during validation.
-     * @throws IOException  If an I/O error occurs when recording user activity.
+     * @param onValid       Runs on the JavaFX thread once the credentials have been accepted.
      */
-    public boolean credentialsValidation(String userNameInput, String passwordInput) throws SQLException, IOException {
+    public void credentialsValidation(String userNameInput, String passwordInput, Runnable onValid) {
+
+        //Turns away locked out logins before anything is queued or queried.
+        long retryAfterMillis = UsersQuery.getLoginThrottle().retryAfterMillis(userNameInput, loginSource);
+        if (retryAfterMillis > 0) {
+            UsersQuery.showLoginThrottled(userNameInput, retryAfterMillis);
+            return;
+        }
 
-        // Validates the user information in the database.
-        return UsersQuery.getUserCredentials(userNameInput, passwordInput);
+        Task<UserSession> check;
+        try {
+            // Validates the user information in the database.
+            check = PasswordVerifier.submit(() -> UsersQuery.authenticate(userNameInput, passwordInput, loginSource), session -> {
+                if (UsersQuery.showLoginResult(userNameInput, session != null)) {
+                    onValid.run();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Alert alert = new Alert(Alert.AlertType.WARNING);
+            alert.setTitle("Unable to log in.");
+            alert.setContentText("Too many logins are being checked right now. Please try again in a moment.");
+            alert.showAndWait();
+            return;
+        }
+        login_btn.setDisable(true);
+        check.runningProperty().addListener((observable, wasRunning, isRunning) -> {
+            if (!isRunning && check.isDone()) {
+                login_btn.setDisable(false);
+            }
+        });
     }
 
     public void onNewUserBtn_click(ActionEvent actionEvent) throws IOException {
@@ -1,9 +1,9 @@
 package Controllers.LoginScreenController;
 
-import Objects.UserObjects.UsersInHouse;
-import Objects.UserObjects.UsersList;
+import dao.AsyncQuery;
 import dao.ContactQuery;
 import dao.UsersQuery;
+import dao.UnitOfWork;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
@@ -19,7 +19,6 @@ import javafx.stage.Stage;
 
 import java.io.IOException;
 import java.net.URL;
-import java.sql.SQLException;
 import java.util.Objects;
 import java.util.ResourceBundle;
 
@@ -43,7 +42,7 @@ public class NewUserController implements Initializable {
         stage.show();
     }
 
-    public void newUserSave_btn(ActionEvent actionEvent) throws SQLException, IOException {
+    public void newUserSave_btn(ActionEvent actionEvent) {
 
         //Variables to hold user information input into form.
         int userID = Integer.parseInt(userID_input.getText());
@@ -61,25 +60,28 @@ public class NewUserController implements Initializable {
             alert.setContentText("Administrators are unable to be created at this time. Please send an email to rspike3@wgu.edu. :)");
             alert.showAndWait();
         }else{
-            if(UsersQuery.insertNewUser(userID, userName, userPassword, userType, contactName, contactEmail) > 0) {
+            //Saves the user and their contact together in the background, and adds them to the lists in memory once both are saved.
+            new UnitOfWork().insertUser(userID, userName, userPassword, userType, contactName, contactEmail).submit(rowsAffected -> {
+                if(rowsAffected > 0) {
                     //Display popup message confirming user creation.
                     Alert alert = new Alert(Alert.AlertType.INFORMATION);
                     alert.setTitle("User created");
                     alert.setContentText("User was successfully created. Welcome " + userName);
                     alert.showAndWait();
 
-                    //Add new users to local list
-                    UsersInHouse newUser = new UsersInHouse(userID, userName, userPassword, userType);
-                    UsersList.addUser(newUser);
-
-                    Parent AppointmentScreenLoader = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/Models/loginUI.fxml")));
-                    Stage stage = (Stage) ((Button) actionEvent.getSource()).getScene().getWindow();
-                    Scene scene = new Scene(AppointmentScreenLoader, 300, 300);
-                    stage.setTitle("Spikes Scheduler");
-                    stage.setScene(scene);
-                    stage.centerOnScreen();
-                    stage.show();
-            }
+                    try {
+                        Parent AppointmentScreenLoader = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/Models/loginUI.fxml")));
+                        Stage stage = (Stage) ((Button) actionEvent.getSource()).getScene().getWindow();
+                        Scene scene = new Scene(AppointmentScreenLoader, 300, 300);
+                        stage.setTitle("Spikes Scheduler");
+                        stage.setScene(scene);
+                        stage.centerOnScreen();
+                        stage.show();
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            });
         }
     }
 
@@ -100,16 +102,7 @@ public class NewUserController implements Initializable {
             }
         });
 
-        try {
-
-            //Gets the number of users from the database.
-            int userCount = UsersQuery.getUserCount();
-
-            //Generates a user ID based on the number of users currently in the database.
-            userID_input.setText(String.valueOf(userCount + 1));
-
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
+        //Generates a user ID based on the number of users currently in the database, once they have been counted.
+        AsyncQuery.submit(userID_input, UsersQuery::getUserCount, userCount -> userID_input.setText(String.valueOf(userCount + 1)));
     }
 }
@@ -0,0 +1,9 @@
+package LambdaInterfaces;
+
+import Objects.AppointmentObjects.Appointment;
+
+public interface AppointmentAlertInterface {
+
+    //Called on the JavaFX thread when an appointment enters an alert window.
+    void onAlert(Appointment appointment);
+}
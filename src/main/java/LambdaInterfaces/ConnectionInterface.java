@@ -0,0 +1,10 @@
+package LambdaInterfaces;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+public interface ConnectionInterface {
+
+    //Supplies a connection to the data access objects. Closing the connection hands it back to its source.
+    Connection getConnection() throws SQLException;
+}
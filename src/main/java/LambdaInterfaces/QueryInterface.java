@@ -0,0 +1,9 @@
+package LambdaInterfaces;
+
+import java.sql.SQLException;
+
+public interface QueryInterface<T> {
+
+    //Runs a database query on a background thread and returns its result.
+    T run() throws SQLException;
+}
@@ -33,6 +33,9 @@ public class LoginScreen extends Application {
         stage.setScene(scene);
         stage.centerOnScreen();
         stage.show();
+
+        //Loads the scheduling information in the background while the user logs in.
+        StartupLoader.start();
     }
 
     /**
@@ -46,22 +49,12 @@ public class LoginScreen extends Application {
         launch();
     }
 
-    public static void loadDatabaseInfo() throws SQLException {
-
-        //Deletes any leftover placeholder appointments.
-        AppointmentQuery.deletePlaceHolderAppointments("placeholder");
-
-        //Loads the user information from the database.
-        UsersQuery.getUsers();
-
-        // Loads the customer information from the database.
-        CustomersQuery.getCustomers();
-
-        // Loads the customer appointments from the database.
-        AppointmentQuery.getAppointments();
-
-        //Loads contact information from the database.
-        ContactQuery.getContacts();
+    /**
+     * Reports the login throttling counters when the application exits.
+     */
+    @Override
+    public void stop() {
+        System.out.println(UsersQuery.getLoginThrottle());
     }
 
 
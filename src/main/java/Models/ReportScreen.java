@@ -1,6 +1,8 @@
 package Models;
 
+import LambdaInterfaces.QueryInterface;
 import LambdaInterfaces.ReportInterface;
+import dao.AsyncQuery;
 import dao.ReportQuery;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXMLLoader;
@@ -14,7 +16,6 @@ import javafx.stage.Stage;
 
 import java.io.IOException;
 import java.net.URL;
-import java.sql.SQLException;
 import java.util.Objects;
 import java.util.ResourceBundle;
 
@@ -27,6 +28,7 @@ import static dao.ReportQuery.getCountries;
  * The Contact Report button will show contacts by name and what appointments they have coming up.
  * The Division Report button will show Countries by name and which divisions fall under those countries.
  * Lambda expressions were used to update code and display the reports.
+ * Reports are generated in the background and shown once they are ready.
  */
 public class ReportScreen implements Initializable {
 
@@ -47,12 +49,8 @@ public class ReportScreen implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        try {
-            // Uses the lambda expression to combine the two reports for display on load.
-            reportArea.setText(newReport.displayReport(ReportQuery.countAppointmentsByType(), ReportQuery.countAppointmentsByMonth()));
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
+        // Uses the lambda expression to combine the two reports for display on load.
+        AsyncQuery.submit(reportArea, () -> newReport.displayReport(ReportQuery.countAppointmentsByType(), ReportQuery.countAppointmentsByMonth()), reportArea::setText);
     }
 
     /**
@@ -61,11 +59,10 @@ public class ReportScreen implements Initializable {
      * Code is further simplified using a common method for report display with lambda expressions.
      * Lambda expression joins the report with new lines and displays them in the text area.
      * @param actionEvent The event triggered by the button click.
-     * @throws SQLException If a database-related error occurs.
      */
-    public void onAppointment_click(ActionEvent actionEvent) throws SQLException {
+    public void onAppointment_click(ActionEvent actionEvent) {
         // Simplified by using a common method for report display with lambda expressions
-        displayReport("Appointment Report", ReportQuery.countAppointmentsByType(), ReportQuery.countAppointmentsByMonth());
+        displayReport("Appointment Report", () -> new String[]{ReportQuery.countAppointmentsByType(), ReportQuery.countAppointmentsByMonth()});
     }
 
     /**
@@ -73,28 +70,26 @@ public class ReportScreen implements Initializable {
      * Code is simplified using a common method for report display with lambda expressions
      * Lambda expression joins the report with new lines and displays them in the text area.
      * @param actionEvent The event triggered by the button click.
-     * @throws SQLException If a database-related error occurs.
      */
-    public void onContact_click(ActionEvent actionEvent) throws SQLException {
+    public void onContact_click(ActionEvent actionEvent) {
         // Simplified by using a common method for report display with lambda expressions
-        displayReport("Contact Report", getContacts());
+        displayReport("Contact Report", () -> new String[]{getContacts()});
     }
 
     /**
      * Handles the event when the "Division Report" button is clicked.
      * Simplified by using a common method for report display with lambda expressions
      * @param actionEvent The event triggered by the button click.
-     * @throws SQLException If a database-related error occurs.
      */
-    public void onDivision_click(ActionEvent actionEvent) throws SQLException {
-        displayReport("Division Report", getCountries());
+    public void onDivision_click(ActionEvent actionEvent) {
+        displayReport("Division Report", () -> new String[]{getCountries()});
     }
 
-    // Common method to display reports with a title and lambda expressions
-    private void displayReport(String title, String... reports) {
+    // Common method to generate reports in the background and display them with a title
+    private void displayReport(String title, QueryInterface<String[]> reports) {
         genericLabel.setText(title);
         // Join the reports with double newlines and set in the report area
-        reportArea.setText(String.join("\n\n", reports));
+        AsyncQuery.submit(reportArea, reports, generated -> reportArea.setText(String.join("\n\n", generated)));
     }
 
     /**
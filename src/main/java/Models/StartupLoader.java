@@ -0,0 +1,179 @@
+package Models;
+
+import Controllers.AppointmentControllers.AppointmentAlertService;
+import LambdaInterfaces.QueryInterface;
+import Objects.ContactObjects.Contact;
+import Objects.ContactObjects.ContactList;
+import Objects.CustomerObjects.CustomersList;
+import Objects.UserObjects.User;
+import Objects.UserObjects.UsersList;
+import dao.ContactQuery;
+import dao.CountryQuery;
+import dao.CustomersQuery;
+import dao.UsersQuery;
+import javafx.application.Platform;
+import javafx.scene.control.Alert;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Loads the users, customers, contacts and geography while the login screen is shown.
+ * Appointments aren't loaded here, the appointment screen reads them a page at a time.
+ * Each dataset is queried on its own thread over its own pooled connection, so startup takes as long as the
+ * slowest query rather than all of them added together. Results are put into the observable lists on the
+ * JavaFX thread as each query finishes, and the time every stage took is recorded and printed once all are done.
+ */
+public abstract class StartupLoader {
+
+    private static final Map<String, Long> stageMillis = new LinkedHashMap<>();
+
+    private static CompletableFuture<Void> loading;
+    private static long startedAt;
+
+    /**
+     * Starts loading the data in the background. Has no effect while a load is running or after one has succeeded,
+     * a failed load is started again.
+     *
+     * @return Completes on the JavaFX thread once every dataset is in its list.
+     */
+    public static synchronized CompletableFuture<Void> start() {
+        if (loading != null && !loading.isCompletedExceptionally()) {
+            return loading;
+        }
+        synchronized (stageMillis) {
+            stageMillis.clear();
+        }
+        startedAt = System.nanoTime();
+
+        //One thread for each query that can run at the same time, the threads end once startup is done.
+        ExecutorService executor = Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "startup-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        //Every list is emptied before it is filled, so a load that is started again doesn't add anything twice.
+        CompletableFuture<Void> users = stage("users", UsersQuery::findUsers, executor, loaded -> {
+            UsersList.getAllUsers().clear();
+            for (User user : loaded) {
+                UsersList.addUser(user);
+            }
+        });
+        CompletableFuture<Void> customers = stage("customers", CustomersQuery::findCustomers, executor, loaded -> {
+            CustomersList.getAllCustomers().clear();
+            CustomersList.addCustomers(loaded);
+        });
+        CompletableFuture<Void> contacts = stage("contacts", ContactQuery::findContacts, executor, loaded -> {
+            ContactList.getAllContacts().clear();
+            for (Contact contact : loaded) {
+                ContactList.addContact(contact);
+            }
+        });
+
+        //Countries and divisions are only held by the country query, so there is no list to fill.
+        CompletableFuture<Void> geography = stage("geography", CountryQuery::refresh, executor, loaded -> {});
+
+        loading = CompletableFuture.allOf(users, customers, contacts, geography)
+                .whenComplete((ignored, e) -> {
+                    executor.shutdown();
+                    record("total", startedAt);
+                    System.out.println(timingsToString());
+                    if (e == null) {
+                        //Starts scheduling alerts for upcoming appointments in the background.
+                        AppointmentAlertService.start();
+                    }
+                });
+        return loading;
+    }
+
+    /**
+     * Runs a callback on the JavaFX thread once the data has been loaded, starting the load if needed.
+     * If the load failed the user is told, and the next call tries again.
+     *
+     * @param onLoaded The callback.
+     */
+    public static void whenLoaded(Runnable onLoaded) {
+        start().whenComplete((ignored, e) -> Platform.runLater(() -> {
+            if (e == null) {
+                onLoaded.run();
+                return;
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            System.out.println("Error:" + cause.getMessage());
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("Database Error");
+            alert.setContentText("The scheduling information could not be loaded, please try again.\n" + cause.getMessage());
+            alert.showAndWait();
+        }));
+    }
+
+    /**
+     * Retrieves how long each stage of the last load took.
+     *
+     * @return The stage names and their times in milliseconds, in the order they finished.
+     */
+    public static Map<String, Long> getTimings() {
+        synchronized (stageMillis) {
+            return new LinkedHashMap<>(stageMillis);
+        }
+    }
+
+    /**
+     * Runs one query on the startup executor, then puts its result into its list on the JavaFX thread.
+     * The stage is timed from the moment its query starts until its list is filled.
+     */
+    private static <T> CompletableFuture<Void> stage(String name, QueryInterface<T> query, ExecutorService executor, Consumer<T> apply) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                return new Timed<>(query.run(), start);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, executor).thenCompose(result -> {
+            CompletableFuture<Void> applied = new CompletableFuture<>();
+            Platform.runLater(() -> {
+                try {
+                    apply.accept(result.value);
+                    record(name, result.startedAt);
+                    applied.complete(null);
+                } catch (RuntimeException e) {
+                    applied.completeExceptionally(e);
+                }
+            });
+            return applied;
+        });
+    }
+
+    private static void record(String name, long start) {
+        synchronized (stageMillis) {
+            stageMillis.put(name, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private static String timingsToString() {
+        StringBuilder timings = new StringBuilder("Startup");
+        getTimings().forEach((name, millis) -> timings.append(" | ").append(name).append(": ").append(millis).append(" ms"));
+        return timings.toString();
+    }
+
+    /**
+     * A query result together with the time its query started.
+     */
+    private static class Timed<T> {
+        private final T value;
+        private final long startedAt;
+
+        Timed(T value, long startedAt) {
+            this.value = value;
+            this.startedAt = startedAt;
+        }
+    }
+}
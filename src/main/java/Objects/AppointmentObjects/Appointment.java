@@ -1,14 +1,21 @@
 package Objects.AppointmentObjects;
 
-import java.sql.Time;
+import Objects.IndexObjects.StringDictionary;
+
 import java.sql.Timestamp;
-import java.time.LocalDateTime;
 
 /**
  * An abstract class representing an appointment.
+ * The start and end are kept as epoch milliseconds and only formatted when they are shown, see `AppointmentTimeFormat`.
+ * Types, locations and contact names repeat across many appointments, so every appointment holding the same one shares it.
  */
 public abstract class Appointment {
 
+    //The shared types, locations and contact names.
+    private static final StringDictionary types = new StringDictionary(1024);
+    private static final StringDictionary locations = new StringDictionary(4096);
+    private static final StringDictionary contactNames = new StringDictionary(4096);
+
     private int a_id;
     private int customerID;
     private int userID;
@@ -16,11 +23,10 @@ public abstract class Appointment {
     private String description;
     private String location;
     private String contactName;
+    private int contactID;
     private String type;
-    private Timestamp start;
-    private Timestamp end;
-    private String visibleStart;
-    private String visibleEnd;
+    private long start;
+    private long end;
 
     /**
      * Constructs an appointment with the specified attributes.
@@ -30,38 +36,35 @@ public abstract class Appointment {
      * @param description  The description of the appointment.
      * @param location     The location of the appointment.
      * @param contactName  The name of the contact associated with the appointment.
+     * @param contactID    The unique identifier of the contact associated with the appointment.
      * @param type         The type or category of the appointment.
      * @param start        The start time of the appointment.
      * @param end          The end time of the appointment.
      * @param customerID   The unique identifier of the customer associated with the appointment.
      * @param userID       The unique identifier of the user responsible for the appointment.
-     * @param visibleStart A formatted string representing the visible start time.
-     * @param visibleEnd   A formatted string representing the visible end time.
      */
     public Appointment(int a_id,
                        String title,
                        String description,
                        String location,
                        String contactName,
+                       int contactID,
                        String type,
                        Timestamp start,
                        Timestamp end,
                        int customerID,
-                       int userID,
-                       String visibleStart,
-                       String visibleEnd) {
+                       int userID) {
         this.a_id = a_id;
         this.title = title;
         this.description = description;
-        this.location = location;
-        this.contactName = contactName;
-        this.type = type;
-        this.start = start;
-        this.end = end;
+        this.location = locations.intern(location);
+        this.contactName = contactNames.intern(contactName);
+        this.contactID = contactID;
+        this.type = types.intern(type);
+        this.start = start.getTime();
+        this.end = end.getTime();
         this.customerID = customerID;
         this.userID = userID;
-        this.visibleStart = visibleStart;
-        this.visibleEnd = visibleEnd;
     }
 
     public int getA_id() {
@@ -109,13 +112,21 @@ public abstract class Appointment {
     }
 
     public void setLocation(String location) {
-        this.location = location;
+        this.location = locations.intern(location);
     }
     public String getContactName() {
         return contactName;
     }
     public void setContactName(String contactName) {
-        this.contactName = contactName;
+        this.contactName = contactNames.intern(contactName);
+    }
+
+    public int getContactID() {
+        return contactID;
+    }
+
+    public void setContactID(int contactID) {
+        this.contactID = contactID;
     }
 
     public String getType() {
@@ -123,39 +134,41 @@ public abstract class Appointment {
     }
 
     public void setType(String type) {
-        this.type = type;
+        this.type = types.intern(type);
     }
 
     public Timestamp getStart() {
-        return start;
+        return new Timestamp(start);
     }
 
     public void setStart(Timestamp start) {
-        this.start = start;
+        this.start = start.getTime();
     }
 
     public Timestamp getEnd() {
-        return end;
+        return new Timestamp(end);
     }
 
     public void setEnd(Timestamp end) {
-        this.end = end;
-    }
-
-    public String getVisibleStart() {
-        return visibleStart;
+        this.end = end.getTime();
     }
 
-    public void setVisibleStart(String visibleStart) {
-        this.visibleStart = visibleStart;
-    }
-
-    public String getVisibleEnd() {
-        return visibleEnd;
+    /**
+     * Retrieves the start time without creating a timestamp.
+     *
+     * @return The start time in milliseconds since the epoch.
+     */
+    public long getStartMillis() {
+        return start;
     }
 
-    public void setVisibleEnd(String visibleEnd) {
-        this.visibleEnd = visibleEnd;
+    /**
+     * Retrieves the end time without creating a timestamp.
+     *
+     * @return The end time in milliseconds since the epoch.
+     */
+    public long getEndMillis() {
+        return end;
     }
 
 }
@@ -18,15 +18,14 @@ public class AppointmentInHouse extends Appointment {
      * @param description  The description of the appointment.
      * @param location     The location where the appointment takes place.
      * @param contact      The name of the contact associated with the appointment.
+     * @param contactID    The unique identifier of the contact associated with the appointment.
      * @param type         The type or category of the appointment.
      * @param start        The start time of the appointment.
      * @param end          The end time of the appointment.
      * @param customerID   The unique identifier of the customer associated with the appointment.
      * @param userID       The unique identifier of the user responsible for the appointment.
-     * @param visibleStart A formatted string representing the visible start time.
-     * @param visibleEnd   A formatted string representing the visible end time.
      */
-    public AppointmentInHouse(int a_id, String title, String description, String location, String contact, String type, Timestamp start, Timestamp end, int customerID, int userID, String visibleStart, String visibleEnd) {
-        super(a_id, title, description, location, contact, type, start, end, customerID, userID, visibleStart, visibleEnd);
+    public AppointmentInHouse(int a_id, String title, String description, String location, String contact, int contactID, String type, Timestamp start, Timestamp end, int customerID, int userID) {
+        super(a_id, title, description, location, contact, contactID, type, start, end, customerID, userID);
     }
 }
@@ -0,0 +1,217 @@
+package Objects.AppointmentObjects;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An interval tree of appointments ordered by start time.
+ * Each node also stores the latest end time in its subtree, so every appointment overlapping a time range
+ * can be found in O(log n + k) instead of walking the whole list. The tree is kept balanced as an AVL tree.
+ * Intervals are half-open: an appointment ending at 10:00 does not overlap one starting at 10:00.
+ */
+public class AppointmentIntervalTree {
+
+    private Node root;
+
+    //Finds the node of an appointment by its ID so it can be removed even if the appointment object changed.
+    private final Map<Integer, Node> nodesByID = new HashMap<>();
+
+    /**
+     * Adds an appointment to the tree, replacing any appointment with the same ID.
+     *
+     * @param appointment The appointment to be added.
+     */
+    public void insert(Appointment appointment) {
+        remove(appointment.getA_id());
+        Node node = new Node(appointment);
+        nodesByID.put(appointment.getA_id(), node);
+        root = insert(root, node);
+    }
+
+    /**
+     * Removes the appointment with the given ID from the tree.
+     *
+     * @param appointmentID The ID of the appointment to be removed.
+     */
+    public void remove(int appointmentID) {
+        Node node = nodesByID.remove(appointmentID);
+        if (node != null) {
+            root = remove(root, node.start, node.id);
+        }
+    }
+
+    /**
+     * Removes every appointment from the tree.
+     */
+    public void clear() {
+        root = null;
+        nodesByID.clear();
+    }
+
+    public int size() {
+        return nodesByID.size();
+    }
+
+    /**
+     * Finds every appointment that overlaps the given time range.
+     *
+     * @param start The start of the range in epoch milliseconds.
+     * @param end   The end of the range in epoch milliseconds.
+     * @return The overlapping appointments ordered by start time.
+     */
+    public List<Appointment> findOverlaps(long start, long end) {
+        List<Appointment> overlaps = new ArrayList<>();
+        findOverlaps(root, start, end, overlaps);
+        return overlaps;
+    }
+
+    private static void findOverlaps(Node node, long start, long end, List<Appointment> overlaps) {
+
+        //Nothing in this subtree ends after the range starts.
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        findOverlaps(node.left, start, end, overlaps);
+
+        //Everything to the right starts at or after this node, so it can't overlap either.
+        if (node.start >= end) {
+            return;
+        }
+        if (node.end > start) {
+            overlaps.add(node.appointment);
+        }
+        findOverlaps(node.right, start, end, overlaps);
+    }
+
+    private static Node insert(Node node, Node newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        if (compare(newNode.start, newNode.id, node) < 0) {
+            node.left = insert(node.left, newNode);
+        } else {
+            node.right = insert(node.right, newNode);
+        }
+        return rebalance(node);
+    }
+
+    private static Node remove(Node node, long start, int id) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(start, id, node);
+        if (comparison < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (comparison > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+
+            //Replaces the removed node with the earliest node of its right subtree.
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return rebalance(node);
+    }
+
+    private static Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    //Orders nodes by start time, then by appointment ID so appointments starting together can coexist.
+    private static int compare(long start, int id, Node node) {
+        int comparison = Long.compare(start, node.start);
+        return comparison != 0 ? comparison : Integer.compare(id, node.id);
+    }
+
+    private static Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    //Recalculates the height and latest end time of a node from its children.
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    /**
+     * A tree node holding an appointment and the bounds it was inserted with.
+     */
+    private static class Node {
+        private final Appointment appointment;
+        private final int id;
+        private final long start;
+        private final long end;
+        private long maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        Node(Appointment appointment) {
+            this.appointment = appointment;
+            this.id = appointment.getA_id();
+            this.start = appointment.getStartMillis();
+            this.end = appointment.getEndMillis();
+            this.maxEnd = end;
+        }
+    }
+}
@@ -1,8 +1,20 @@
 package Objects.AppointmentObjects;
 
+import Objects.IndexObjects.GroupIndex;
+import Objects.IndexObjects.SearchIndex;
+import Objects.IndexObjects.UniqueIndex;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 /**
  * A utility class for managing a list of appointments.
  * This class provides methods to add, lookup, update, and delete appointments, as well as
@@ -10,6 +22,28 @@ import javafx.collections.ObservableList;
  */
 public class AppointmentList {
     private static final ObservableList<Appointment> allAppointments = FXCollections.observableArrayList();
+    private static final AppointmentIntervalTree appointmentIntervals = new AppointmentIntervalTree();
+
+    //Hash indexes kept in sync with the list.
+    private static final UniqueIndex<Appointment> appointmentsByID = new UniqueIndex<>(allAppointments, Appointment::getA_id);
+    private static final SearchIndex<Appointment> appointmentSearch = new SearchIndex<>(allAppointments, Appointment::getA_id,
+            Appointment::getTitle, Appointment::getType, Appointment::getDescription, Appointment::getLocation);
+    private static final GroupIndex<Appointment> appointmentsByContact = new GroupIndex<>(allAppointments, Appointment::getContactID);
+    private static final GroupIndex<Appointment> appointmentsByCustomer = new GroupIndex<>(allAppointments, Appointment::getCustomerID);
+
+    //Keeps the interval tree in sync with every change made to the appointment list.
+    static {
+        allAppointments.addListener((ListChangeListener<Appointment>) change -> {
+            while (change.next()) {
+                for (Appointment removed : change.getRemoved()) {
+                    appointmentIntervals.remove(removed.getA_id());
+                }
+                for (Appointment added : change.getAddedSubList()) {
+                    appointmentIntervals.insert(added);
+                }
+            }
+        });
+    }
 
     /**
      * Adds a new appointment to the list of all appointments.
@@ -19,6 +53,25 @@ public class AppointmentList {
     public static void addAppointment(Appointment newAppointment) {allAppointments.add(newAppointment);
     }
 
+    /**
+     * Adds appointments to the list in a single change, so the indexes and tables are only notified once.
+     *
+     * @param newAppointments The appointments to be added.
+     */
+    public static void addAppointments(Collection<? extends Appointment> newAppointments) {
+        allAppointments.addAll(newAppointments);
+    }
+
+    /**
+     * Inserts appointments into the list at a position in a single change.
+     *
+     * @param index           The position the first appointment is inserted at.
+     * @param newAppointments The appointments to be inserted.
+     */
+    public static void addAppointments(int index, Collection<? extends Appointment> newAppointments) {
+        allAppointments.addAll(index, newAppointments);
+    }
+
     /**
      * Looks up an appointment by its unique identifier.
      *
@@ -26,26 +79,55 @@ public class AppointmentList {
      * @return The appointment with the specified unique identifier, or null if not found.
      */
     public static Appointment lookupAppointment(int appointmentID) {
-        ObservableList<Appointment> currentAppointmentList = AppointmentList.getAllAppointments();
-        for (Appointment appointment : currentAppointmentList) {
-            if (appointment.getA_id() == appointmentID) {
-                return appointment;
-            }
-        }
-        return null;
+        return appointmentsByID.get(appointmentID);
+    }
+
+    /**
+     * Retrieves the loaded appointments of a contact.
+     *
+     * @param contactID The unique identifier of the contact.
+     * @return The contact's appointments, empty if there are none.
+     */
+    public static List<Appointment> lookupAppointmentsByContact(int contactID) {
+        return appointmentsByContact.get(contactID);
     }
 
+    /**
+     * Retrieves the loaded appointments of a customer.
+     *
+     * @param customerID The unique identifier of the customer.
+     * @return The customer's appointments, empty if there are none.
+     */
+    public static List<Appointment> lookupAppointmentsByCustomer(int customerID) {
+        return appointmentsByCustomer.get(customerID);
+    }
+
+    /**
+     * Searches the title, type, description and location of the appointments.
+     * Matches every word of the search, ignoring case and accents, and words may be the start of a longer word.
+     *
+     * @param appointmentSearch The words to search for.
+     * @return The matching appointments, best matches first.
+     */
     public static ObservableList<Appointment> searchForAppointment(String appointmentSearch){
-        ObservableList<Appointment> newAppointmentList = FXCollections.observableArrayList();
-        ObservableList<Appointment> currentAppointmentList = AppointmentList.getAllAppointments();
-        for(Appointment appointment : currentAppointmentList){
-            if(appointment.getTitle().contains(appointmentSearch)){
-                newAppointmentList.add(appointment);
-            } else if (appointment.getType().contains(appointmentSearch)) {
-                newAppointmentList.add(appointment);
-            }
-        }
-        return newAppointmentList;
+        return AppointmentList.appointmentSearch.search(appointmentSearch);
+    }
+
+    /**
+     * Finds loaded appointments that overlap a time range and share its contact or customer.
+     *
+     * @param start         The start of the range.
+     * @param end           The end of the range.
+     * @param contactID     The contact of the appointment being scheduled.
+     * @param customerID    The customer of the appointment being scheduled.
+     * @param appointmentID The appointment being scheduled, which is excluded from the results.
+     * @return The conflicting appointments ordered by start time.
+     */
+    public static List<Appointment> findOverlaps(Timestamp start, Timestamp end, int contactID, int customerID, int appointmentID) {
+        return appointmentIntervals.findOverlaps(start.getTime(), end.getTime()).stream()
+                .filter(appointment -> appointment.getA_id() != appointmentID)
+                .filter(appointment -> appointment.getCustomerID() == customerID || appointment.getContactID() == contactID)
+                .collect(Collectors.toList());
     }
 
     /**
@@ -58,6 +140,21 @@ public class AppointmentList {
         allAppointments.set(index, selectedAppointment);
     }
 
+    /**
+     * Replaces the loaded appointment with the same unique identifier, found through the ID index instead of scanning the list.
+     *
+     * @param selectedAppointment The updated appointment.
+     * @return True if an appointment with the identifier was loaded and replaced; otherwise, false.
+     */
+    public static boolean replaceAppointment(Appointment selectedAppointment) {
+        int index = appointmentsByID.indexOf(selectedAppointment.getA_id());
+        if (index < 0) {
+            return false;
+        }
+        allAppointments.set(index, selectedAppointment);
+        return true;
+    }
+
     /**
      * Deletes the specified appointment from the list of all appointments.
      *
@@ -67,6 +164,40 @@ public class AppointmentList {
         allAppointments.remove(selectedAppointment);
     }
 
+    /**
+     * Deletes appointments from the list in a single change, skipping any that aren't in it.
+     *
+     * @param appointmentIDs The unique identifiers of the appointments.
+     */
+    public static void deleteAppointments(Collection<Integer> appointmentIDs) {
+        Set<Appointment> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int appointmentID : appointmentIDs) {
+            Appointment appointment = appointmentsByID.get(appointmentID);
+            if (appointment != null) {
+                removed.add(appointment);
+            }
+        }
+        if (!removed.isEmpty()) {
+            allAppointments.removeAll(removed);
+        }
+    }
+
+    /**
+     * Deletes the appointments of customers from the list in a single change.
+     * The appointments are found through the customer index instead of scanning the list for each customer.
+     *
+     * @param customerIDs The unique identifiers of the customers.
+     */
+    public static void deleteAppointmentsByCustomers(Collection<Integer> customerIDs) {
+        Set<Appointment> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int customerID : customerIDs) {
+            removed.addAll(appointmentsByCustomer.get(customerID));
+        }
+        if (!removed.isEmpty()) {
+            allAppointments.removeAll(removed);
+        }
+    }
+
     /**
      * Retrieves a list of all appointments.
      *
@@ -0,0 +1,49 @@
+package Objects.AppointmentObjects;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A utility class for showing appointment times in the user's locale and time zone.
+ * Appointments only keep their times as epoch milliseconds, and are formatted when they are shown,
+ * using one formatter per locale and style that is shared by every appointment.
+ */
+public abstract class AppointmentTimeFormat {
+
+    private static final Map<Locale, Map<FormatStyle, DateTimeFormatter>> formatters = new ConcurrentHashMap<>();
+
+    /**
+     * Formats a time as a localized date and time.
+     *
+     * @param epochMillis The time in milliseconds since the epoch.
+     * @param style       The length of the formatted date and time.
+     * @return The date and time in the user's time zone.
+     */
+    public static String format(long epochMillis, FormatStyle style) {
+        return formatter(style).format(Instant.ofEpochMilli(epochMillis).atZone(ZoneId.systemDefault()));
+    }
+
+    /**
+     * Retrieves the shared formatter for the user's locale, creating it the first time it is asked for.
+     *
+     * @param style The length of the formatted date and time.
+     * @return The formatter.
+     */
+    public static DateTimeFormatter formatter(FormatStyle style) {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        Map<FormatStyle, DateTimeFormatter> styles = formatters.computeIfAbsent(locale, key -> new ConcurrentHashMap<>());
+        DateTimeFormatter formatter = styles.get(style);
+        if (formatter == null) {
+
+            //Formatters are immutable, so two threads creating the same one at once is harmless.
+            formatter = DateTimeFormatter.ofLocalizedDateTime(style).withLocale(locale);
+            styles.putIfAbsent(style, formatter);
+        }
+        return formatter;
+    }
+}
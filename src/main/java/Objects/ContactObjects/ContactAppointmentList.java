@@ -1,14 +1,22 @@
 package Objects.ContactObjects;
 
 import Objects.AppointmentObjects.Appointment;
-import Objects.AppointmentObjects.AppointmentList;
+import Objects.IndexObjects.SearchIndex;
+import Objects.IndexObjects.UniqueIndex;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.util.Collection;
+
 public class ContactAppointmentList {
 
     private static final ObservableList<Appointment> allAppointments = FXCollections.observableArrayList();
 
+    //Hash index on the appointment ID kept in sync with the list.
+    private static final UniqueIndex<Appointment> appointmentsByID = new UniqueIndex<>(allAppointments, Appointment::getA_id);
+    private static final SearchIndex<Appointment> appointmentSearch = new SearchIndex<>(allAppointments, Appointment::getA_id,
+            Appointment::getTitle, Appointment::getType, Appointment::getDescription, Appointment::getLocation);
+
     /**
      * Adds a new appointment to the list of all appointments.
      *
@@ -18,6 +26,15 @@ public class ContactAppointmentList {
         allAppointments.add(newAppointment);
     }
 
+    /**
+     * Adds appointments to the list in a single change, so the indexes and tables are only notified once.
+     *
+     * @param newAppointments The appointments to be added.
+     */
+    public static void addAppointments(Collection<? extends Appointment> newAppointments) {
+        allAppointments.addAll(newAppointments);
+    }
+
     /**
      * Looks up an appointment by its unique identifier.
      *
@@ -25,25 +42,18 @@ public class ContactAppointmentList {
      * @return The appointment with the specified unique identifier, or null if not found.
      */
     public static Appointment lookupAppointment(int appointmentID) {
-        ObservableList<Appointment> currentAppointmentList = AppointmentList.getAllAppointments();
-        for (Appointment appointment : currentAppointmentList) {
-            if (appointment.getA_id() == appointmentID) {
-                return appointment;
-            }
-        }
-        return null;
+        return appointmentsByID.get(appointmentID);
     }
 
-    public static ObservableList<Appointment> searchForAppointment(String appointmentSearch, ObservableList<Appointment> currentAppointmentList){
-        ObservableList<Appointment> newAppointmentList = FXCollections.observableArrayList();
-        for(Appointment appointment : currentAppointmentList){
-            if(appointment.getTitle().contains(appointmentSearch)){
-                newAppointmentList.add(appointment);
-            } else if (appointment.getType().contains(appointmentSearch)) {
-                newAppointmentList.add(appointment);
-            }
-        }
-        return newAppointmentList;
+    /**
+     * Searches the title, type, description and location of the appointments.
+     * Matches every word of the search, ignoring case and accents, and words may be the start of a longer word.
+     *
+     * @param appointmentSearch The words to search for.
+     * @return The matching appointments, best matches first.
+     */
+    public static ObservableList<Appointment> searchForAppointment(String appointmentSearch){
+        return ContactAppointmentList.appointmentSearch.search(appointmentSearch);
     }
 
     /**
@@ -1,20 +1,37 @@
 package Objects.ContactObjects;
 
+import Objects.IndexObjects.UniqueIndex;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 public class ContactList {
     private static final ObservableList<Contact> allContacts = FXCollections.observableArrayList();
 
+    //Hash indexes on the contact ID and on the user each contact belongs to, kept in sync with the list.
+    private static final UniqueIndex<Contact> contactsByID = new UniqueIndex<>(allContacts, Contact::getId);
+    private static final UniqueIndex<Contact> contactsByUser = new UniqueIndex<>(allContacts, Contact::getU_id);
+
     public static void addContact(Contact newContact){allContacts.add(newContact);}
+
+    /**
+     * Looks up the contact that belongs to a user.
+     *
+     * @param userID The unique identifier of the user.
+     * @return The user's contact, or null if the user isn't a contact.
+     */
     public static Contact lookupContact(int userID){
-        ObservableList<Contact> currentContactList = ContactList.getAllContacts();
-        for(Contact contact : currentContactList){
-            if(contact.getU_id() == userID){
-                return  contact;
-            }
-        }
-        return null;
+        return contactsByUser.get(userID);
     }
+
+    /**
+     * Looks up a contact by its unique identifier.
+     *
+     * @param contactID The unique identifier of the contact.
+     * @return The contact, or null if not found.
+     */
+    public static Contact lookupContactByID(int contactID){
+        return contactsByID.get(contactID);
+    }
+
     public static ObservableList<Contact> getAllContacts(){return allContacts;}
 }
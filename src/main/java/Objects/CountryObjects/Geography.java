@@ -0,0 +1,173 @@
+package Objects.CountryObjects;
+
+import Objects.IndexObjects.IntHashMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of the countries and their first-level divisions.
+ * Holds every lookup the customer forms need, country to divisions, division name to ID and division to country,
+ * so they are answered from memory. A snapshot is never changed once built, a refresh builds a new one with a
+ * higher version, which lets it be shared between threads without locking.
+ */
+public final class Geography {
+
+    private final long version;
+    private final List<String> countries;
+    private final Map<String, List<String>> divisionsByCountry;
+    private final IntHashMap<List<String>> divisionsByCountryID;
+    private final Map<String, Integer> divisionIDs;
+    private final IntHashMap<String> divisionNames;
+    private final IntHashMap<String> countriesByDivision;
+
+    private Geography(Builder builder, long version) {
+        this.version = version;
+        this.countries = Collections.unmodifiableList(new ArrayList<>(builder.countryNames.values()));
+
+        Map<String, List<String>> divisionsByCountry = new LinkedHashMap<>();
+        divisionsByCountryID = new IntHashMap<>(builder.countryNames.size());
+        for (Map.Entry<Integer, List<String>> entry : builder.countryDivisions.entrySet()) {
+            List<String> divisions = Collections.unmodifiableList(entry.getValue());
+            divisionsByCountry.put(builder.countryNames.get(entry.getKey()), divisions);
+            divisionsByCountryID.put(entry.getKey(), divisions);
+        }
+        this.divisionsByCountry = Collections.unmodifiableMap(divisionsByCountry);
+        this.divisionIDs = Collections.unmodifiableMap(new HashMap<>(builder.divisionIDs));
+        this.divisionNames = builder.divisionNames;
+        this.countriesByDivision = builder.countriesByDivision;
+    }
+
+    /**
+     * Retrieves the version of the snapshot, which goes up every time the geography is reloaded.
+     *
+     * @return The version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Retrieves the country names.
+     *
+     * @return The country names in country ID order.
+     */
+    public List<String> getCountries() {
+        return countries;
+    }
+
+    /**
+     * Retrieves the divisions of a country.
+     *
+     * @param country The name of the country.
+     * @return The division names in division ID order, empty if the country is unknown.
+     */
+    public List<String> getDivisions(String country) {
+        return divisionsByCountry.getOrDefault(country, Collections.emptyList());
+    }
+
+    /**
+     * Retrieves the divisions of a country.
+     *
+     * @param countryID The ID of the country.
+     * @return The division names in division ID order, empty if the country is unknown.
+     */
+    public List<String> getDivisions(int countryID) {
+        List<String> divisions = divisionsByCountryID.get(countryID);
+        return divisions == null ? Collections.emptyList() : divisions;
+    }
+
+    /**
+     * Retrieves the ID of a division by its name.
+     *
+     * @param division The name of the division.
+     * @return The ID of the division or 0 if none is found.
+     */
+    public int getDivisionID(String division) {
+        return divisionIDs.getOrDefault(division, 0);
+    }
+
+    /**
+     * Retrieves the name of a division by its ID.
+     *
+     * @param divisionID The ID of the division.
+     * @return The name of the division or null if none is found.
+     */
+    public String getDivision(int divisionID) {
+        return divisionNames.get(divisionID);
+    }
+
+    /**
+     * Retrieves the name of the country a division belongs to.
+     *
+     * @param divisionID The ID of the division.
+     * @return The name of the country or null if none is found.
+     */
+    public String getCountry(int divisionID) {
+        return countriesByDivision.get(divisionID);
+    }
+
+    /**
+     * Collects countries and divisions, then builds a snapshot from them.
+     * Countries must be added before their divisions.
+     */
+    public static class Builder {
+        private final Map<Integer, String> countryNames = new LinkedHashMap<>();
+        private final Map<Integer, List<String>> countryDivisions = new LinkedHashMap<>();
+        private final Map<String, Integer> divisionIDs = new HashMap<>();
+        private final IntHashMap<String> divisionNames = new IntHashMap<>();
+        private final IntHashMap<String> countriesByDivision = new IntHashMap<>();
+        private boolean built;
+
+        /**
+         * Adds a country, a country added twice is kept once.
+         *
+         * @param countryID The ID of the country.
+         * @param country   The name of the country.
+         * @return This builder.
+         */
+        public Builder addCountry(int countryID, String country) {
+            countryNames.putIfAbsent(countryID, country);
+            countryDivisions.computeIfAbsent(countryID, id -> new ArrayList<>());
+            return this;
+        }
+
+        /**
+         * Adds a division to a country that has already been added.
+         *
+         * @param divisionID The ID of the division.
+         * @param division   The name of the division.
+         * @param countryID  The ID of the country the division belongs to.
+         * @return This builder.
+         */
+        public Builder addDivision(int divisionID, String division, int countryID) {
+            List<String> divisions = countryDivisions.get(countryID);
+            if (divisions == null) {
+                throw new IllegalStateException("Country " + countryID + " has not been added");
+            }
+            divisions.add(division);
+            divisionIDs.put(division, divisionID);
+            divisionNames.put(divisionID, division);
+            countriesByDivision.put(divisionID, countryNames.get(countryID));
+            return this;
+        }
+
+        /**
+         * Builds the snapshot. A builder can only be built once, since the snapshot takes over its maps.
+         *
+         * @param version The version of the snapshot.
+         * @return The snapshot.
+         */
+        public Geography build(long version) {
+            if (built) {
+                throw new IllegalStateException("The geography has already been built");
+            }
+            built = true;
+            return new Geography(this, version);
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package Objects.CustomerObjects;
 
+import Objects.IndexObjects.SearchIndex;
+import Objects.IndexObjects.UniqueIndex;
 import dao.CustomersQuery;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 /**
  * A class that manages a list of customers and provides utility methods for interacting with the list.
@@ -13,6 +19,11 @@ public class CustomersList {
     private static final ObservableList<Customer> allCustomers = FXCollections.observableArrayList();
     private static final ObservableList<Customer> customerInfoByAppointment = FXCollections.observableArrayList();
 
+    //Hash index on the customer ID kept in sync with the list.
+    private static final UniqueIndex<Customer> customersByID = new UniqueIndex<>(allCustomers, Customer::getId);
+    private static final SearchIndex<Customer> customerSearch = new SearchIndex<>(allCustomers, Customer::getId,
+            Customer::getName, Customer::getAddress, Customer::getPhone);
+
     /**
      * Adds a new customer to the list of customers.
      *
@@ -22,6 +33,15 @@ public class CustomersList {
         allCustomers.add(newCustomer);
     }
 
+    /**
+     * Adds customers to the list in a single change, so the indexes and tables are only notified once.
+     *
+     * @param newCustomers The customers to be added to the list.
+     */
+    public static void addCustomers(Collection<? extends Customer> newCustomers) {
+        allCustomers.addAll(newCustomers);
+    }
+
     /**
      * Looks up a customer by their customer ID and adds them to a list
      *
@@ -29,9 +49,27 @@ public class CustomersList {
      * @return an observable list containing the customers information
      */
     public static ObservableList<Customer> getCustomerInfo(int customerID) throws SQLException {
-        CustomersQuery.getCustomers();
+
+        //Only queries the database if the customer hasn't been loaded yet.
+        Customer customer = lookupCustomer(customerID);
+        if (customer == null) {
+            CustomersQuery.getCustomersByAppointment(customerID);
+            customer = lookupCustomer(customerID);
+        }
+        return getCustomerInfo(customer);
+    }
+
+    /**
+     * Puts a customer that has already been looked up into the customer information list.
+     *
+     * @param customer The customer to show, or null to show nobody.
+     * @return an observable list containing the customers information
+     */
+    public static ObservableList<Customer> getCustomerInfo(Customer customer) {
         customerInfoByAppointment.clear();
-        customerInfoByAppointment.add(lookupCustomer(customerID));
+        if (customer != null) {
+            customerInfoByAppointment.add(customer);
+        }
 
         return customerInfoByAppointment;
     }
@@ -43,14 +81,7 @@ public class CustomersList {
      * @return The customer with the specified customerID if found; otherwise, returns null.
      */
     public static Customer lookupCustomer(int customerID) {
-        ObservableList<Customer> currentCustomerList = CustomersList.getAllCustomers();
-        for (int i = 0; i < currentCustomerList.size(); i++) {
-            Customer customer = currentCustomerList.get(i);
-            if (customer.getId() == customerID) {
-                return customer;
-            }
-        }
-        return null;
+        return customersByID.get(customerID);
     }
 
     /**
@@ -63,6 +94,21 @@ public class CustomersList {
         allCustomers.set(index, selectedCustomer);
     }
 
+    /**
+     * Replaces the loaded customer with the same customer ID, found through the ID index instead of scanning the list.
+     *
+     * @param selectedCustomer The updated customer information.
+     * @return True if a customer with the ID was loaded and replaced; otherwise, false.
+     */
+    public static boolean replaceCustomer(Customer selectedCustomer) {
+        int index = customersByID.indexOf(selectedCustomer.getId());
+        if (index < 0) {
+            return false;
+        }
+        allCustomers.set(index, selectedCustomer);
+        return true;
+    }
+
     /**
      * Deletes a customer from the list.
      *
@@ -72,6 +118,24 @@ public class CustomersList {
         allCustomers.remove(selectedCustomer);
     }
 
+    /**
+     * Deletes customers from the list in a single change, so the indexes and tables are only notified once.
+     *
+     * @param customerIDs The unique identifiers of the customers to be removed from the list.
+     */
+    public static void deleteCustomers(Collection<Integer> customerIDs) {
+        Set<Customer> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int customerID : customerIDs) {
+            Customer customer = lookupCustomer(customerID);
+            if (customer != null) {
+                removed.add(customer);
+            }
+        }
+        if (!removed.isEmpty()) {
+            allCustomers.removeAll(removed);
+        }
+    }
+
     /**
      * Retrieves the list of all customers.
      *
@@ -81,14 +145,14 @@ public class CustomersList {
         return allCustomers;
     }
 
+    /**
+     * Searches the name, address and phone number of the customers.
+     * Matches every word of the search, ignoring case and accents, and words may be the start of a longer word.
+     *
+     * @param customerSearch The words to search for.
+     * @return The matching customers, best matches first.
+     */
     public static ObservableList<Customer> searchForCustomer(String customerSearch) {
-        ObservableList<Customer> newCustomerList = FXCollections.observableArrayList();
-        ObservableList<Customer> currentCustomerList = CustomersList.getAllCustomers();
-        for (Customer customer : currentCustomerList) {
-            if (customer.getName().contains(customerSearch)) {
-                newCustomerList.add(customer);
-            }
-        }
-        return newCustomerList;
+        return CustomersList.customerSearch.search(customerSearch);
     }
 }
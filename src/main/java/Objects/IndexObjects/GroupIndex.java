@@ -0,0 +1,98 @@
+package Objects.IndexObjects;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * A hash index over an observable list on a key shared by many elements, such as a foreign key.
+ * The index listens to the list, so every add, set and remove made through the list keeps it up to date.
+ * Each element's position within its group is tracked, so removing an element takes constant time however large
+ * its group has grown, such as the appointments of one busy contact.
+ *
+ * @param <T> The type of the list elements.
+ */
+public class GroupIndex<T> implements ListChangeListener<T> {
+
+    private final IntHashMap<List<T>> index = new IntHashMap<>();
+    private final Map<T, Integer> positions = new IdentityHashMap<>();
+    private final ToIntFunction<T> key;
+
+    /**
+     * Indexes the current contents of a list and starts following its changes.
+     *
+     * @param list The list to index.
+     * @param key  Extracts the key of an element.
+     */
+    public GroupIndex(ObservableList<T> list, ToIntFunction<T> key) {
+        this.key = key;
+        for (T element : list) {
+            add(element);
+        }
+        list.addListener(this);
+    }
+
+    /**
+     * Retrieves the elements with a key.
+     *
+     * @param keyValue The key to look up.
+     * @return A read-only view of the elements in no particular order, empty if there are none.
+     */
+    public List<T> get(int keyValue) {
+        List<T> group = index.get(keyValue);
+        return group == null ? Collections.emptyList() : Collections.unmodifiableList(group);
+    }
+
+    @Override
+    public void onChanged(Change<? extends T> change) {
+        while (change.next()) {
+            if (change.getList().isEmpty()) {
+                index.clear();
+                positions.clear();
+                continue;
+            }
+            for (T removed : change.getRemoved()) {
+                remove(removed);
+            }
+            for (T added : change.getAddedSubList()) {
+                add(added);
+            }
+        }
+    }
+
+    private void add(T element) {
+        int keyValue = key.applyAsInt(element);
+        List<T> group = index.get(keyValue);
+        if (group == null) {
+            group = new ArrayList<>();
+            index.put(keyValue, group);
+        }
+        positions.put(element, group.size());
+        group.add(element);
+    }
+
+    private void remove(T element) {
+        Integer position = positions.remove(element);
+        if (position == null) {
+            return;
+        }
+        int keyValue = key.applyAsInt(element);
+        List<T> group = index.get(keyValue);
+
+        //Moves the last element of the group into the gap, so nothing has to be shifted.
+        T last = group.remove(group.size() - 1);
+        if (last != element) {
+            group.set(position, last);
+            positions.put(last, position);
+        }
+        if (group.isEmpty()) {
+            index.remove(keyValue);
+        }
+    }
+}
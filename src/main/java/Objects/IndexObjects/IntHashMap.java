@@ -0,0 +1,201 @@
+package Objects.IndexObjects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A hash map with primitive int keys.
+ * Uses open addressing with linear probing so lookups don't box the key or follow chains of entry objects.
+ *
+ * @param <V> The type of the values.
+ */
+public class IntHashMap<V> {
+
+    private static final float loadFactor = 0.5f;
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int resizeAt;
+
+    public IntHashMap() {
+        this(16);
+    }
+
+    /**
+     * Creates a map sized for the given number of entries.
+     *
+     * @param expectedSize The number of entries the map should hold without resizing.
+     */
+    public IntHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Retrieves the value mapped to a key.
+     *
+     * @param key The key to look up.
+     * @return The value, or null if the key isn't mapped.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+        }
+        return null;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Maps a key to a value, replacing any previous value.
+     *
+     * @param key   The key.
+     * @param value The value, which can't be null.
+     * @return The previous value, or null if the key wasn't mapped.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        for (; values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= resizeAt) {
+            resize(keys.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the mapping for a key.
+     *
+     * @param key The key to remove.
+     * @return The removed value, or null if the key wasn't mapped.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                V removed = (V) values[slot];
+                deleteSlot(slot);
+                size--;
+                return removed;
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Retrieves a snapshot of the values in no particular order.
+     *
+     * @return The values.
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        List<V> result = new ArrayList<>(size);
+        for (Object value : values) {
+            if (value != null) {
+                result.add((V) value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves a snapshot of the keys in no particular order.
+     *
+     * @return The keys.
+     */
+    public int[] keys() {
+        int[] result = new int[size];
+        int count = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) {
+                result[count++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    //Shifts later entries of the probe sequence back so lookups never stop at the emptied slot.
+    private void deleteSlot(int slot) {
+        int mask = keys.length - 1;
+        int empty = slot;
+        int next = (slot + 1) & mask;
+        while (values[next] != null) {
+            int home = hash(keys[next]) & mask;
+            boolean canMove = empty <= next ? (home <= empty || home > next) : (home <= empty && home > next);
+            if (canMove) {
+                keys[empty] = keys[next];
+                values[empty] = values[next];
+                empty = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[empty] = null;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        resizeAt = (int) (capacity * loadFactor);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, (int) (expectedSize / loadFactor)) - 1) << 1;
+        return Math.max(capacity, 16);
+    }
+
+    //Spreads sequential database IDs across the table.
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,359 @@
+package Objects.IndexObjects;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.regex.Pattern;
+
+/**
+ * A full-text index over the text fields of an observable list.
+ * Field values are split into words that are lower-cased and stripped of accents, and every word points at the
+ * elements containing it. The distinct words are also kept sorted so each query word also matches the words it is a prefix of.
+ * An element matches a query when it matches every query word. Results are ranked by the fields the words were found in,
+ * with earlier fields weighing more, and exact word matches weighing more than prefix matches.
+ * Each element's position in the postings of its words is tracked, so removing an element takes time in proportion
+ * to its own words, however many elements share them.
+ * The index listens to the list, so every add, set and remove made through the list keeps it up to date.
+ * Like the list it follows, the index must only be used from the JavaFX thread.
+ *
+ * @param <T> The type of the list elements.
+ */
+public class SearchIndex<T> implements ListChangeListener<T> {
+
+    private static final Pattern accents = Pattern.compile("\\p{M}+");
+
+    private final ObservableList<T> list;
+    private final ToIntFunction<T> key;
+    private final List<Function<T, String>> fields;
+
+    //Word to the slots of the elements containing it, with the weight of the best field it appears in.
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    //The distinct indexed words in order, so the words starting with a query word sit next to each other.
+    private final NavigableSet<String> vocabulary = new TreeSet<>();
+
+    //Element key to its slot. Slots are dense so per-query scores can be kept in plain arrays.
+    private final IntHashMap<Integer> slotsByKey = new IntHashMap<>();
+    private Object[] elements = new Object[16];
+    private String[][] words = new String[16][];
+    //The position of each of a slot's words in that word's postings, parallel to words.
+    private int[][] wordPositions = new int[16][];
+    private int[] keys = new int[16];
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int slotCount;
+
+    //Scratch space reused by every query.
+    private float[] wordScores = new float[16];
+    private float[] totalScores = new float[16];
+    private int[] wordStamps = new int[16];
+    private int stamp;
+
+    /**
+     * Indexes the current contents of a list and starts following its changes.
+     *
+     * @param list   The list to index.
+     * @param key    Extracts the unique key of an element.
+     * @param fields The text fields to index, most important first.
+     */
+    @SafeVarargs
+    public SearchIndex(ObservableList<T> list, ToIntFunction<T> key, Function<T, String>... fields) {
+        this.list = list;
+        this.key = key;
+
+        //Copied one by one, since handing the generic array on to another varargs method could pollute the heap.
+        this.fields = new ArrayList<>(fields.length);
+        for (Function<T, String> field : fields) {
+            this.fields.add(field);
+        }
+        for (T element : list) {
+            add(element);
+        }
+        list.addListener(this);
+    }
+
+    /**
+     * Finds the elements matching every word of a query, best matches first.
+     * An empty query matches every element in list order.
+     *
+     * @param query The words to search for.
+     * @return The matching elements.
+     */
+    @SuppressWarnings("unchecked")
+    public ObservableList<T> search(String query) {
+        List<String> queryWords = tokenize(query);
+        if (queryWords.isEmpty()) {
+            return FXCollections.observableArrayList(list);
+        }
+
+        //Finds the words each query word is a prefix of, and starts with the query word matching the fewest elements.
+        List<String> ordered = new ArrayList<>(queryWords.size());
+        List<List<String>> matches = new ArrayList<>(queryWords.size());
+        List<Integer> sizes = new ArrayList<>(queryWords.size());
+        for (String word : queryWords) {
+            List<String> wordMatches = new ArrayList<>(vocabulary.subSet(word, true, word + Character.MAX_VALUE, false));
+            int size = 0;
+            for (String matchedWord : wordMatches) {
+                size += postings.get(matchedWord).size;
+            }
+            if (size == 0) {
+                return FXCollections.observableArrayList();
+            }
+            int position = 0;
+            while (position < sizes.size() && sizes.get(position) <= size) {
+                position++;
+            }
+            ordered.add(position, word);
+            matches.add(position, wordMatches);
+            sizes.add(position, size);
+        }
+
+        //Scores the elements matching the first word, then keeps only those matching each following word.
+        int[] candidates = null;
+        int candidateCount = 0;
+        for (int i = 0; i < matches.size(); i++) {
+            String word = ordered.get(i);
+            int wordStamp = ++stamp;
+            int[] matched = new int[sizes.get(i)];
+            int matchedCount = 0;
+            for (String matchedWord : matches.get(i)) {
+                Postings wordPostings = postings.get(matchedWord);
+                float exactness = matchedWord.equals(word) ? 2 : 1;
+                for (int p = 0; p < wordPostings.size; p++) {
+                    int slot = wordPostings.slots[p];
+                    float score = wordPostings.weights[p] * exactness;
+                    if (wordStamps[slot] != wordStamp) {
+                        wordStamps[slot] = wordStamp;
+                        wordScores[slot] = score;
+                        matched[matchedCount++] = slot;
+                    } else if (wordScores[slot] < score) {
+                        wordScores[slot] = score;
+                    }
+                }
+            }
+
+            if (i == 0) {
+                candidates = matched;
+                candidateCount = matchedCount;
+                for (int c = 0; c < candidateCount; c++) {
+                    totalScores[candidates[c]] = wordScores[candidates[c]];
+                }
+            } else {
+                int kept = 0;
+                for (int c = 0; c < candidateCount; c++) {
+                    int slot = candidates[c];
+                    if (wordStamps[slot] == wordStamp) {
+                        totalScores[slot] += wordScores[slot];
+                        candidates[kept++] = slot;
+                    }
+                }
+                candidateCount = kept;
+            }
+            if (candidateCount == 0) {
+                return FXCollections.observableArrayList();
+            }
+        }
+
+        //Sorts by score, best first, with ties in key order so results are stable between searches.
+        long[] ranked = new long[candidateCount];
+        for (int c = 0; c < candidateCount; c++) {
+            int slot = candidates[c];
+            ranked[c] = ((long) Float.floatToIntBits(totalScores[slot]) << 32) | (0xFFFFFFFFL & (Integer.MAX_VALUE - keys[slot]));
+        }
+        Arrays.sort(ranked);
+
+        Object[] found = new Object[candidateCount];
+        for (int c = 0; c < candidateCount; c++) {
+            int slotKey = Integer.MAX_VALUE - (int) ranked[candidateCount - 1 - c];
+            found[c] = elements[slotsByKey.get(slotKey)];
+        }
+        return (ObservableList<T>) FXCollections.observableArrayList(found);
+    }
+
+    public int size() {
+        return slotsByKey.size();
+    }
+
+    @Override
+    public void onChanged(Change<? extends T> change) {
+        while (change.next()) {
+            if (change.getList().isEmpty()) {
+                clear();
+                continue;
+            }
+            for (T removed : change.getRemoved()) {
+                Integer slot = slotsByKey.get(key.applyAsInt(removed));
+                if (slot != null && elements[slot] == removed) {
+                    remove(slot);
+                }
+            }
+            for (T added : change.getAddedSubList()) {
+                add(added);
+            }
+        }
+    }
+
+    /**
+     * Splits text into lower-case words without accents.
+     *
+     * @param text The text to split.
+     * @return The words in order of appearance.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        //Only text outside of ASCII can contain accents worth decomposing.
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 127) {
+                text = accents.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+                break;
+            }
+        }
+        text = text.toLowerCase(Locale.ROOT);
+
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordCharacter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordCharacter && start < 0) {
+                start = i;
+            } else if (!wordCharacter && start >= 0) {
+                tokens.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private void add(T element) {
+        int elementKey = key.applyAsInt(element);
+        Integer previous = slotsByKey.get(elementKey);
+        if (previous != null) {
+            remove(previous);
+        }
+
+        //Earlier fields weigh more, a word keeps the weight of the best field it appears in.
+        Map<String, Float> weights = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            float weight = fields.size() - i;
+            for (String word : tokenize(fields.get(i).apply(element))) {
+                weights.merge(word, weight, Math::max);
+            }
+        }
+
+        int slot = allocateSlot();
+        elements[slot] = element;
+        keys[slot] = elementKey;
+        String[] slotWords = weights.keySet().toArray(new String[0]);
+        int[] positions = new int[slotWords.length];
+        words[slot] = slotWords;
+        wordPositions[slot] = positions;
+        slotsByKey.put(elementKey, slot);
+        for (int i = 0; i < slotWords.length; i++) {
+            Postings wordPostings = postings.get(slotWords[i]);
+            if (wordPostings == null) {
+                wordPostings = new Postings();
+                postings.put(slotWords[i], wordPostings);
+                vocabulary.add(slotWords[i]);
+            }
+            positions[i] = wordPostings.add(slot, weights.get(slotWords[i]), i);
+        }
+    }
+
+    private void remove(int slot) {
+        String[] slotWords = words[slot];
+        for (int i = 0; i < slotWords.length; i++) {
+            Postings wordPostings = postings.get(slotWords[i]);
+            wordPostings.remove(wordPositions[slot][i], wordPositions);
+            if (wordPostings.size == 0) {
+                postings.remove(slotWords[i]);
+                vocabulary.remove(slotWords[i]);
+            }
+        }
+        slotsByKey.remove(keys[slot]);
+        elements[slot] = null;
+        words[slot] = null;
+        wordPositions[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void clear() {
+        postings.clear();
+        vocabulary.clear();
+        slotsByKey.clear();
+        Arrays.fill(elements, null);
+        Arrays.fill(words, null);
+        Arrays.fill(wordPositions, null);
+        slotCount = 0;
+        freeCount = 0;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == elements.length) {
+            int capacity = elements.length * 2;
+            elements = Arrays.copyOf(elements, capacity);
+            words = Arrays.copyOf(words, capacity);
+            wordPositions = Arrays.copyOf(wordPositions, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+            wordScores = Arrays.copyOf(wordScores, capacity);
+            totalScores = Arrays.copyOf(totalScores, capacity);
+            wordStamps = Arrays.copyOf(wordStamps, capacity);
+        }
+        return slotCount++;
+    }
+
+    /**
+     * The slots containing a word, the weight of the word in each, and where the word is among each slot's words,
+     * in parallel arrays.
+     */
+    private static class Postings {
+        private int[] slots = new int[4];
+        private float[] weights = new float[4];
+        private int[] wordIndexes = new int[4];
+        private int size;
+
+        //Returns the position of the new posting.
+        int add(int slot, float weight, int wordIndex) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+                wordIndexes = Arrays.copyOf(wordIndexes, size * 2);
+            }
+            slots[size] = slot;
+            weights[size] = weight;
+            wordIndexes[size] = wordIndex;
+            return size++;
+        }
+
+        //Moves the last posting into the removed one's place and updates its slot's position, order within a word doesn't matter.
+        void remove(int position, int[][] wordPositions) {
+            size--;
+            if (position != size) {
+                slots[position] = slots[size];
+                weights[position] = weights[size];
+                wordIndexes[position] = wordIndexes[size];
+                wordPositions[slots[position]][wordIndexes[position]] = position;
+            }
+        }
+    }
+}
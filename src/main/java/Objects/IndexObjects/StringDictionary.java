@@ -0,0 +1,49 @@
+package Objects.IndexObjects;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A dictionary of the distinct values of a column with few of them, such as appointment types.
+ * Every row holding a value shares the dictionary's copy instead of keeping the one read from the database.
+ * Once the dictionary is full new values are no longer shared, so a column with more distinct values than
+ * expected can't make it grow without bound. Safe to use from several threads.
+ */
+public class StringDictionary {
+
+    private final ConcurrentHashMap<String, String> values = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    /**
+     * Creates an empty dictionary.
+     *
+     * @param maxSize The number of distinct values that are shared.
+     */
+    public StringDictionary(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Retrieves the shared copy of a value, adding the value if the dictionary has room for it.
+     *
+     * @param value The value, may be null.
+     * @return The shared copy, or the value itself if it isn't shared.
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String shared = values.get(value);
+        if (shared != null) {
+            return shared;
+        }
+        if (values.size() >= maxSize) {
+            return value;
+        }
+        shared = values.putIfAbsent(value, value);
+        return shared == null ? value : shared;
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,121 @@
+package Objects.IndexObjects;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * A hash index over an observable list on a key that identifies at most one element, such as a primary key.
+ * The index listens to the list, so every add, set and remove made through the list keeps it up to date.
+ * It also knows each key's position in the list, so an element can be replaced without scanning for it. Replacing
+ * and appending elements keeps the positions up to date, any other change has them recounted the next time one is needed.
+ *
+ * @param <T> The type of the list elements.
+ */
+public class UniqueIndex<T> implements ListChangeListener<T> {
+
+    private final IntHashMap<T> index = new IntHashMap<>();
+    private final IntHashMap<Integer> positions = new IntHashMap<>();
+    private final ObservableList<T> list;
+    private final ToIntFunction<T> key;
+    private boolean positionsCounted;
+
+    /**
+     * Indexes the current contents of a list and starts following its changes.
+     *
+     * @param list The list to index.
+     * @param key  Extracts the key of an element.
+     */
+    public UniqueIndex(ObservableList<T> list, ToIntFunction<T> key) {
+        this.list = list;
+        this.key = key;
+        for (T element : list) {
+            index.put(key.applyAsInt(element), element);
+        }
+        list.addListener(this);
+    }
+
+    /**
+     * Looks up the element with a key.
+     *
+     * @param keyValue The key to look up.
+     * @return The element, or null if no element has the key.
+     */
+    public T get(int keyValue) {
+        return index.get(keyValue);
+    }
+
+    /**
+     * Finds the position in the list of the element with a key.
+     *
+     * @param keyValue The key to look up.
+     * @return The position of the element, or -1 if no element has the key.
+     */
+    public int indexOf(int keyValue) {
+        if (!positionsCounted) {
+            positions.clear();
+            for (int i = 0; i < list.size(); i++) {
+                positions.put(key.applyAsInt(list.get(i)), i);
+            }
+            positionsCounted = true;
+        }
+        Integer position = positions.get(keyValue);
+        return position == null ? -1 : position;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public void onChanged(Change<? extends T> change) {
+        while (change.next()) {
+            if (change.getList().isEmpty()) {
+                index.clear();
+                positions.clear();
+                positionsCounted = true;
+                continue;
+            }
+            updatePositions(change);
+            for (T removed : change.getRemoved()) {
+
+                //Only drops the entry if it still points at the removed element and not a newer one with the same key.
+                int keyValue = key.applyAsInt(removed);
+                if (index.get(keyValue) == removed) {
+                    index.remove(keyValue);
+                }
+            }
+            for (T added : change.getAddedSubList()) {
+                index.put(key.applyAsInt(added), added);
+            }
+        }
+    }
+
+    /**
+     * Moves the positions along with a replace or an append, or has them recounted after any other change.
+     */
+    private void updatePositions(Change<? extends T> change) {
+        if (!positionsCounted) {
+            return;
+        }
+        boolean replaced = change.wasReplaced() && change.getRemovedSize() == change.getAddedSize();
+        boolean appended = change.wasAdded() && !change.wasRemoved() && change.getTo() == change.getList().size();
+        if (!replaced && !appended) {
+            positionsCounted = false;
+            return;
+        }
+        int position = change.getFrom();
+        for (T removed : change.getRemoved()) {
+            int keyValue = key.applyAsInt(removed);
+            if (Integer.valueOf(position).equals(positions.get(keyValue))) {
+                positions.remove(keyValue);
+            }
+            position++;
+        }
+        position = change.getFrom();
+        for (T added : change.getAddedSubList()) {
+            positions.put(key.applyAsInt(added), position++);
+        }
+    }
+}
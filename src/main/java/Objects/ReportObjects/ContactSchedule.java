@@ -0,0 +1,45 @@
+package Objects.ReportObjects;
+
+import Objects.AppointmentObjects.Appointment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The schedule of a single contact for the contact report.
+ * Schedules are told apart by contact ID, so contacts sharing a name each get their own schedule.
+ */
+public class ContactSchedule {
+
+    private final int contactID;
+    private final String contactName;
+    private final List<Appointment> appointments = new ArrayList<>();
+
+    /**
+     * Constructs an empty schedule for a contact.
+     *
+     * @param contactID   The ID of the contact.
+     * @param contactName The name of the contact.
+     */
+    public ContactSchedule(int contactID, String contactName) {
+        this.contactID = contactID;
+        this.contactName = contactName;
+    }
+
+    public int getContactID() {
+        return contactID;
+    }
+
+    public String getContactName() {
+        return contactName;
+    }
+
+    /**
+     * Retrieves the appointments of the contact.
+     *
+     * @return The appointments ordered by start time, empty if the contact has none.
+     */
+    public List<Appointment> getAppointments() {
+        return appointments;
+    }
+}
@@ -0,0 +1,55 @@
+package Objects.ReportObjects;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * A single row of an aggregate report.
+ * Holds the value of every grouping dimension in the order they were requested and the number of appointments in the group.
+ * A value is null when the appointment has nothing to group by for that dimension, such as a missing contact.
+ */
+public class ReportRow {
+
+    private final List<String> groups;
+    private final long count;
+
+    /**
+     * Constructs a new report row.
+     *
+     * @param groups The value of each grouping dimension, which may be null.
+     * @param count  The number of appointments in the group.
+     */
+    public ReportRow(List<String> groups, long count) {
+        this.groups = Collections.unmodifiableList(new ArrayList<>(groups));
+        this.count = count;
+    }
+
+    public List<String> getGroups() {
+        return groups;
+    }
+
+    /**
+     * Retrieves the value of one grouping dimension.
+     *
+     * @param index The position of the dimension in the report.
+     * @return The value of the dimension for this row.
+     */
+    public String getGroup(int index) {
+        return groups.get(index);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner row = new StringJoiner(" | ");
+        for (String group : groups) {
+            row.add(String.valueOf(group));
+        }
+        return row.add(String.valueOf(count)).toString();
+    }
+}
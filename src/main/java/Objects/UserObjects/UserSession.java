@@ -0,0 +1,83 @@
+package Objects.UserObjects;
+
+import java.util.Objects;
+
+/**
+ * The user who is logged in, together with their contact if they are one.
+ * The session is created once from the login query and kept until the application closes,
+ * so screens can check who is logged in without querying the database.
+ */
+public class UserSession {
+
+    //Read by background queries, so changes must be visible to every thread.
+    private static volatile UserSession current;
+
+    private final int userID;
+    private final String userName;
+    private final String userType;
+    private final int contactID;
+    private final String contactName;
+
+    /**
+     * Constructs a session with the specified attributes.
+     *
+     * @param userID      The unique identifier of the user.
+     * @param userName    The name the user logged in with.
+     * @param userType    The type of the user, such as admin or contact.
+     * @param contactID   The unique identifier of the user's contact, 0 if the user isn't a contact.
+     * @param contactName The name of the user's contact, null if the user isn't a contact.
+     */
+    public UserSession(int userID, String userName, String userType, int contactID, String contactName) {
+        this.userID = userID;
+        this.userName = userName;
+        this.userType = userType;
+        this.contactID = contactID;
+        this.contactName = contactName;
+    }
+
+    /**
+     * Makes a session the current one, replacing any earlier session.
+     *
+     * @param session The session of the user who logged in.
+     */
+    public static void start(UserSession session) {
+        current = session;
+    }
+
+    /**
+     * Retrieves the session of the user who is logged in.
+     *
+     * @return The current session, or null if nobody has logged in.
+     */
+    public static UserSession getCurrent() {
+        return current;
+    }
+
+    public int getUserID() {
+        return userID;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public String getUserType() {
+        return userType;
+    }
+
+    public int getContactID() {
+        return contactID;
+    }
+
+    public String getContactName() {
+        return contactName;
+    }
+
+    public boolean isAdmin() {
+        return Objects.equals(userType, "admin");
+    }
+
+    public boolean isContact() {
+        return Objects.equals(userType, "contact");
+    }
+}
@@ -1,13 +1,14 @@
 package Objects.UserObjects;
 
-import Objects.CustomerObjects.Customer;
-import Objects.CustomerObjects.CustomersList;
+import Objects.IndexObjects.UniqueIndex;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 public class UsersList {
     private static final ObservableList<User> allUsers = FXCollections.observableArrayList();
-    private static final ObservableList<User> loggedInUser = FXCollections.observableArrayList();
+
+    //Hash index on the user ID kept in sync with the list.
+    private static final UniqueIndex<User> usersByID = new UniqueIndex<>(allUsers, User::getUser_ID);
 
     /**
      * Adds a new User to the list of customers.
@@ -17,7 +18,6 @@ public class UsersList {
     public static void addUser(User newUser){
         allUsers.add(newUser);
     }
-    public static void setLoggedInUser(User user){loggedInUser.add(user);}
 
     /**
      * Looks up a User by their unique identifier (UserID) in the list.
@@ -26,14 +26,7 @@ public class UsersList {
      * @return The customer with the specified customerID if found; otherwise, returns null.
      */
     public static User lookUpUser(int userID){
-        ObservableList<User> currentUserList = UsersList.getAllUsers();
-        for(int i = 0; i < currentUserList.size(); i++){
-            User user = currentUserList.get(i);
-            if(user.getUser_ID() == userID){
-                return user;
-            }
-        }
-        return null;
+        return usersByID.get(userID);
     }
 
     /**
@@ -61,5 +54,4 @@ public class UsersList {
      * @return An ObservableList containing all the customers in the list.
      */
     public static ObservableList<User> getAllUsers(){return allUsers;}
-    public static ObservableList<User> getLoggedInUser(){return loggedInUser;}
 }
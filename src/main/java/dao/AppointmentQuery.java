@@ -1,24 +1,27 @@
 package dao;
 
 import Controllers.ContactControllers.ContactScreenController;
-import LambdaInterfaces.DateAndTimeInterface;
+import Objects.AppointmentObjects.Appointment;
 import Objects.AppointmentObjects.AppointmentInHouse;
 import Objects.AppointmentObjects.AppointmentList;
-import Objects.ContactObjects.Contact;
+import Objects.AppointmentObjects.AppointmentTimeFormat;
 import Objects.ContactObjects.ContactAppointmentList;
-import Objects.ContactObjects.ContactList;
 import Objects.CustomerObjects.CustomersList;
-import Objects.UserObjects.User;
-import Objects.UserObjects.UsersList;
+import Objects.UserObjects.UserSession;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.scene.Node;
 import javafx.scene.control.Alert;
 
 import java.sql.*;
 import java.time.*;
-import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
-import java.util.Objects;
+import java.time.temporal.TemporalAdjusters;
+import java.time.temporal.WeekFields;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
 
 /**
  * A data access object for managing appointments in the database.
@@ -27,6 +30,9 @@ import java.util.Objects;
  */
 public class AppointmentQuery {
 
+    //Selects appointments together with their contact name so no per-row contact lookup is needed.
+    private static final String appointmentSelect = "SELECT a.*, c.Contact_Name FROM appointments a LEFT JOIN contacts c ON c.Contact_ID = a.Contact_ID";
+
     /**
      * Retrieves all appointments from the database and populates the `AppointmentList` with the results.
      *
@@ -37,259 +43,443 @@ public class AppointmentQuery {
         //Resets the appointment observable list.
         AppointmentList.resetAllAppointments();
 
-        //Queries the database for all appointments.
-        String sql = "SELECT * FROM appointments";
-
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
+        //Adds the appointments from the database to the local Observable arraylist in one change.
+        AppointmentList.addAppointments(findAppointments());
+    }
 
-        //Result set containing appointments.
-        ResultSet rs = ps.executeQuery();
+    /**
+     * Retrieves all appointments from the database without touching the lists shown on screen,
+     * so it can run on a background thread.
+     *
+     * @return All appointments.
+     * @throws SQLException If a database error occurs during the retrieval.
+     */
+    public static List<Appointment> findAppointments() throws SQLException {
 
-        //Iterates through the result set.
-        while(rs.next()){
+        //Queries the database for all appointments and their contact names in a single round trip.
+        String sql = appointmentSelect;
 
-            //Variables used to hold appointment information from the result set.
-            int appointmentID = rs.getInt("Appointment_ID");
-            String title = rs.getString("Title");
-            String description = rs.getString("Description");
-            String location = rs.getString("Location");
-            String type = rs.getString("Type");
-            Timestamp startTimeStamp = rs.getTimestamp("Start");
-            Timestamp endTimeStamp = rs.getTimestamp("End");
-            int customerID = rs.getInt("Customer_ID");
-            int userID = rs.getInt("User_ID");
-            int contactID = rs.getInt("Contact_ID");
+        try (Connection connection = JDBC.getConnection()) {
+            //Loads the query into a prepared statement.
+            PreparedStatement ps = connection.prepareStatement(sql);
 
-            //Looks up the contact by contact ID.
-            String contact = getContact(contactID);
+            //Result set containing appointments.
+            return readAppointments(ps.executeQuery());
+        }
+    }
 
-            //Formats the start and end date using the users localized date and time.
-            String visibleStart = startTimeStamp.toLocalDateTime().format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM));
-            String visibleEnd = endTimeStamp.toLocalDateTime().format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM));
+    /**
+     * Retrieves the page of appointments that follows an appointment, ordered by start time and then ID.
+     * Seeks on the start index instead of skipping rows with an offset, so every page is read equally fast
+     * however far into the history it is. InnoDB keeps the appointment ID in the start index, which covers the ordering.
+     *
+     * @param start         The start time of the appointment the page follows.
+     * @param appointmentID The ID of the appointment the page follows, 0 to include every appointment starting at the start time.
+     * @param pageSize      The maximum number of appointments in the page, also used as the fetch size.
+     * @return The appointments ordered by start time.
+     * @throws SQLException If a database error occurs during the retrieval.
+     */
+    public static List<Appointment> findPageAfter(Timestamp start, int appointmentID, int pageSize) throws SQLException {
 
+        //Query to select the appointments after the start time and ID.
+        String sql = appointmentSelect + " WHERE a.Start >= ? AND (a.Start > ? OR a.Appointment_ID > ?) ORDER BY a.Start, a.Appointment_ID LIMIT ?";
 
-            //Creates a new appointment object to be placed into the Observable arraylist
-            AppointmentInHouse newAppointment = new AppointmentInHouse(appointmentID, title, description, location, contact, type, startTimeStamp, endTimeStamp, customerID, userID, visibleStart, visibleEnd);
+        try (Connection connection = JDBC.getConnection()) {
+            PreparedStatement ps = prepareKeyset(connection, sql, start, appointmentID, pageSize);
 
-            //Adds the appointment from th database to a local Observable arraylist.
-            AppointmentList.addAppointment(newAppointment);
+            return readAppointments(ps.executeQuery());
         }
     }
 
     /**
-     * Retrieves all appointments from the database ordered by current month and populates the `AppointmentList` with the results.
+     * Retrieves the page of appointments that comes before an appointment, ordered by start time and then ID.
+     * The page is read backwards from the appointment so only the rows in the page are read.
      *
+     * @param start         The start time of the appointment the page comes before.
+     * @param appointmentID The ID of the appointment the page comes before, 0 to exclude every appointment starting at the start time.
+     * @param pageSize      The maximum number of appointments in the page, also used as the fetch size.
+     * @return The appointments ordered by start time.
      * @throws SQLException If a database error occurs during the retrieval.
      */
-    public static void getAppointmentsByMonth() throws SQLException {
-
-        // Query used to select all appointments by month.
-        String sql = "SELECT * FROM appointments WHERE MONTH(Start) = ?";
+    public static List<Appointment> findPageBefore(Timestamp start, int appointmentID, int pageSize) throws SQLException {
 
-        // Get the current month as an integer (1 for January, 2 for February, etc.).
-        int currentMonth = LocalDate.now().getMonthValue();
+        //Query to select the appointments before the start time and ID, nearest first.
+        String sql = appointmentSelect + " WHERE a.Start <= ? AND (a.Start < ? OR a.Appointment_ID < ?) ORDER BY a.Start DESC, a.Appointment_ID DESC LIMIT ?";
 
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ps.setInt(1,  currentMonth);
+        try (Connection connection = JDBC.getConnection()) {
+            PreparedStatement ps = prepareKeyset(connection, sql, start, appointmentID, pageSize);
 
-        getAppointmentInfo(sql, ps);
+            //Puts the page back into ascending order.
+            List<Appointment> page = readAppointments(ps.executeQuery());
+            Collections.reverse(page);
+            return page;
+        }
     }
 
+    private static PreparedStatement prepareKeyset(Connection connection, String sql, Timestamp start, int appointmentID, int pageSize) throws SQLException {
+        PreparedStatement ps = connection.prepareStatement(sql);
+        ps.setFetchSize(pageSize);
+        ps.setTimestamp(1, start);
+        ps.setTimestamp(2, start);
+        ps.setInt(3, appointmentID);
+        ps.setInt(4, pageSize);
+        return ps;
+    }
 
-    public static void getAppointmentInfo(String sql, PreparedStatement ps) throws SQLException {
-
-        AppointmentList.resetAllAppointments();
-        ContactAppointmentList.resetAllAppointments();
+    /**
+     * Searches the ID, title, type, description and location of every appointment in the database,
+     * for appointments that aren't loaded.
+     *
+     * @param appointmentSearch The text to search for.
+     * @param limit             The maximum number of appointments returned.
+     * @return The matching appointments ordered by start time.
+     * @throws SQLException If a database error occurs during the search.
+     */
+    public static List<Appointment> searchAppointments(String appointmentSearch, int limit) throws SQLException {
 
-        ResultSet rs = ps.executeQuery();
-        while(rs.next()) {
-            int id = rs.getInt("Appointment_ID");
-            String title = rs.getString("Title");
-            String description = rs.getString("Description");
-            String location = rs.getString("Location");
-            String type = rs.getString("Type");
-            Timestamp startTimeStamp = rs.getTimestamp("Start");
-            Timestamp endTimeStamp = rs.getTimestamp("End");
-            int customerID = rs.getInt("Customer_ID");
-            int userID = rs.getInt("User_ID");
-            int contactID = rs.getInt("Contact_ID");
-            String contact = getContact(contactID);
+        //Query to select the appointments containing the text or having it as their ID.
+        String sql = appointmentSelect + " WHERE a.Appointment_ID = ? OR a.Title LIKE ? OR a.Type LIKE ? OR a.Description LIKE ? OR a.Location LIKE ?"
+                + " ORDER BY a.Start, a.Appointment_ID LIMIT ?";
 
-            String visibleStart = startTimeStamp.toLocalDateTime().format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.SHORT));
-            String visibleEnd = endTimeStamp.toLocalDateTime().format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.SHORT));
+        //Escapes the wildcard characters so they are matched literally.
+        String pattern = "%" + appointmentSearch.trim().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
 
-            AppointmentInHouse newAppointment = new AppointmentInHouse(id, title, description, location, contact, type, startTimeStamp, endTimeStamp, customerID, userID, visibleStart, visibleEnd);
+        int appointmentID;
+        try {
+            appointmentID = Integer.parseInt(appointmentSearch.trim());
+        } catch (NumberFormatException e) {
+            appointmentID = -1;
+        }
 
-            ObservableList<User> user = UsersList.getLoggedInUser();
-            String userType = user.get(0).getUser_Type();
-            Contact loggedInContact = ContactList.lookupContact(user.get(0).getUser_ID());
+        try (Connection connection = JDBC.getConnection()) {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setInt(1, appointmentID);
+            for (int i = 2; i <= 5; i++) {
+                ps.setString(i, pattern);
+            }
+            ps.setInt(6, limit);
 
-            if(Objects.equals(userType, "admin")) {
+            return readAppointments(ps.executeQuery());
+        }
+    }
 
-                AppointmentList.addAppointment(newAppointment);
+    /**
+     * Retrieves the appointments in the current month and populates the `AppointmentList` or, for contacts, the `ContactAppointmentList` with the results.
+     *
+     * @throws SQLException If a database error occurs during the retrieval.
+     */
+    public static void getAppointmentsByMonth() throws SQLException {
+        showAppointments(findAppointmentsByMonth());
+    }
 
-            } else if (Objects.equals(userType, "contact")) {
-                assert loggedInContact != null;
-                if(contactID == loggedInContact.getId()) {
-                    ContactAppointmentList.addAppointment(newAppointment);
-                }
+    /**
+     * Retrieves the appointments in the current month that the logged-in user can see, without touching the lists shown on screen.
+     *
+     * @return The appointments ordered by start time.
+     * @throws SQLException If a database error occurs during the retrieval.
+     */
+    public static List<Appointment> findAppointmentsByMonth() throws SQLException {
 
-            }
+        //The current month in the user's time zone, from the first day up to the first day of next month.
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate firstDay = LocalDate.now(zone).withDayOfMonth(1);
 
-        }
+        return findForLoggedInUser(firstDay.atStartOfDay(zone).toInstant(), firstDay.plusMonths(1).atStartOfDay(zone).toInstant());
     }
 
     /**
-     * Retrieves all appointments from the database ordered by current week and populates the `AppointmentList` with the results.
+     * Retrieves the appointments in the current week and populates the `AppointmentList` or, for contacts, the `ContactAppointmentList` with the results.
+     * Weeks start on the first day of the week of the user's locale.
      *
      * @throws SQLException If a database error occurs during the retrieval.
      */
     public static void getAppointmentsByWeek() throws SQLException{
-        //Query to select appointment by week.
-        String sql = "SELECT * FROM appointments WHERE YEAR(Start) = YEAR(CURDATE()) AND WEEK(Start) = WEEK(CURDATE())";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
+        showAppointments(findAppointmentsByWeek());
+    }
+
+    /**
+     * Retrieves the appointments in the current week that the logged-in user can see, without touching the lists shown on screen.
+     * Weeks start on the first day of the week of the user's locale.
+     *
+     * @return The appointments ordered by start time.
+     * @throws SQLException If a database error occurs during the retrieval.
+     */
+    public static List<Appointment> findAppointmentsByWeek() throws SQLException{
+
+        //The current week in the user's time zone, from the first day of the week up to the same day next week.
+        ZoneId zone = ZoneId.systemDefault();
+        DayOfWeek firstDayOfWeek = WeekFields.of(Locale.getDefault()).getFirstDayOfWeek();
+        LocalDate firstDay = LocalDate.now(zone).with(TemporalAdjusters.previousOrSame(firstDayOfWeek));
 
-        getAppointmentInfo(sql, ps);
+        return findForLoggedInUser(firstDay.atStartOfDay(zone).toInstant(), firstDay.plusWeeks(1).atStartOfDay(zone).toInstant());
     }
 
-    public static void getAppointmentsByContact(int Contact_ID) throws SQLException{
-        ContactAppointmentList.resetAllAppointments();
-        //Query to look up contacts appointments
-        String sql = "SELECT * FROM appointments WHERE CONTACT_ID = ?";
+    /**
+     * Retrieves the appointments in a range that the logged-in user can see.
+     * Admins see every appointment, contacts only see their own.
+     *
+     * @param from The start of the range, inclusive.
+     * @param to   The end of the range, exclusive.
+     * @return The appointments ordered by start time.
+     * @throws SQLException If a database error occurs during the retrieval.
+     */
+    private static List<Appointment> findForLoggedInUser(Instant from, Instant to) throws SQLException {
 
-        //Loads query into a prepared statement for execution.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
+        //The session already knows the logged in user's contact.
+        UserSession session = UserSession.getCurrent();
 
-        //Adds contact ID to prepared statement.
-        ps.setInt(1,Contact_ID);
+        if(session.isContact()) {
+            return findByRange(from, to, session.getContactID());
+        }
+        return findByRange(from, to);
+    }
 
-        //Result set to hold appointments
-        ResultSet rs = ps.executeQuery();
+    /**
+     * Replaces the appointments shown to the logged-in user, in the `AppointmentList` for admins or the `ContactAppointmentList` for contacts.
+     * Must be called on the JavaFX thread.
+     *
+     * @param appointments The appointments to show.
+     */
+    public static void showAppointments(List<Appointment> appointments) {
 
-        //Iterate through result set
-        while(rs.next()){
+        AppointmentList.resetAllAppointments();
+        ContactAppointmentList.resetAllAppointments();
 
-            //Variables used to hold appointment information
-            int appointmentID = rs.getInt("Appointment_ID");
-            String title = rs.getString("Title");
-            String description = rs.getString("Description");
-            String location = rs.getString("Location");
-            String type = rs.getString("Type");
-            Timestamp startTimeStamp = rs.getTimestamp("Start");
-            Timestamp endTimeStamp = rs.getTimestamp("End");
-            int customerID = rs.getInt("Customer_ID");
-            int userID = rs.getInt("User_ID");
-            int contactID = rs.getInt("Contact_ID");
+        UserSession session = UserSession.getCurrent();
+        if(session.isAdmin()) {
+            AppointmentList.addAppointments(appointments);
+        } else if (session.isContact()) {
+            ContactAppointmentList.addAppointments(appointments);
+        }
+    }
 
-            //Formats the start and end date using the users localized date and time.
-            String visibleStart = startTimeStamp.toLocalDateTime().format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM));
-            String visibleEnd = endTimeStamp.toLocalDateTime().format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM));
+    /**
+     * Retrieves the appointments starting within a time range.
+     * Both bounds are compared against the start column directly so the query is answered by a range scan of the start index.
+     *
+     * @param from The start of the range, inclusive.
+     * @param to   The end of the range, exclusive.
+     * @return The appointments ordered by start time.
+     * @throws SQLException If a database error occurs during the retrieval.
+     */
+    public static List<Appointment> findByRange(Instant from, Instant to) throws SQLException {
 
-            //Looks up contact by contact ID.
-            String contact = getContact(contactID);
+        //Query to select the appointments starting within the range.
+        String sql = appointmentSelect + " WHERE a.Start >= ? AND a.Start < ? ORDER BY a.Start";
 
-            //Creates a new appointment object to be placed into the Observable arraylist
-            AppointmentInHouse newAppointment = new AppointmentInHouse(appointmentID, title, description, location, contact, type, startTimeStamp, endTimeStamp, customerID, userID, visibleStart, visibleEnd);
+        try (Connection connection = JDBC.getConnection()) {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setTimestamp(1, Timestamp.from(from));
+            ps.setTimestamp(2, Timestamp.from(to));
 
-            //Adds the appointment from th database to a local Observable arraylist.
-            ContactAppointmentList.addAppointment(newAppointment);
+            return readAppointments(ps.executeQuery());
         }
     }
 
     /**
-     * Checks for overlapping appointments based on the start time of a new appointment.
+     * Retrieves the appointments of a contact starting within a time range.
+     * Answered by a range scan of the contact and start index.
      *
-     * @param startTimeStamp The start time of the new appointment.
-     * @return `true` if an overlap is found, `false` if not.
-     * @throws SQLException If a database error occurs during the check.
+     * @param from      The start of the range, inclusive.
+     * @param to        The end of the range, exclusive.
+     * @param contactID The contact whose appointments are retrieved.
+     * @return The appointments ordered by start time.
+     * @throws SQLException If a database error occurs during the retrieval.
      */
-    public static boolean checkForOverlaps(Timestamp startTimeStamp) throws SQLException{
+    public static List<Appointment> findByRange(Instant from, Instant to, int contactID) throws SQLException {
 
-        //Creates a new alert object.
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        //Query to select the contact's appointments starting within the range.
+        String sql = appointmentSelect + " WHERE a.Contact_ID = ? AND a.Start >= ? AND a.Start < ? ORDER BY a.Start";
 
-        //Selects all appointments from the database
-        String sql = "Select * FROM appointments";
+        try (Connection connection = JDBC.getConnection()) {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setInt(1, contactID);
+            ps.setTimestamp(2, Timestamp.from(from));
+            ps.setTimestamp(3, Timestamp.from(to));
 
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        //Result set containing appointments from the database.
-        ResultSet rs = ps.executeQuery();
+            return readAppointments(ps.executeQuery());
+        }
+    }
 
-        //Converts the local date time received to a local date.
-        LocalDate localStartDate = startTimeStamp.toLocalDateTime().toLocalDate();
+    private static List<Appointment> readAppointments(ResultSet rs) throws SQLException {
+        List<Appointment> appointments = new ArrayList<>();
+        while(rs.next()) {
+            appointments.add(readAppointment(rs));
+        }
+        return appointments;
+    }
 
-        //Iterates through the result set.
-        while(rs.next()){
+    public static void getAppointmentsByContact(int Contact_ID) throws SQLException{
+        ContactAppointmentList.resetAllAppointments();
 
-            //Variables used to hold information from the result set.
-            LocalDate appointmentStartDate = rs.getDate("Start").toLocalDate();
-            Timestamp appointmentStartTime = rs.getTimestamp("Start");
-            Timestamp appointmentEndTime = rs.getTimestamp("End");
+        //Adds the appointments from the database to the local Observable arraylist in one change.
+        ContactAppointmentList.addAppointments(findAppointmentsByContact(Contact_ID));
+    }
 
-            //Loads appointment of the same day to be checked.
-            if(localStartDate.equals(appointmentStartDate)){
+    /**
+     * Retrieves the appointments of a contact without touching the lists shown on screen,
+     * so it can run on a background thread.
+     *
+     * @param contactID The contact whose appointments are retrieved.
+     * @return The contact's appointments.
+     * @throws SQLException If a database error occurs during the retrieval.
+     */
+    public static List<Appointment> findAppointmentsByContact(int contactID) throws SQLException {
 
-                //Checks to see if new appointment starts during another appointment.
-                if(startTimeStamp.after(appointmentStartTime) && startTimeStamp.before(appointmentEndTime)){
+        //Query to look up contacts appointments
+        String sql = appointmentSelect + " WHERE a.Contact_ID = ?";
 
-                    //Displays a message to the user using the alert object.
-                    alert.setTitle("Error creating appointment");
-                    alert.setContentText("Your appointment overlaps " + rs.getString("Title") + " appointment" +
-                            "\n" + "Appointment Start Time: " + appointmentStartTime.toLocalDateTime().format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM)) +
-                            "\n" + "Appointment End Time: " + appointmentEndTime.toLocalDateTime().format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM)));
-                    alert.show();
-                    return true;
+        try (Connection connection = JDBC.getConnection()) {
+            //Loads query into a prepared statement for execution.
+            PreparedStatement ps = connection.prepareStatement(sql);
 
-                //Checks to see if the appointment start time is the same as another.
-                } else if (startTimeStamp.equals(appointmentStartTime)) {
+            //Adds contact ID to prepared statement.
+            ps.setInt(1, contactID);
 
-                    //Displays a message to the user using the alert object.
-                    alert.setTitle("Error creating appointment");
-                    alert.setContentText("Your appointment starts at the same time as " + rs.getString("Title") + " appointment" +
-                            "\n" + "Appointment Start Time: " + appointmentStartTime.toLocalDateTime().format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM)) +
-                            "\n" + "Appointment End Time: " + appointmentEndTime.toLocalDateTime().format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM)));
-                    alert.show();
-                    return true;
-                }
-            }
+            //Result set to hold appointments
+            return readAppointments(ps.executeQuery());
         }
-        return false;
     }
 
     /**
-     * Checks if an appointment with the specified start time exists, excluding the provided appointment ID.
+     * Builds an appointment from the current row of a result set produced by the joined appointment query.
+     *
+     * @param rs The result set positioned on an appointment row.
+     * @return The appointment in the current row.
+     * @throws SQLException If a column can't be read.
+     */
+    static AppointmentInHouse readAppointment(ResultSet rs) throws SQLException {
+
+        //Variables used to hold appointment information from the result set.
+        int appointmentID = rs.getInt("Appointment_ID");
+        String title = rs.getString("Title");
+        String description = rs.getString("Description");
+        String location = rs.getString("Location");
+        String type = rs.getString("Type");
+        Timestamp startTimeStamp = rs.getTimestamp("Start");
+        Timestamp endTimeStamp = rs.getTimestamp("End");
+        int customerID = rs.getInt("Customer_ID");
+        int userID = rs.getInt("User_ID");
+        String contact = rs.getString("Contact_Name");
+        int contactID = rs.getInt("Contact_ID");
+
+        //Creates a new appointment object to be placed into the Observable arraylist
+        return new AppointmentInHouse(appointmentID, title, description, location, contact, contactID, type, startTimeStamp, endTimeStamp, customerID, userID);
+    }
+
+    /**
+     * Checks whether an appointment would overlap another appointment of the same contact or customer,
+     * and tells the user which appointment it conflicts with.
+     * Loaded appointments are checked in memory first, the database is only queried when none of them conflict.
      *
-     * @param appointmentID   The ID of the appointment to exclude from the check.
      * @param startTimeStamp The start time of the appointment.
-     * @return `true` if an appointment with the same start time exists, `false` if not.
+     * @param endTimeStamp   The end time of the appointment.
+     * @param contactID      The contact of the appointment.
+     * @param customerID     The customer of the appointment.
+     * @param appointmentID  The ID of the appointment being saved, which is excluded from the check.
+     * @return `true` if an overlap is found, `false` if not.
      * @throws SQLException If a database error occurs during the check.
      */
-    public static boolean checkAppointmentStartTime(int appointmentID, Timestamp startTimeStamp) throws SQLException {
+    public static boolean checkForOverlaps(Timestamp startTimeStamp, Timestamp endTimeStamp, int contactID, int customerID, int appointmentID) throws SQLException{
+
+        //Looks for conflicts among the appointments already in memory.
+        List<Appointment> overlaps = AppointmentList.findOverlaps(startTimeStamp, endTimeStamp, contactID, customerID, appointmentID);
+
+        //Falls back to the database for appointments that aren't loaded.
+        if(overlaps.isEmpty()){
+            overlaps = findOverlaps(startTimeStamp, endTimeStamp, contactID, customerID, appointmentID);
+        }
+        return showOverlaps(overlaps);
+    }
+
+    /**
+     * Checks whether an appointment would overlap another appointment of the same contact or customer, like
+     * checkForOverlaps, but queries the database in the background. Must be called on the JavaFX thread.
+     *
+     * @param owner          A node on the screen the appointment is saved from.
+     * @param startTimeStamp The start time of the appointment.
+     * @param endTimeStamp   The end time of the appointment.
+     * @param contactID      The contact of the appointment.
+     * @param customerID     The customer of the appointment.
+     * @param appointmentID  The ID of the appointment being saved, which is excluded from the check.
+     * @param onNoOverlap    Runs on the JavaFX thread if no appointment overlaps.
+     */
+    public static void checkForOverlaps(Node owner, Timestamp startTimeStamp, Timestamp endTimeStamp, int contactID, int customerID, int appointmentID, Runnable onNoOverlap){
+
+        //Looks for conflicts among the appointments already in memory.
+        if(showOverlaps(AppointmentList.findOverlaps(startTimeStamp, endTimeStamp, contactID, customerID, appointmentID))){
+            return;
+        }
 
-        //Gets appointment by appointment ID
-        String sql = "Select * FROM appointments WHERE Appointment_ID = ? ";
+        //Falls back to the database for appointments that aren't loaded.
+        AsyncQuery.submit(owner, () -> findOverlaps(startTimeStamp, endTimeStamp, contactID, customerID, appointmentID), overlaps -> {
+            if(!showOverlaps(overlaps)){
+                onNoOverlap.run();
+            }
+        });
+    }
 
-        //Loads query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
+    /**
+     * Tells the user which appointments an appointment conflicts with.
+     *
+     * @param overlaps The conflicting appointments.
+     * @return `true` if there were any, `false` if not.
+     */
+    private static boolean showOverlaps(List<Appointment> overlaps){
+        if(overlaps.isEmpty()){
+            return false;
+        }
 
-        //Sets the appointment ID for the query.
-        ps.setInt(1, appointmentID);
+        //Lists every conflicting appointment for the user.
+        StringBuilder conflicts = new StringBuilder("Your appointment overlaps:");
+        for(Appointment appointment : overlaps){
+            conflicts.append("\n").append(appointment.getTitle()).append(" appointment")
+                    .append("\n").append("Appointment Start Time: ").append(AppointmentTimeFormat.format(appointment.getStartMillis(), FormatStyle.MEDIUM))
+                    .append("\n").append("Appointment End Time: ").append(AppointmentTimeFormat.format(appointment.getEndMillis(), FormatStyle.MEDIUM));
+        }
 
-        //Result set containing appointments by ID.
-        ResultSet rs = ps.executeQuery();
+        //Displays a message to the user using the alert object.
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Error creating appointment");
+        alert.setContentText(conflicts.toString());
+        alert.show();
+        return true;
+    }
 
-        //Iterates through the result set.
-        while(rs.next())
-        {
-            //Checks to see if start time are equal.
-            if(rs.getTimestamp("Start").equals(startTimeStamp)){
-                return true;
+    /**
+     * Retrieves the appointments of a contact or customer that overlap a time range.
+     * Only appointments starting before the range ends and ending after it starts are read.
+     *
+     * @param startTimeStamp The start of the range.
+     * @param endTimeStamp   The end of the range.
+     * @param contactID      The contact whose appointments are checked.
+     * @param customerID     The customer whose appointments are checked.
+     * @param appointmentID  The ID of an appointment to leave out of the results.
+     * @return The overlapping appointments ordered by start time.
+     * @throws SQLException If a database error occurs during the retrieval.
+     */
+    public static List<Appointment> findOverlaps(Timestamp startTimeStamp, Timestamp endTimeStamp, int contactID, int customerID, int appointmentID) throws SQLException{
+
+        //Selects appointments whose interval intersects the new one.
+        String sql = appointmentSelect + " WHERE a.Start < ? AND a.End > ? AND (a.Contact_ID = ? OR a.Customer_ID = ?) AND a.Appointment_ID <> ? ORDER BY a.Start";
+
+        List<Appointment> overlaps = new ArrayList<>();
+        try (Connection connection = JDBC.getConnection()) {
+            //Loads the query into a prepared statement.
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setTimestamp(1, endTimeStamp);
+            ps.setTimestamp(2, startTimeStamp);
+            ps.setInt(3, contactID);
+            ps.setInt(4, customerID);
+            ps.setInt(5, appointmentID);
+
+            //Result set containing the overlapping appointments.
+            ResultSet rs = ps.executeQuery();
+            while(rs.next()){
+                overlaps.add(readAppointment(rs));
             }
         }
-        return false;
+        return overlaps;
     }
 
     /**
@@ -304,26 +494,28 @@ public class AppointmentQuery {
         //Get contacts by contact ID
         String sql = "SELECT * FROM contacts WHERE Contact_ID = ?";
 
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
+        try (Connection connection = JDBC.getConnection()) {
+            //Loads the query into a prepared statement.
+            PreparedStatement ps = connection.prepareStatement(sql);
 
-        //Sets the contact ID for the query.
-        ps.setInt(1, contactID);
+            //Sets the contact ID for the query.
+            ps.setInt(1, contactID);
 
-        //Result set containing contacts by contact ID
-        ResultSet rs = ps.executeQuery();
+            //Result set containing contacts by contact ID
+            ResultSet rs = ps.executeQuery();
 
-        String contactName = null;
+            String contactName = null;
 
-        //Iterates through the result set.
-        while(rs.next()){
+            //Iterates through the result set.
+            while(rs.next()){
 
-            //Gets the contact name from the result set.
-            contactName = rs.getString("Contact_Name");
-        }
+                //Gets the contact name from the result set.
+                contactName = rs.getString("Contact_Name");
+            }
 
-        //Returns the contact name.
-        return contactName;
+            //Returns the contact name.
+            return contactName;
+        }
     }
 
     /**
@@ -337,26 +529,28 @@ public class AppointmentQuery {
         //Gets contacts by Name
         String sql = "SELECT * FROM contacts where Contact_Name = ?";
 
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
+        try (Connection connection = JDBC.getConnection()) {
+            //Loads the query into a prepared statement.
+            PreparedStatement ps = connection.prepareStatement(sql);
 
-        //Sets the contact name for the prepared statement.
-        ps.setString(1, contactName);
+            //Sets the contact name for the prepared statement.
+            ps.setString(1, contactName);
 
-        //Result set containing contacts by name.
-        ResultSet rs = ps.executeQuery();
+            //Result set containing contacts by name.
+            ResultSet rs = ps.executeQuery();
 
-        int contactID = 0;
+            int contactID = 0;
 
-        //iterates through the result set.
-        while(rs.next()){
+            //iterates through the result set.
+            while(rs.next()){
 
-            //Gets the contact ID from the result set.
-            contactID = rs.getInt("Contact_ID");
-        }
+                //Gets the contact ID from the result set.
+                contactID = rs.getInt("Contact_ID");
+            }
 
-        //returns the contact ID
-        return contactID;
+            //returns the contact ID
+            return contactID;
+        }
     }
 
     /**
@@ -373,257 +567,28 @@ public class AppointmentQuery {
         //Queries the database for contacts.
         String sql = "SELECT * FROM contacts";
 
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        //Result set containing contacts.
-        ResultSet rs = ps.executeQuery();
-
-        String contact;
-
-        //Iterates through the result set.
-        while(rs.next()){
-
-            //CGets the contact name form the result set.
-            contact = rs.getString("Contact_Name");
-
-            //Adds the contact to the observable list.
-            contacts.add(contact);
-        }
-
-        //Returns the observable list of contacts.
-        return contacts;
-    }
-
-    /**
-     * Retrieves and returns appointment alerts for the current date and time within a 15-minute window.
-     *
-     * This method queries the database for appointments that match the specified date and time criteria,
-     * and it returns the appointment ID for any appointment that starts within the next 15 minutes from
-     * the current time and on the current date.
-     *
-     * The use of lambda expressions for date and time checking criteria optimizes the code by making it
-     * more modular and flexible. It allows for different date and time checking conditions to be defined
-     * and passed into the method, enhancing code readability and maintainability. You can easily customize
-     * the criteria for checking appointments without modifying the core method, making it adaptable to
-     * various use cases.
-     *
-     * @return The appointment ID for the next appointment within a 15-minute window on the current date.
-     *         If no such appointment is found, it returns 0.
-     * @throws SQLException If there is an issue with the database connection or SQL query execution.
-     */
-    public static int getAlerts() throws SQLException {
-        // Get the current date and time.
-        LocalDate currentDate = LocalDate.now();
-        LocalTime currentTime = LocalTime.now();
-
-        // Calculate the start and end times for the 15-minute window.
-        LocalTime endTime = currentTime.plusMinutes(15);
-
-        // Define date and time checkers using lambda expressions.
-        DateAndTimeInterface<LocalDate> dateChecker = date -> date.isEqual(currentDate);
-        DateAndTimeInterface<LocalTime> timeChecker = time -> time.isAfter(currentTime) && time.isBefore(endTime);
-        DateAndTimeInterface<LocalTime> sameTimeChecker = time -> time.equals(currentTime) && time.isBefore(endTime);
-
-        // Queries the database for appointments based on date and time checkers.
-        String sql = "SELECT * FROM appointments";
-
-        // Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        // Result set containing appointments.
-        ResultSet rs = ps.executeQuery();
-        int appointmentID = 0;
+        try (Connection connection = JDBC.getConnection()) {
+            //Loads the query into a prepared statement.
+            PreparedStatement ps = connection.prepareStatement(sql);
 
-        // Iterate through the result set.
-        while (rs.next()) {
+            //Result set containing contacts.
+            ResultSet rs = ps.executeQuery();
 
-            Timestamp appointmentStartTimeStamp = rs.getTimestamp("Start");
-            Timestamp appointmentEndTimeStamp = rs.getTimestamp("End");
-            ZoneId databaseTimeZone = ZoneId.of("UTC"); // Replace "UTC" with the actual timezone of your database
-            LocalDateTime appointmentLocalDateStartTime = appointmentStartTimeStamp.toLocalDateTime();
-            LocalDateTime appointmentLocalDateStartTimeInSystemZone = appointmentLocalDateStartTime.atZone(databaseTimeZone).toLocalDateTime();
+            String contact;
 
-            LocalDateTime appointmentLocalDateEndTime = appointmentEndTimeStamp.toLocalDateTime();
-            LocalDateTime appointmentLocalDateEndTimeInSystemZone = appointmentLocalDateEndTime.atZone(databaseTimeZone).toLocalDateTime();
+            //Iterates through the result set.
+            while(rs.next()){
 
+                //CGets the contact name form the result set.
+                contact = rs.getString("Contact_Name");
 
-            LocalTime appointmentStartTime = appointmentLocalDateStartTimeInSystemZone.toLocalTime();
-            LocalTime appointmentEndTime = appointmentLocalDateEndTimeInSystemZone.toLocalTime();
-
-            // Get the local date and time from the result set.
-            LocalDate appointmentStartDate = appointmentStartTimeStamp.toLocalDateTime().toLocalDate();
-
-
-            // Check appointments based on date and time checkers.
-            if(dateChecker.check(appointmentStartDate)){
-                if(timeChecker.check(appointmentStartTime)){
-                    appointmentID = rs.getInt("Appointment_ID");
-                } else if (appointmentStartTime.isBefore(currentTime) && appointmentEndTime.isAfter(currentTime)) {
-                    appointmentID = rs.getInt("Appointment_ID");
-                } else if (sameTimeChecker.check(appointmentStartTime)) {
-                    appointmentID = rs.getInt("Appointment_ID");
-                }
+                //Adds the contact to the observable list.
+                contacts.add(contact);
             }
-        }
-
-        // Returns the appointment ID.
-        return appointmentID;
-    }
-
-
-
-    /**
-     * Inserts a new appointment into the database.
-     *
-     * @param title      The title of the appointment.
-     * @param description The description of the appointment.
-     * @param location   The location of the appointment.
-     * @param type       The type of the appointment.
-     * @param start      The start time of the appointment.
-     * @param end        The end time of the appointment.
-     * @param customerID The ID of the customer associated with the appointment.
-     * @param userID     The ID of the user creating the appointment.
-     * @param contactID  The ID of the contact associated with the appointment.
-     * @throws SQLException If a database error occurs during the insertion.
-     */
-    public static void insertAppointment(String title, String description, String location, String type, Timestamp start, Timestamp end, int customerID, int userID, int contactID) throws SQLException {
-
-        //Insert query to add a new appointment to the database.
-        String sql = "INSERT INTO appointments (Title, Description, Location, Type, Start, End, Customer_ID, User_ID, Contact_ID) VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        //Sets the variables used in the prepared statement.
-        ps.setString(1, title);
-        ps.setString(2, description);
-        ps.setString(3, location);
-        ps.setString(4, type);
-        ps.setTimestamp(5, start);
-        ps.setTimestamp(6, end);
-        ps.setInt(7, customerID);
-        ps.setInt(8, userID);
-        ps.setInt(9, contactID);
-
-        //Executes the prepared statement.
-        ps.executeUpdate();
-    }
-
-    /**
-     * Retrieves the ID of an appointment with the specified title.
-     *
-     * @param placeholder1 The title of the appointment.
-     * @return The ID of the appointment or 0 if none are found.
-     * @throws SQLException If a database error occurs during the retrieval.
-     */
-    public static int getPlaceholderAppointment(String placeholder1) throws SQLException {
 
-        //Queries the database for appointments by Title.
-        String sql = "SELECT * FROM appointments WHERE Title = ?";
-
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        //Sets the variable for the prepared statement.
-        ps.setString(1, placeholder1);
-
-        //Result set containing appointments by title.
-        ResultSet rs = ps.executeQuery();
-        int appointmentID = 0;
-
-        //Iterates through the result set.
-        while(rs.next()){
-
-            //Get the appointment ID from the result set.
-            appointmentID = rs.getInt("Appointment_ID");
+            //Returns the observable list of contacts.
+            return contacts;
         }
-
-        //returns the appointment ID
-        return appointmentID;
-    }
-
-    /**
-     * Deletes appointments with the specified title.
-     *
-     * @param placeholder1 The title of the appointment to delete.
-     * @throws SQLException If a database error occurs during the deletion.
-     */
-    public static void deletePlaceHolderAppointments(String placeholder1) throws SQLException {
-
-        //Query used to delete appointments by title.
-        String sql = "DELETE FROM appointments WHERE Title = ?";
-
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        //Sets the title for the prepared statement.
-        ps.setString(1, placeholder1);
-
-        //Executes the prepared statement.
-        ps.executeUpdate();
-    }
-
-    /**
-     * Updates an appointment with the specified ID.
-     *
-     * @param appointmentID The ID of the appointment to update.
-     * @param title         The title of the appointment.
-     * @param description   The description of the appointment.
-     * @param location      The location of the appointment.
-     * @param type          The type of the appointment.
-     * @param start         The start time of the appointment.
-     * @param end           The end time of the appointment.
-     * @param customerID    The ID of the customer associated with the appointment.
-     * @param userID        The ID of the user creating the appointment.
-     * @param contactID     The ID of the contact associated with the appointment.
-     * @return The number of rows affected by the update.
-     * @throws SQLException If a database error occurs during the update.
-     */
-    public static int updateAppointment(int appointmentID, String title, String description, String location, String type, Timestamp start, Timestamp end, int customerID, int userID, int contactID) throws SQLException {
-
-        //Query used to update appointments by appointment ID.
-        String sql = "UPDATE appointments SET Title = ?, Description = ?, Location = ?, Type = ?, Start = ?, End = ?, Customer_ID = ?, User_ID = ?, Contact_ID = ? where Appointment_ID = ?";
-
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        //Variables passed into the prepared statement for update.
-        ps.setString(1, title);
-        ps.setString(2, description);
-        ps.setString(3, location);
-        ps.setString(4, type);
-        ps.setTimestamp(5, start);
-        ps.setTimestamp(6, end);
-        ps.setInt(7, customerID);
-        ps.setInt(8, userID);
-        ps.setInt(9, contactID);
-        ps.setInt(10, appointmentID);
-
-        //Executes the prepared statement.
-        return ps.executeUpdate();
-    }
-
-    /**
-     * Deletes an appointment with the specified ID.
-     *
-     * @param aId The ID of the appointment to delete.
-     * @return The number of rows affected by the deletion.
-     * @throws SQLException If a database error occurs during the deletion.
-     */
-    public static int deleteAppointment(int aId) throws SQLException{
-
-        //Query used to delete the appointment by appointment ID.
-        String sql = "DELETE FROM appointments WHERE Appointment_ID = ?";
-
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        //Sets the appointment ID for the prepared statement.
-        ps.setInt(1, aId);
-
-        //Executes the prepared statement.
-        return ps.executeUpdate();
     }
 }
 
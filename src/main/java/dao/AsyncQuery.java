@@ -0,0 +1,142 @@
+package dao;
+
+import LambdaInterfaces.QueryInterface;
+import javafx.beans.value.ChangeListener;
+import javafx.concurrent.Task;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableView;
+import javafx.stage.Window;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs database queries off the JavaFX application thread.
+ * Queries run as tasks on a small pool of daemon threads and their results are handed back on the JavaFX thread,
+ * so screens stay responsive while the database is working. Lists shown on screen must only be changed in the
+ * result callback, never inside the query itself.
+ * A query started for a screen is cancelled when the user navigates away from it, and its result is then ignored.
+ */
+public abstract class AsyncQuery {
+
+    //Kept below the connection pool size so background queries never starve each other of connections.
+    private static final int threadCount = 4;
+    private static final AtomicInteger threadNumber = new AtomicInteger();
+
+    private static final ExecutorService executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+        Thread thread = new Thread(runnable, "database-query-" + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Runs a query in the background.
+     *
+     * @param query    The query to run.
+     * @param onLoaded Receives the result on the JavaFX thread.
+     * @param <T>      The type of the result.
+     * @return The running task, which can be cancelled.
+     */
+    public static <T> Task<T> submit(QueryInterface<T> query, Consumer<T> onLoaded) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return query.run();
+            }
+        };
+        task.setOnSucceeded(event -> onLoaded.accept(task.getValue()));
+        task.setOnFailed(event -> showError(task.getException()));
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Runs a query for a screen in the background, cancelling it if the screen is closed or replaced before it finishes.
+     *
+     * @param owner    A node on the screen the result is shown on.
+     * @param query    The query to run.
+     * @param onLoaded Receives the result on the JavaFX thread.
+     * @param <T>      The type of the result.
+     * @return The running task, which can be cancelled.
+     */
+    public static <T> Task<T> submit(Node owner, QueryInterface<T> query, Consumer<T> onLoaded) {
+        Task<T> task = submit(query, onLoaded);
+        cancelOnLeave(owner, task);
+        return task;
+    }
+
+    /**
+     * Runs a query that fills a table in the background, showing a progress indicator in the table until it finishes.
+     *
+     * @param table    The table the result is shown in.
+     * @param query    The query to run.
+     * @param onLoaded Receives the result on the JavaFX thread.
+     * @param <T>      The type of the result.
+     * @return The running task, which can be cancelled.
+     */
+    public static <T> Task<T> load(TableView<?> table, QueryInterface<T> query, Consumer<T> onLoaded) {
+        ProgressIndicator loading = new ProgressIndicator();
+        loading.setMaxSize(50, 50);
+        table.setPlaceholder(loading);
+
+        Task<T> task = submit(table, query, onLoaded);
+
+        //Puts back the default placeholder unless another load has replaced the indicator in the meantime.
+        task.runningProperty().addListener((observable, wasRunning, isRunning) -> {
+            if (!isRunning && table.getPlaceholder() == loading) {
+                table.setPlaceholder(null);
+            }
+        });
+        return task;
+    }
+
+    /**
+     * Cancels a task once the node's scene is taken out of its window, which happens when the user navigates to another screen.
+     * Screens are built before they are shown, so the window is watched from the moment the node is placed in a scene.
+     */
+    private static void cancelOnLeave(Node node, Task<?> task) {
+        ChangeListener<Window> windowListener = (observable, oldWindow, newWindow) -> {
+            if (oldWindow != null && newWindow == null) {
+                task.cancel();
+            }
+        };
+        ChangeListener<Scene> sceneListener = (observable, oldScene, newScene) -> {
+            if (oldScene != null) {
+                oldScene.windowProperty().removeListener(windowListener);
+            }
+            if (newScene != null) {
+                newScene.windowProperty().addListener(windowListener);
+            }
+        };
+        node.sceneProperty().addListener(sceneListener);
+        if (node.getScene() != null) {
+            node.getScene().windowProperty().addListener(windowListener);
+        }
+
+        //Stops watching once the task is done so finished tasks aren't kept alive by the screen.
+        task.runningProperty().addListener((observable, wasRunning, isRunning) -> {
+            if (!isRunning && task.isDone()) {
+                node.sceneProperty().removeListener(sceneListener);
+                if (node.getScene() != null) {
+                    node.getScene().windowProperty().removeListener(windowListener);
+                }
+            }
+        });
+    }
+
+    /**
+     * Tells the user that a background query failed.
+     */
+    static void showError(Throwable e) {
+        System.out.println("Error:" + e.getMessage());
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Database Error");
+        alert.setContentText("The information could not be loaded from the database.\n" + e.getMessage());
+        alert.show();
+    }
+}
@@ -0,0 +1,436 @@
+package dao;
+
+import LambdaInterfaces.ConnectionInterface;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded pool of database connections.
+ * Connections are validated when borrowed, evicted once idle or too old, and handed out as proxies
+ * whose close method returns the connection to the pool instead of closing the socket.
+ * Connections held longer than the leak threshold are reported with the stack trace of the borrower.
+ * Every connection keeps its prepared statements for reuse, and releases the statements and result sets a borrower
+ * opened when it is returned.
+ */
+public class ConnectionPool implements ConnectionInterface {
+
+    //Connections used within this window are not re-validated on borrow.
+    private static final long validationBypassMillis = 500;
+    private static final int validationTimeoutSeconds = 2;
+
+    private final String jdbcUrl;
+    private final String userName;
+    private final String password;
+    private final int maxPoolSize;
+    private final long idleTimeoutMillis;
+    private final long maxLifetimeMillis;
+    private final long leakThresholdMillis;
+    private final long borrowTimeoutMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition connectionReturned = lock.newCondition();
+    private final ArrayDeque<PooledConnection> idleConnections = new ArrayDeque<>();
+    private final Set<PooledConnection> activeConnections = new HashSet<>();
+    private final PoolStats stats = new PoolStats();
+    private final ScheduledExecutorService housekeeper;
+    private int totalConnections;
+    private int waitingCallers;
+    private boolean closed;
+
+    /**
+     * Creates a new connection pool. Connections are opened lazily as they are needed.
+     *
+     * @param jdbcUrl             The JDBC url of the database.
+     * @param userName            The database user name.
+     * @param password            The database password.
+     * @param maxPoolSize         The maximum number of open connections.
+     * @param idleTimeoutMillis   How long a connection may sit unused in the pool before it is closed.
+     * @param maxLifetimeMillis   How long a connection may live before it is retired.
+     * @param leakThresholdMillis How long a connection may be borrowed before it is reported as a leak, 0 to disable.
+     * @param borrowTimeoutMillis How long a caller waits for a free connection before failing.
+     */
+    public ConnectionPool(String jdbcUrl, String userName, String password, int maxPoolSize,
+                          long idleTimeoutMillis, long maxLifetimeMillis, long leakThresholdMillis, long borrowTimeoutMillis) {
+        this.jdbcUrl = jdbcUrl;
+        this.userName = userName;
+        this.password = password;
+        this.maxPoolSize = maxPoolSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxLifetimeMillis = maxLifetimeMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+
+        //Background thread that evicts stale connections and reports leaks.
+        housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, Math.min(idleTimeoutMillis, leakThresholdMillis > 0 ? leakThresholdMillis : idleTimeoutMillis) / 2);
+        housekeeper.scheduleWithFixedDelay(this::houseKeeping, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if the pool is not yet full.
+     * Closing the returned connection hands it back to the pool.
+     *
+     * @return A validated connection.
+     * @throws SQLException If no connection becomes available before the borrow timeout or the database can't be reached.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+
+        while (true) {
+            PooledConnection pooled = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (!closed && idleConnections.isEmpty() && totalConnections >= maxPoolSize) {
+
+                    //Waits for another caller to return a connection.
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        stats.recordTimeout();
+                        throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a database connection. " + stats);
+                    }
+                    waitingCallers++;
+                    updateCounts();
+                    try {
+                        connectionReturned.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    } finally {
+                        waitingCallers--;
+                    }
+                }
+                if (closed) {
+                    throw new SQLException("The connection pool has been closed");
+                }
+
+                //Prefers the most recently used connection since it is the least likely to have gone stale.
+                pooled = idleConnections.pollLast();
+                if (pooled == null) {
+                    totalConnections++;
+                    create = true;
+                }
+                updateCounts();
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                try {
+                    pooled = new PooledConnection(DriverManager.getConnection(jdbcUrl, userName, password), stats);
+                    stats.recordCreated();
+                } catch (SQLException e) {
+                    discard(null);
+                    throw e;
+                }
+            } else if (!isUsable(pooled)) {
+
+                //Drops the dead or retired connection and tries again.
+                discard(pooled);
+                continue;
+            }
+
+            return checkOut(pooled, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Retrieves the statistics for this pool.
+     *
+     * @return The live pool statistics.
+     */
+    public PoolStats getStats() {
+        lock.lock();
+        try {
+            updateCounts();
+        } finally {
+            lock.unlock();
+        }
+        return stats;
+    }
+
+    /**
+     * Closes every idle connection and stops handing out new ones.
+     * Borrowed connections are closed as they are returned.
+     */
+    public void close() {
+        housekeeper.shutdownNow();
+        List<PooledConnection> evicted;
+        lock.lock();
+        try {
+            closed = true;
+            evicted = new ArrayList<>(idleConnections);
+            totalConnections -= evicted.size();
+            idleConnections.clear();
+            updateCounts();
+            connectionReturned.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (PooledConnection pooled : evicted) {
+            closeQuietly(pooled);
+        }
+    }
+
+    /**
+     * Checks whether a pooled connection can be handed out.
+     *
+     * @param pooled The connection taken from the idle queue.
+     * @return True if the connection is within its lifetime and still responds.
+     */
+    private boolean isUsable(PooledConnection pooled) {
+        long now = System.currentTimeMillis();
+        if (now - pooled.createdAt >= maxLifetimeMillis) {
+            return false;
+        }
+        if (now - pooled.lastReturnedAt < validationBypassMillis) {
+            return true;
+        }
+        try {
+            if (pooled.physical.isValid(validationTimeoutSeconds)) {
+                return true;
+            }
+        } catch (SQLException ignored) {
+        }
+        stats.recordValidationFailure();
+        return false;
+    }
+
+    /**
+     * Marks a connection as borrowed and wraps it in a proxy.
+     *
+     * @param pooled    The connection being borrowed.
+     * @param waitNanos The time the caller waited.
+     * @return The proxy handed to the caller.
+     */
+    private Connection checkOut(PooledConnection pooled, long waitNanos) {
+        pooled.borrowedAt = System.currentTimeMillis();
+        pooled.leakReported = false;
+        pooled.borrowTrace = leakThresholdMillis > 0 ? new Exception("Connection borrowed by " + Thread.currentThread().getName()) : null;
+
+        lock.lock();
+        try {
+            activeConnections.add(pooled);
+            updateCounts();
+        } finally {
+            lock.unlock();
+        }
+        stats.recordBorrow(waitNanos);
+
+        return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(pooled));
+    }
+
+    /**
+     * Returns a borrowed connection to the pool.
+     * Statements and result sets left open by the borrower are released, and any open transaction is rolled back
+     * so the next borrower starts in auto-commit mode.
+     *
+     * @param pooled The connection being returned.
+     */
+    private void checkIn(PooledConnection pooled) {
+        pooled.statements.releaseAll();
+
+        boolean healthy = true;
+        try {
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            healthy = false;
+        }
+
+        boolean evicted;
+        lock.lock();
+        try {
+            activeConnections.remove(pooled);
+            evicted = closed || !healthy || System.currentTimeMillis() - pooled.createdAt >= maxLifetimeMillis;
+            if (evicted) {
+                totalConnections--;
+                stats.recordEvicted();
+            } else {
+                pooled.lastReturnedAt = System.currentTimeMillis();
+                idleConnections.addLast(pooled);
+            }
+            updateCounts();
+            connectionReturned.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (evicted) {
+            closeQuietly(pooled);
+        }
+    }
+
+    /**
+     * Closes a connection that can no longer be used and frees its slot in the pool.
+     *
+     * @param pooled The connection to discard, or null if it was never opened.
+     */
+    private void discard(PooledConnection pooled) {
+        if (pooled != null) {
+            closeQuietly(pooled);
+            stats.recordEvicted();
+        }
+        lock.lock();
+        try {
+            totalConnections--;
+            updateCounts();
+            connectionReturned.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Evicts idle and retired connections and reports connections that have been borrowed for too long.
+     * Evicted connections are closed after the lock is released, so a slow close on a dead server doesn't hold up
+     * callers borrowing and returning connections.
+     */
+    private void houseKeeping() {
+        long now = System.currentTimeMillis();
+        List<PooledConnection> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            idleConnections.removeIf(pooled -> {
+                if (now - pooled.lastReturnedAt >= idleTimeoutMillis || now - pooled.createdAt >= maxLifetimeMillis) {
+                    evicted.add(pooled);
+                    totalConnections--;
+                    stats.recordEvicted();
+                    return true;
+                }
+                return false;
+            });
+
+            if (leakThresholdMillis > 0) {
+                for (PooledConnection pooled : activeConnections) {
+                    if (!pooled.leakReported && now - pooled.borrowedAt >= leakThresholdMillis) {
+
+                        //Prints where the connection was borrowed so the missing close can be found.
+                        pooled.leakReported = true;
+                        stats.recordLeak();
+                        System.out.println("Possible connection leak: connection borrowed " + (now - pooled.borrowedAt) + " ms ago has not been returned.");
+                        if (pooled.borrowTrace != null) {
+                            pooled.borrowTrace.printStackTrace(System.out);
+                        }
+                    }
+                }
+            }
+            updateCounts();
+            connectionReturned.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (PooledConnection pooled : evicted) {
+            closeQuietly(pooled);
+        }
+    }
+
+    //Must be called while holding the lock.
+    private void updateCounts() {
+        stats.updateCounts(activeConnections.size(), idleConnections.size(), waitingCallers);
+    }
+
+    private static void closeQuietly(PooledConnection pooled) {
+        pooled.statements.closeAll();
+        try {
+            pooled.physical.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    /**
+     * A physical connection and its bookkeeping.
+     */
+    private static class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statements;
+        private final long createdAt = System.currentTimeMillis();
+        private volatile long lastReturnedAt = createdAt;
+        private volatile long borrowedAt;
+        private volatile boolean leakReported;
+        private volatile Exception borrowTrace;
+
+        PooledConnection(Connection physical, PoolStats stats) {
+            this.physical = physical;
+            this.statements = new StatementCache(physical, stats);
+        }
+    }
+
+    /**
+     * Routes calls on a borrowed connection to the physical connection until it is closed, then returns it to the pool.
+     */
+    private class ConnectionHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        ConnectionHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        checkIn(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled " + pooled.physical;
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            //Statements prepared with only their SQL, or with a generated keys flag, come from the statement cache.
+            if (method.getName().equals("prepareStatement") && (args.length == 1 || args.length == 2 && args[1] instanceof Integer)) {
+                return pooled.statements.prepare((Connection) proxy, (String) args[0], args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS);
+            }
+            Object result;
+            try {
+                result = method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            //Any other statement is closed when the connection is returned.
+            if (result instanceof Statement) {
+                return pooled.statements.track((Connection) proxy, (Statement) result);
+            }
+            return result;
+        }
+    }
+}
@@ -1,45 +1,47 @@
 package dao;
 
+import Objects.ContactObjects.Contact;
 import Objects.ContactObjects.ContactInHouse;
 import Objects.ContactObjects.ContactList;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class ContactQuery {
 
-    public static void insertContact(String contactName, String contactEmail, int userID) throws SQLException{
-
-        //Query used to add a contact to the database.
-        String sql = "INSERT INTO contacts (Contact_Name, Email, User_ID) VALUES(?, ?, ?)";
-
-        //Loads query into a prepared statement for execution.
-        PreparedStatement ps  = JDBC.connection.prepareStatement(sql);
-
-        //Adds user info to prepared statement.
-        ps.setString(1, contactName);
-        ps.setString(2, contactEmail);
-        ps.setInt(3, userID);
-
-        ps.executeUpdate();
+    public static void getContacts() throws SQLException {
+        for (Contact contact : findContacts()) {
+            ContactList.addContact(contact);
+        }
     }
 
-    public static void getContacts() throws SQLException {
+    /**
+     * Retrieves all contacts without touching the contact list, so it can run on a background thread.
+     *
+     * @return All contacts.
+     * @throws SQLException If a database error occurs during the retrieval.
+     */
+    public static List<Contact> findContacts() throws SQLException {
 
         String sql = "SELECT * FROM contacts";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ResultSet rs = ps.executeQuery();
-
-        while(rs.next()){
-            int id = rs.getInt("Contact_ID");
-            String name = rs.getString("Contact_Name");
-            String email = rs.getString("Email");
-            int u_id = rs.getInt("User_ID");
-
-            ContactInHouse newContact = new ContactInHouse(id, name, email, u_id);
-            ContactList.addContact(newContact);
+        List<Contact> contacts = new ArrayList<>();
+        try (Connection connection = JDBC.getConnection()) {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ResultSet rs = ps.executeQuery();
+
+            while(rs.next()){
+                int id = rs.getInt("Contact_ID");
+                String name = rs.getString("Contact_Name");
+                String email = rs.getString("Email");
+                int u_id = rs.getInt("User_ID");
+
+                contacts.add(new ContactInHouse(id, name, email, u_id));
+            }
         }
-
+        return contacts;
     }
 }
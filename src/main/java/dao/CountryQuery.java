@@ -1,88 +1,123 @@
 package dao;
 
+import Objects.CountryObjects.Geography;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A data access object for managing country and division information in the database.
- * Contains queries for retrieving countries and divisions.
+ * Countries and divisions rarely change, so they are loaded together in one query and every lookup is answered
+ * from an in-memory snapshot. The snapshot is loaded on first use, or at startup, and replaced by refresh.
  */
 public abstract class CountryQuery {
 
+    private static final AtomicReference<Geography> geography = new AtomicReference<>();
+    private static final AtomicLong versions = new AtomicLong();
+
     /**
-     * Retrieves a list of countries from the database.
+     * Retrieves the countries and divisions, loading them from the database the first time.
      *
-     * @return An observable list of country names.
+     * @return The current snapshot.
      * @throws SQLException If a database error occurs during the retrieval.
      */
-    public static ObservableList<String> getCountries() throws SQLException {
+    public static Geography getGeography() throws SQLException {
+        Geography current = geography.get();
+        if (current == null) {
+            //Two threads may load at once on first use, the first snapshot stored wins.
+            Geography loaded = loadGeography();
+            return geography.compareAndSet(null, loaded) ? loaded : geography.get();
+        }
+        return current;
+    }
+
+    /**
+     * Reloads the countries and divisions from the database and replaces the snapshot.
+     * Lookups already running keep using the snapshot they started with.
+     *
+     * @return The new snapshot.
+     * @throws SQLException If a database error occurs during the retrieval, the old snapshot is kept in that case.
+     */
+    public static Geography refresh() throws SQLException {
+        Geography loaded = loadGeography();
+
+        //Keeps the newest snapshot if two refreshes finish out of order.
+        geography.accumulateAndGet(loaded, (current, fresh) ->
+                current == null || fresh.getVersion() > current.getVersion() ? fresh : current);
+        return geography.get();
+    }
 
-        //Observable list of countries
-        ObservableList<String> observableCountriesList = FXCollections.observableArrayList();
+    /**
+     * Loads every country with its divisions in a single joined query.
+     */
+    private static Geography loadGeography() throws SQLException {
 
-        //Queries the database for counties.
-        String sql = "SELECT * FROM countries";
+        //Queries the database for all countries and their divisions, countries without divisions are kept.
+        String sql = "SELECT co.Country_ID, co.Country, d.Division_ID, d.Division FROM countries co"
+                + " LEFT JOIN first_level_divisions d ON d.Country_ID = co.Country_ID ORDER BY co.Country_ID, d.Division_ID";
 
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
+        //The version is taken before the query so a later refresh always has a higher one.
+        long version = versions.incrementAndGet();
+        Geography.Builder builder = new Geography.Builder();
 
-        //Result set containing list of countries.
-        ResultSet rs = ps.executeQuery();
+        try (Connection connection = JDBC.getConnection()) {
+            //Loads the query into a prepared statement.
+            PreparedStatement ps = connection.prepareStatement(sql);
 
-        //Iterates through the result set.
-        while(rs.next()){
+            //Result set containing one row per division.
+            ResultSet rs = ps.executeQuery();
 
-            //Retrieves the country from the result set.
-            String country = rs.getString("Country");
+            //Iterates through the result set.
+            while(rs.next()){
+                int countryID = rs.getInt("Country_ID");
+                builder.addCountry(countryID, rs.getString("Country"));
 
-            //Adds the country to the observable list.
-            observableCountriesList.add(country);
+                //Division_ID is null for a country without divisions.
+                int divisionID = rs.getInt("Division_ID");
+                if(!rs.wasNull()){
+                    builder.addDivision(divisionID, rs.getString("Division"), countryID);
+                }
+            }
         }
+        return builder.build(version);
+    }
 
-        //Returns the observable list.
-        return observableCountriesList;
+    /**
+     * Retrieves a list of countries.
+     *
+     * @return An observable list of country names.
+     * @throws SQLException If a database error occurs during the retrieval.
+     */
+    public static ObservableList<String> getCountries() throws SQLException {
+        return FXCollections.observableArrayList(getGeography().getCountries());
     }
 
     /**
-     * Retrieves a list of divisions for the specified country from the database.
+     * Retrieves a list of divisions for the specified country.
      *
      * @param countryID The ID of the country for which divisions are to be retrieved.
      * @return An observable list of division names for the specified country.
      * @throws SQLException If a database error occurs during the retrieval.
      */
     public static ObservableList<String> getDivisions(int countryID) throws SQLException {
+        return FXCollections.observableArrayList(getGeography().getDivisions(countryID));
+    }
 
-        //Observable list of divisions.
-        ObservableList<String> divisions = FXCollections.observableArrayList();
-
-        //Queries the database for divisions by country ID.
-        String sql = "SELECT * FROM first_level_divisions WHERE Country_ID = ?";
-
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        //Sets the country ID for the prepare statement.
-        ps.setInt(1, countryID);
-
-        //Result set containing divisions by country ID.
-        ResultSet rs =  ps.executeQuery();
-
-        //Iterates through the result set.
-        while(rs.next()){
-
-            //Gets the division from the result set.
-            String division = rs.getString("Division");
-
-            //Adds the division to the observable list.
-            divisions.add(division);
-        }
-
-        //Returns an observable list of divisions.
-        return divisions;
+    /**
+     * Retrieves a list of divisions for the specified country.
+     *
+     * @param country The name of the country for which divisions are to be retrieved.
+     * @return An observable list of division names for the specified country, empty if the country is unknown.
+     * @throws SQLException If a database error occurs during the retrieval.
+     */
+    public static ObservableList<String> getDivisions(String country) throws SQLException {
+        return FXCollections.observableArrayList(getGeography().getDivisions(country));
     }
 
     /**
@@ -93,29 +128,7 @@ public abstract class CountryQuery {
      * @throws SQLException If a database error occurs during the retrieval.
      */
     public static int getDivisionID(String division) throws SQLException {
-
-        //Queries the database for divisions by division.
-        String sql = "Select * FROM first_level_divisions WHERE Division = ?";
-
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        //Sets the division for the prepared statement.
-        ps.setString(1, division);
-
-        //Result set containing divisions by division.
-        ResultSet rs = ps.executeQuery();
-        int id = 0;
-
-        //Iterates through the reuslt set.
-        while(rs.next()){
-
-            //Gets the division id from the result set.
-            id = rs.getInt("Division_ID");
-        }
-
-        //Returns the division id.
-        return id;
+        return getGeography().getDivisionID(division);
     }
 
     /**
@@ -126,28 +139,7 @@ public abstract class CountryQuery {
      * @throws SQLException If a database error occurs during the retrieval.
      */
     public static String getDivision(int divisionID) throws SQLException{
-
-        //Looks up a division by its division ID.
-        String sql = "SELECT * FROM first_level_divisions WHERE Division_ID = ?";
-
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        ps.setInt(1, divisionID);
-
-        //Result set containing divisions by division id.
-        ResultSet rs = ps.executeQuery();
-        String division = null;
-
-        //Iterates through the result set.
-        while(rs.next()){
-
-            //Returns the division from the result set.
-            division = rs.getString("Division");
-        }
-
-        //Returns the division.
-        return division;
+        return getGeography().getDivision(divisionID);
     }
 
     /**
@@ -158,39 +150,6 @@ public abstract class CountryQuery {
      * @throws SQLException If a database error occurs during the retrieval.
      */
     public static String getCountry(int divisionID) throws SQLException{
-
-        //Looks up a county by its division ID.
-        String sql = "SELECT * FROM first_level_divisions WHERE Division_ID = ?";
-
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        //Sets the division ID for the prepared statement.
-        ps.setInt(1, divisionID);
-
-        //Result set containing country
-        ResultSet rs = ps.executeQuery();
-        int countryID = 0;
-        String country = null;
-
-        //Iterates through the result set.
-        while(rs.next()){
-
-            //Gets the country id from the result set.
-            countryID = rs.getInt("Country_ID");
-
-            //Checks the country int and binds it to a country.
-            if(countryID == 1){
-                country = "U.S";
-            }else if(countryID == 2){
-                country = "UK";
-            }else if(countryID == 3){
-                country = "Canada";
-            }
-        }
-
-        //Returns the country
-        return country;
-
+        return getGeography().getCountry(divisionID);
     }
 }
@@ -1,13 +1,18 @@
 package dao;
 
+import Objects.CustomerObjects.Customer;
 import Objects.CustomerObjects.CustomersInHouse;
 import Objects.CustomerObjects.CustomersList;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * A data access object for managing customer information in the database.
@@ -15,228 +20,153 @@ import java.sql.SQLException;
  */
 public abstract class CustomersQuery {
 
-    /**
-     * Inserts a new customer into the database.
-     *
-     * @param customerName   The name of the customer.
-     * @param customerAddress The address of the customer.
-     * @param customerPCode   The postal code of the customer.
-     * @param customerPhone   The phone number of the customer.
-     * @param customerDivID   The division ID of the customer.
-     * @throws SQLException If a database error occurs during the insertion.
-     */
-    public static void insertCustomer(String customerName, String customerAddress, String customerPCode, String customerPhone, int customerDivID) throws SQLException {
-
-        //Query used to insert a new customer into the database.
-        String sql = "INSERT INTO customers (Customer_Name, Address, Postal_Code, Phone, Division_ID) VALUES(?, ?, ?, ?, ?)";
-
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        //Customer information being put into the prepared statement.
-        ps.setString(1, customerName);
-        ps.setString(2, customerAddress);
-        ps.setString(3, customerPCode);
-        ps.setString(4, customerPhone);
-        ps.setInt(5, customerDivID);
-
-        //Executed the prepared statement.
-        ps.executeUpdate();
-    }
-
-    /**
-     * Updates an existing customer in the database by customer ID.
-     *
-     * @param customerID     The ID of the customer to update.
-     * @param customerName   The new name of the customer.
-     * @param customerAddress The new address of the customer.
-     * @param customerPCode   The new postal code of the customer.
-     * @param customerPhone   The new phone number of the customer.
-     * @param customerDivID   The new division ID of the customer.
-     * @return The number of records affected by the update operation.
-     * @throws SQLException If a database error occurs during the update.
-     */
-    public static int updateCustomer(int customerID, String customerName, String customerAddress, String customerPCode, String customerPhone, int customerDivID) throws SQLException {
-
-        //Query used to update a customer in the database by customer ID.
-        String sql = "UPDATE customers SET Customer_Name = ?, Address = ?, Postal_Code = ?, Phone = ?, Division_ID = ? WHERE Customer_ID = ?";
-
-        //Loads the query into the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        //Customer information being put into the prepared statement.
-        ps.setString(1, customerName);
-        ps.setString(2, customerAddress);
-        ps.setString(3, customerPCode);
-        ps.setString(4, customerPhone);
-        ps.setInt(5, customerDivID);
-        ps.setInt(6, customerID);
-
-        //Execute the prepared statement.
-        return ps.executeUpdate();
-    }
+    //The most customers deleted by a single statement.
+    private static final int deleteBatchSize = 500;
 
     /**
-     * Deletes a customer from the database by customer ID.
+     * Deletes a customer and their appointments from the database.
      *
      * @param customerID The ID of the customer to delete.
-     * @return The number of records affected by the delete operation.
+     * @return The number of customers deleted, 1 if the customer was deleted.
      * @throws SQLException If a database error occurs during the deletion.
      */
     public static int deleteCustomer(int customerID) throws SQLException{
-
-        //Query used to delete customer by customer ID.
-        String sql = "DELETE FROM customers WHERE Customer_ID = ?";
-
-        //Loads query into the a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        //Customer ID being put into the prepared statement.
-        ps.setInt(1, customerID);
-
-        //Executes the prepared statement and returns the number of records affected by the prepared statement.
-        int rowsAffected = ps.executeUpdate();
-
-        //returns number of records affected.
-        return rowsAffected;
+        return deleteCustomers(List.of(customerID));
     }
 
     /**
-     * Checks the appointment table for appointments by customer ID
-     * Deletes any appointments the customer has before deleting the customer due to foreign key constraints.
+     * Deletes customers and all of their appointments from the database in one transaction.
+     * Appointments are deleted first because of the foreign key on the customer ID, using one statement for each
+     * batch of customers rather than one for each appointment. Either every customer and appointment is deleted or,
+     * if anything fails, none of them are.
      *
-     * @param customerID The ID of the customer
-     *
-     * @throws SQLException If a database error occurs during the retrieval.
+     * @param customerIDs The IDs of the customers to delete.
+     * @return The number of customers deleted.
+     * @throws SQLException If a database error occurs during the deletion, nothing is deleted in that case.
      */
-    public static void checkForAppointments(int customerID) throws SQLException{
-
-        //Query used to check if the customer has any appointments.
-        String sql = "SELECT * FROM appointments WHERE Customer_ID = ?";
-        String sql2 = "DELETE FROM appointments WHERE Customer_ID = ?";
-
-        //Loads query into the prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        PreparedStatement ps2 = JDBC.connection.prepareStatement(sql2);
-
-        //Adds the customer ID to the prepared statement.
-        ps.setInt(1, customerID);
-
-        //Result set containing appointments.
-        ResultSet rs = ps.executeQuery();
-
-        //Iterates through the resultSet
-        while(rs.next()){
-            ps2.setInt(1, rs.getInt("Customer_ID"));
-            ps2.executeUpdate();
+    public static int deleteCustomers(Collection<Integer> customerIDs) throws SQLException{
+        if (customerIDs.isEmpty()) {
+            return 0;
+        }
+        List<Integer> ids = new ArrayList<>(customerIDs);
+
+        try (Connection connection = JDBC.getConnection()) {
+            //Both deletes are committed together.
+            connection.setAutoCommit(false);
+            try {
+                int rowsAffected = 0;
+
+                //Keeps each statement's parameter list to a reasonable size when many customers are deleted.
+                for (int from = 0; from < ids.size(); from += deleteBatchSize) {
+                    List<Integer> batch = ids.subList(from, Math.min(from + deleteBatchSize, ids.size()));
+                    deleteWhereCustomerIn(connection, "DELETE FROM appointments WHERE Customer_ID IN ", batch);
+                    rowsAffected += deleteWhereCustomerIn(connection, "DELETE FROM customers WHERE Customer_ID IN ", batch);
+                }
+                connection.commit();
+                return rowsAffected;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
         }
     }
 
     /**
-     * Retrieves the ID of a customer by their name.
-     *
-     * @param placeholder The name of the customer.
-     * @return The ID of the customer or 0 if none is found.
-     * @throws SQLException If a database error occurs during the retrieval.
+     * Runs a delete for a batch of customer IDs, with the IDs as the parameters of an IN list.
      */
-    public static int getPlaceholderCustomer(String placeholder) throws SQLException {
-
-        //Queries the database for a customer by customer name.
-        String sql = "SELECT * FROM customers WHERE Customer_Name = ?";
-
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        //Customer name loaded into the prepared statement.
-        ps.setString(1, placeholder);
-
-        //Result set containing customer information.
-        ResultSet rs = ps.executeQuery();
-        int customerID = 0;
-
-        //Iterates through the result set.
-        while(rs.next()){
-
-            //Gets the customer ID from the result set.
-            customerID = rs.getInt("Customer_ID");
+    private static int deleteWhereCustomerIn(Connection connection, String sql, List<Integer> customerIDs) throws SQLException {
+        PreparedStatement ps = connection.prepareStatement(sql + "(" + "?, ".repeat(customerIDs.size() - 1) + "?)");
+        for (int i = 0; i < customerIDs.size(); i++) {
+            ps.setInt(i + 1, customerIDs.get(i));
         }
-
-        //Returns the customer ID.
-        return customerID;
+        return ps.executeUpdate();
     }
 
     /**
-     * Deletes placeholder customers from the database by name.
+     * Retrieves a list of customers from the database and populates the CustomersList.
      *
-     * @param placeholder The name of the customer to delete.
-     * @throws SQLException If a database error occurs during the deletion.
+     * @throws SQLException If a database error occurs during the retrieval.
      */
-    public static void deletePlaceHolderCustomers(String placeholder) throws SQLException{
-
-        //Query used to delete a customer from the database by name.
-        String sql = "DELETE FROM customers WHERE Customer_Name = ?";
-
-        //Loads the query into a prepared statement
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        //Loads the customer name into the prepared statement.
-        ps.setString(1, placeholder);
+    public static void getCustomers() throws SQLException{
 
-        //Executes the prepared statement.
-        ps.executeUpdate();
+        //Adds the customers to the customer observable list in one change.
+        CustomersList.addCustomers(findCustomers());
     }
 
     /**
-     * Retrieves a list of customers from the database and populates the CustomersList.
+     * Retrieves all customers without touching the customer list, so it can run on a background thread.
      *
+     * @return All customers.
      * @throws SQLException If a database error occurs during the retrieval.
      */
-    public static void getCustomers() throws SQLException{
+    public static List<Customer> findCustomers() throws SQLException{
 
         //Queries the database for all customer.s
         String sql = "SELECT * FROM customers";
+        List<Customer> customers = new ArrayList<>();
 
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
+        try (Connection connection = JDBC.getConnection()) {
+            //Loads the query into a prepared statement.
+            PreparedStatement ps = connection.prepareStatement(sql);
 
-        //Result set containing customers.
-        ResultSet rs = ps.executeQuery();
+            //Result set containing customers.
+            ResultSet rs = ps.executeQuery();
 
-        //Iterates through the result set.
-        while(rs.next()){
-
-            //Gets the customer information from the result set.
-            int customerID = rs.getInt("Customer_ID");
-            String customerName = rs.getString("Customer_Name");
-            String customerAddress = rs.getString("Address");
-            String customerPostalCode = rs.getString("Postal_Code");
-            String customerPhone = rs.getString("Phone");
-            int customerDivisionID = rs.getInt("Division_ID");
+            //Iterates through the result set.
+            while(rs.next()){
 
-            //Creates a new customer object.
-            CustomersInHouse newCustomer = new CustomersInHouse(customerID, customerName, customerAddress, customerPostalCode, customerPhone, customerDivisionID);
+                //Gets the customer information from the result set.
+                int customerID = rs.getInt("Customer_ID");
+                String customerName = rs.getString("Customer_Name");
+                String customerAddress = rs.getString("Address");
+                String customerPostalCode = rs.getString("Postal_Code");
+                String customerPhone = rs.getString("Phone");
+                int customerDivisionID = rs.getInt("Division_ID");
 
-            //Adds new customer object ot the customer observable list.
-            CustomersList.addCustomer(newCustomer);
+                //Creates a new customer object.
+                customers.add(new CustomersInHouse(customerID, customerName, customerAddress, customerPostalCode, customerPhone, customerDivisionID));
+            }
         }
+        return customers;
     }
 
     public static void getCustomersByAppointment(int customer_ID) throws SQLException{
 
+        //Adds the customer to the customer observable list if they exist.
+        Customer customer = findCustomer(customer_ID);
+        if(customer != null){
+            CustomersList.addCustomer(customer);
+        }
+    }
+
+    /**
+     * Retrieves a customer by their customer ID without touching the lists shown on screen,
+     * so it can run on a background thread.
+     *
+     * @param customer_ID The ID of the customer.
+     * @return The customer, or null if none is found.
+     * @throws SQLException If a database error occurs during the retrieval.
+     */
+    public static Customer findCustomer(int customer_ID) throws SQLException{
+
         //Queries the database for customer information using their customer ID
         String sql = "SELECT * FROM customers WHERE Customer_ID = ? ";
 
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
+        try (Connection connection = JDBC.getConnection()) {
+            //Loads the query into a prepared statement.
+            PreparedStatement ps = connection.prepareStatement(sql);
 
-        //Adds customer ID to the prepared statement
-        ps.setInt(1, customer_ID);
+            //Adds customer ID to the prepared statement
+            ps.setInt(1, customer_ID);
 
-        //Result set containing customer information.
-        ResultSet rs = ps.executeQuery();
+            //Result set containing customer information.
+            ResultSet rs = ps.executeQuery();
 
-        //Iterates through the result set
-        while(rs.next()){
+            if(!rs.next()){
+                return null;
+            }
 
             //Variables to hold customer information
             int customerID = rs.getInt("Customer_ID");
@@ -247,10 +177,7 @@ public abstract class CustomersQuery {
             int customerDivisionID = rs.getInt("Division_ID");
 
             //Creates a new customer object.
-            CustomersInHouse newCustomer = new CustomersInHouse(customerID, customerName, customerAddress, customerPostalCode, customerPhone, customerDivisionID);
-
-            //Adds new customer object ot the customer observable list.
-            CustomersList.addCustomer(newCustomer);
+            return new CustomersInHouse(customerID, customerName, customerAddress, customerPostalCode, customerPhone, customerDivisionID);
         }
     }
 
@@ -268,24 +195,26 @@ public abstract class CustomersQuery {
         //Queries the database for all customers.
         String sql = "SELECT * from customers";
 
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
+        try (Connection connection = JDBC.getConnection()) {
+            //Loads the query into a prepared statement.
+            PreparedStatement ps = connection.prepareStatement(sql);
 
-        //Result set containing customers.
-        ResultSet rs = ps.executeQuery();
-        int customerID = 0;
+            //Result set containing customers.
+            ResultSet rs = ps.executeQuery();
+            int customerID = 0;
 
-        //Iterates through the result set.
-        while(rs.next()){
+            //Iterates through the result set.
+            while(rs.next()){
 
-            //Gets the customer ID from the result set.
-            customerID = rs.getInt("Customer_ID");
+                //Gets the customer ID from the result set.
+                customerID = rs.getInt("Customer_ID");
 
-            //Adds the customer ID to the observable list.
-            customerIDs.add(customerID);
-        }
+                //Adds the customer ID to the observable list.
+                customerIDs.add(customerID);
+            }
 
-        //Returns the observable list.
-        return customerIDs;
+            //Returns the observable list.
+            return customerIDs;
+        }
     }
 }
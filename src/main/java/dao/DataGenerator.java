@@ -0,0 +1,366 @@
+package dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills the client_schedule tables with synthetic data for load testing.
+ * Contacts have skewed workloads, so a few contacts own most of the appointments, appointments fall inside business
+ * hours on weekdays, and a share of them is booked on top of one of the contact's earlier appointments so the
+ * overlap checks have conflicts to find. The same seed, sizes, start date and storage zone always produce the same rows.
+ * Rows are written with multi-row inserts committed one statement at a time, so millions of rows can be generated
+ * without holding them in memory or in one huge transaction. IDs continue after the highest ID already in each table.
+ */
+public class DataGenerator {
+
+    //Rows written by each insert statement.
+    private static final int rowsPerInsert = 500;
+
+    //Business hours the scheduling screens enforce.
+    private static final ZoneId businessZone = ZoneId.of("US/Eastern");
+    private static final LocalTime businessStart = LocalTime.of(8, 0);
+    private static final LocalTime businessEnd = LocalTime.of(22, 0);
+
+    //Days the convenience constructor spreads appointments over, fixed so its rows only depend on the seed and sizes.
+    private static final LocalDate defaultFirstDay = LocalDate.of(2025, 1, 1);
+    private static final int defaultDays = 730;
+
+    private static final String[] countryNames = {"U.S", "UK", "Canada"};
+    private static final String[][] divisionNames = {
+            {"Alabama", "Arizona", "California", "Colorado", "Florida", "Georgia", "Illinois", "New York", "Ohio", "Texas"},
+            {"England", "Scotland", "Wales", "Northern Ireland"},
+            {"Alberta", "British Columbia", "Manitoba", "Nova Scotia", "Ontario", "Quebec", "Saskatchewan"}};
+    private static final String[] types = {"Planning Session", "De-Briefing", "Consultation", "Review", "Follow-up", "Training"};
+    private static final String[] words = {"quarterly", "budget", "design", "launch", "onboarding", "contract", "roadmap",
+            "audit", "training", "renewal", "migration", "kickoff", "strategy", "support", "pricing", "compliance"};
+    private static final String[] firstNames = {"Anika", "Daniel", "Li", "Maria", "Noah", "Olivia", "Priya", "Samuel", "Sofia", "Yusuf"};
+    private static final String[] lastNames = {"Costa", "Garcia", "Kim", "Lee", "Martin", "Nguyen", "Patel", "Smith", "Walker", "Zhang"};
+
+    private final long seed;
+    private final int countries;
+    private final int divisionsPerCountry;
+    private final int contacts;
+    private final int customers;
+    private final int appointments;
+    private final double contactSkew;
+    private final double overlapRate;
+    private final LocalDate firstDay;
+    private final int days;
+    private final ZoneId storageZone;
+
+    /**
+     * Creates a generator for three countries with ten divisions each, moderately skewed contacts, 2% deliberate
+     * overlaps and appointments spread over 2025 and 2026, stored as UTC times.
+     *
+     * @param seed         The seed of the random data.
+     * @param contacts     The number of contacts, each with a contact user.
+     * @param customers    The number of customers.
+     * @param appointments The number of appointments.
+     */
+    public DataGenerator(long seed, int contacts, int customers, int appointments) {
+        this(seed, 3, 10, contacts, customers, appointments, 1.0, 0.02, defaultFirstDay, defaultDays, ZoneOffset.UTC);
+    }
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed                The seed of the random data.
+     * @param countries           The number of countries.
+     * @param divisionsPerCountry The number of first-level divisions in each country.
+     * @param contacts            The number of contacts, each with a contact user.
+     * @param customers           The number of customers.
+     * @param appointments        The number of appointments.
+     * @param contactSkew         How uneven the contacts' workloads are, 0 spreads appointments evenly.
+     * @param overlapRate         The share of appointments booked over one of the same contact's appointments, from 0 to 1.
+     * @param firstDay            The first day appointments are booked on.
+     * @param days                The number of days appointments are spread over.
+     * @param storageZone         The zone of the local times stored in the Start and End columns, the zone of the
+     *                            computers the application runs on.
+     */
+    public DataGenerator(long seed, int countries, int divisionsPerCountry, int contacts, int customers, int appointments,
+                         double contactSkew, double overlapRate, LocalDate firstDay, int days, ZoneId storageZone) {
+        if (countries < 1 || divisionsPerCountry < 1 || contacts < 1 || customers < 1 || appointments < 0 || days < 1) {
+            throw new IllegalArgumentException("Every table needs at least one row to generate appointments");
+        }
+        this.seed = seed;
+        this.countries = countries;
+        this.divisionsPerCountry = divisionsPerCountry;
+        this.contacts = contacts;
+        this.customers = customers;
+        this.appointments = appointments;
+        this.contactSkew = contactSkew;
+        this.overlapRate = overlapRate;
+        this.firstDay = firstDay;
+        this.days = days;
+        this.storageZone = storageZone;
+    }
+
+    /**
+     * Generates the rows, committing after each insert statement.
+     *
+     * @param connection The connection to insert through, its auto-commit setting is restored afterwards.
+     * @return The number of rows inserted.
+     * @throws SQLException If a database error occurs, rows committed before the error are kept.
+     */
+    public long generate(Connection connection) throws SQLException {
+        Random random = new Random(seed);
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            long rows = 0;
+
+            int firstCountry = nextID(connection, "countries", "Country_ID");
+            try (RowInserter insert = new RowInserter(connection, "countries", "Country_ID", "Country")) {
+                for (int i = 0; i < countries; i++) {
+                    insert.add(firstCountry + i, i < countryNames.length ? countryNames[i] : "Country " + (i + 1));
+                }
+                rows += insert.getRows();
+            }
+
+            int firstDivision = nextID(connection, "first_level_divisions", "Division_ID");
+            int divisions = countries * divisionsPerCountry;
+            try (RowInserter insert = new RowInserter(connection, "first_level_divisions", "Division_ID", "Division", "Country_ID")) {
+                for (int i = 0; i < divisions; i++) {
+                    int country = i / divisionsPerCountry;
+                    int division = i % divisionsPerCountry;
+                    String name = country < divisionNames.length && division < divisionNames[country].length
+                            ? divisionNames[country][division] : "Region " + (firstCountry + country) + "-" + (division + 1);
+                    insert.add(firstDivision + i, name, firstCountry + country);
+                }
+                rows += insert.getRows();
+            }
+
+            //The first user is an administrator, the rest belong to the contacts.
+            int firstUser = nextID(connection, "users", "User_ID");
+            try (RowInserter insert = new RowInserter(connection, "users", "User_ID", "User_Name", "Password", "Type")) {
+                insert.add(firstUser, "admin" + firstUser, "admin", "admin");
+                for (int i = 1; i <= contacts; i++) {
+                    insert.add(firstUser + i, "contact" + (firstUser + i), "contact", "contact");
+                }
+                rows += insert.getRows();
+            }
+
+            int firstContact = nextID(connection, "contacts", "Contact_ID");
+            try (RowInserter insert = new RowInserter(connection, "contacts", "Contact_ID", "Contact_Name", "Email", "User_ID")) {
+                for (int i = 0; i < contacts; i++) {
+                    String first = pick(random, firstNames);
+                    String last = pick(random, lastNames);
+                    insert.add(firstContact + i, first + " " + last, first.toLowerCase() + "." + last.toLowerCase() + (firstContact + i) + "@company.com", firstUser + 1 + i);
+                }
+                rows += insert.getRows();
+            }
+
+            int firstCustomer = nextID(connection, "customers", "Customer_ID");
+            try (RowInserter insert = new RowInserter(connection, "customers", "Customer_ID", "Customer_Name", "Address", "Postal_Code", "Phone", "Division_ID")) {
+                for (int i = 0; i < customers; i++) {
+                    insert.add(firstCustomer + i,
+                            pick(random, firstNames) + " " + pick(random, lastNames),
+                            (100 + random.nextInt(9900)) + " " + capitalize(pick(random, words)) + " Street",
+                            String.format("%05d", random.nextInt(100_000)),
+                            String.format("555-%03d-%04d", random.nextInt(1000), random.nextInt(10_000)),
+                            firstDivision + random.nextInt(divisions));
+                }
+                rows += insert.getRows();
+            }
+
+            rows += generateAppointments(connection, random, firstUser + 1, firstContact, firstCustomer);
+            return rows;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Generates the appointments. The last appointment of every contact is remembered so some new ones can be
+     * booked over it.
+     */
+    private long generateAppointments(Connection connection, Random random, int firstContactUser, int firstContact, int firstCustomer) throws SQLException {
+        long[] lastStart = new long[contacts];
+        long[] lastEnd = new long[contacts];
+        int businessMinutes = (int) Duration.between(businessStart, businessEnd).toMinutes();
+        int firstAppointment = nextID(connection, "appointments", "Appointment_ID");
+
+        try (RowInserter insert = new RowInserter(connection, "appointments", "Appointment_ID", "Title", "Description",
+                "Location", "Type", "Start", "End", "Customer_ID", "User_ID", "Contact_ID")) {
+            for (int i = 0; i < appointments; i++) {
+                int contact = skewedContact(random);
+                long start, end;
+
+                if (lastEnd[contact] > 0 && random.nextDouble() < overlapRate) {
+
+                    //Starts part way through the contact's last appointment and ends by the close of business.
+                    start = lastStart[contact] + (lastEnd[contact] - lastStart[contact]) / 2;
+                    long close = Instant.ofEpochMilli(start).atZone(businessZone).toLocalDate().atTime(businessEnd)
+                            .atZone(businessZone).toInstant().toEpochMilli();
+                    end = Math.min(close, start + 15 * 60_000L * (1 + random.nextInt(4)));
+                } else {
+                    LocalDate day = firstDay.plusDays(random.nextInt(days));
+                    if (day.getDayOfWeek() == DayOfWeek.SATURDAY) {
+                        day = day.plusDays(2);
+                    } else if (day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                        day = day.plusDays(1);
+                    }
+
+                    //Lengths of 15 minutes to 2 hours, starting on a quarter hour and ending by the close of business.
+                    int minutes = 15 * (1 + random.nextInt(8));
+                    int startMinute = 15 * random.nextInt((businessMinutes - minutes) / 15 + 1);
+                    start = day.atTime(businessStart).plusMinutes(startMinute).atZone(businessZone).toInstant().toEpochMilli();
+                    end = start + minutes * 60_000L;
+                }
+                lastStart[contact] = start;
+                lastEnd[contact] = end;
+
+                insert.add(firstAppointment + i,
+                        capitalize(pick(random, words)) + " " + pick(random, words),
+                        capitalize(pick(random, words)) + " " + pick(random, words) + " " + pick(random, words),
+                        random.nextInt(4) == 0 ? "Online" : "Room " + (1 + random.nextInt(50)),
+                        pick(random, types),
+                        localTimestamp(start),
+                        localTimestamp(end),
+                        firstCustomer + random.nextInt(customers),
+                        firstContactUser + contact,
+                        firstContact + contact);
+            }
+            return insert.getRows();
+        }
+    }
+
+    /**
+     * Picks a contact, favouring the lower indexes more strongly the higher the skew.
+     */
+    private int skewedContact(Random random) {
+        return Math.min(contacts - 1, (int) (contacts * Math.pow(random.nextDouble(), 1 + contactSkew)));
+    }
+
+    /**
+     * Converts an instant to the local date time timestamp the scheduling screens store.
+     */
+    private Timestamp localTimestamp(long epochMillis) {
+        return Timestamp.valueOf(Instant.ofEpochMilli(epochMillis).atZone(storageZone).toLocalDateTime());
+    }
+
+    private static int nextID(Connection connection, String table, String column) throws SQLException {
+        PreparedStatement ps = connection.prepareStatement("SELECT COALESCE(MAX(" + column + "), 0) + 1 FROM " + table);
+        ResultSet rs = ps.executeQuery();
+        return rs.next() ? rs.getInt(1) : 1;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    /**
+     * Buffers rows for one table and writes them with multi-row inserts, committing after each statement.
+     * Closing the inserter writes the remaining rows.
+     */
+    private static class RowInserter implements AutoCloseable {
+        private final Connection connection;
+        private final String insert;
+        private final String row;
+        private final int columns;
+        private final List<Object[]> pending = new ArrayList<>(rowsPerInsert);
+        private PreparedStatement fullInsert;
+        private long rows;
+
+        RowInserter(Connection connection, String table, String... columns) {
+            this.connection = connection;
+            this.columns = columns.length;
+            this.insert = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ";
+            this.row = "(" + "?, ".repeat(columns.length - 1) + "?)";
+        }
+
+        void add(Object... values) throws SQLException {
+            pending.add(values);
+            if (pending.size() == rowsPerInsert) {
+                if (fullInsert == null) {
+                    fullInsert = prepare(rowsPerInsert);
+                }
+                write(fullInsert);
+            }
+        }
+
+        long getRows() throws SQLException {
+            flush();
+            return rows;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            flush();
+            if (fullInsert != null) {
+                fullInsert.close();
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (!pending.isEmpty()) {
+                try (PreparedStatement ps = prepare(pending.size())) {
+                    write(ps);
+                }
+            }
+        }
+
+        private PreparedStatement prepare(int rowCount) throws SQLException {
+            StringBuilder sql = new StringBuilder(insert.length() + rowCount * (row.length() + 2)).append(insert);
+            for (int i = 0; i < rowCount; i++) {
+                sql.append(i == 0 ? "" : ", ").append(row);
+            }
+            return connection.prepareStatement(sql.toString());
+        }
+
+        private void write(PreparedStatement ps) throws SQLException {
+            int parameter = 1;
+            for (Object[] values : pending) {
+                for (int i = 0; i < columns; i++) {
+                    ps.setObject(parameter++, values[i]);
+                }
+            }
+            rows += ps.executeUpdate();
+            connection.commit();
+            pending.clear();
+        }
+    }
+
+    /**
+     * Generates data in the database the application connects to, with times stored in this computer's time zone.
+     * Usage: DataGenerator seed contacts customers appointments
+     *
+     * @param args The seed and the table sizes.
+     */
+    public static void main(String[] args) {
+        if (args.length != 4) {
+            System.out.println("Usage: DataGenerator seed contacts customers appointments");
+            return;
+        }
+        DataGenerator generator = new DataGenerator(Long.parseLong(args[0]), 3, 10, Integer.parseInt(args[1]),
+                Integer.parseInt(args[2]), Integer.parseInt(args[3]), 1.0, 0.02, defaultFirstDay, defaultDays, ZoneId.systemDefault());
+
+        JDBC.openConnection();
+        long started = System.nanoTime();
+        try (Connection connection = JDBC.getConnection()) {
+            long rows = generator.generate(connection);
+            System.out.println("Generated " + rows + " rows in " + (System.nanoTime() - started) / 1_000_000 + " ms");
+        } catch (SQLException e) {
+            System.out.println("Error:" + e.getMessage());
+        } finally {
+            JDBC.closeConnection();
+        }
+    }
+}
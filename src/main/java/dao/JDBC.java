@@ -1,7 +1,8 @@
 package dao;
 
+import LambdaInterfaces.ConnectionInterface;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 
@@ -11,18 +12,34 @@ public abstract class JDBC {
     private static final String vendor = ":mysql:";
     private static final String location = "//localhost/";
     private static final String databaseName = "client_schedule";
-    private static final String jdbcUrl = protocol + vendor + location + databaseName + "?connectionTimeZone = SERVER"; // LOCAL
+    private static final String jdbcUrl = protocol + vendor + location + databaseName + "?connectionTimeZone = SERVER&useServerPrepStmts=true&useCursorFetch=true"; // LOCAL, server side prepares so cached statements are only parsed once, cursor fetch so fetch sizes are honoured
     private static final String driver = "com.mysql.cj.jdbc.Driver"; // Driver reference
     private static final String userName = "sqlUser"; // Username
     private static final String password = "Passw0rd!"; // Password
-    public static Connection connection;  // Connection Interface
+
+    // Connection pool settings
+    private static final int maxPoolSize = 10;
+    private static final long idleTimeoutMillis = 10 * 60 * 1000;
+    private static final long maxLifetimeMillis = 30 * 60 * 1000;
+    private static final long leakThresholdMillis = 60 * 1000;
+    private static final long borrowTimeoutMillis = 30 * 1000;
+
+    private static ConnectionPool pool;
+    private static ConnectionInterface connectionSource;  // Where the data access objects borrow connections from
 
     public static void openConnection()
     {
         try {
             Class.forName(driver); // Locate Driver
-            connection = DriverManager.getConnection(jdbcUrl, userName, password); // Reference Connection object
-            System.out.println("Connection successful!");
+            pool = new ConnectionPool(jdbcUrl, userName, password, maxPoolSize, idleTimeoutMillis, maxLifetimeMillis, leakThresholdMillis, borrowTimeoutMillis);
+            connectionSource = pool;
+
+            // Opens the first connection up front so a bad configuration is reported at startup.
+            try (Connection connection = pool.getConnection()) {
+                if (connection.isValid(5)) {
+                    System.out.println("Connection successful!");
+                }
+            }
         }
         catch(Exception e)
         {
@@ -30,9 +47,42 @@ public abstract class JDBC {
         }
     }
 
+    /**
+     * Borrows a connection. Callers must close the connection, preferably with try-with-resources,
+     * which hands it back to the pool.
+     *
+     * @return A connection to the scheduling database.
+     * @throws SQLException If no connection could be obtained.
+     */
+    public static Connection getConnection() throws SQLException {
+        if (connectionSource == null) {
+            throw new SQLException("The database connection has not been opened");
+        }
+        return connectionSource.getConnection();
+    }
+
+    /**
+     * Replaces the connection source used by the data access objects, for example with an embedded database.
+     *
+     * @param source The new connection source.
+     */
+    public static void setConnectionSource(ConnectionInterface source) {
+        connectionSource = source;
+    }
+
+    /**
+     * Retrieves the statistics of the connection pool.
+     *
+     * @return The pool statistics, or null if the pool has not been opened.
+     */
+    public static PoolStats getPoolStats() {
+        return pool == null ? null : pool.getStats();
+    }
+
     public static void closeConnection() {
         try {
-            connection.close();
+            System.out.println(pool.getStats());
+            pool.close();
             System.out.println("Connection closed!");
         }
         catch(Exception e)
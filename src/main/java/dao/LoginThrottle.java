@@ -0,0 +1,232 @@
+package dao;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Slows down repeated failed logins before they reach the database.
+ * Failures are counted per user name and per source over a sliding window split into time buckets. Once either
+ * reaches its limit, it is locked out, and every lockout that follows without a quiet window in between lasts
+ * twice as long as the one before, up to a maximum. Checking and recording take no locks, so a flood of attempts
+ * costs a few map lookups each.
+ */
+public class LoginThrottle {
+
+    private static final int bucketCount = 10;
+
+    //Each bucket packs its bucket number above the failure count, so it can be moved to a new bucket and counted in one compare-and-set.
+    private static final int countBits = 20;
+    private static final long countMask = (1L << countBits) - 1;
+
+    //Stops a storm of made-up user names from filling the heap. Sources are few, so they aren't capped.
+    private static final int maxTrackedUsers = 10_000;
+
+    private final int maxUserFailures;
+    private final int maxSourceFailures;
+    private final long bucketMillis;
+    private final long baseLockoutMillis;
+    private final long maxLockoutMillis;
+
+    private final Map<String, Window> users = new ConcurrentHashMap<>();
+    private final Map<String, Window> sources = new ConcurrentHashMap<>();
+
+    private final AtomicLong lastPrunedBucket = new AtomicLong();
+
+    private final AtomicLong allowedCount = new AtomicLong();
+    private final AtomicLong throttledCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong lockoutCount = new AtomicLong();
+
+    /**
+     * Creates a throttle.
+     *
+     * @param maxUserFailures   The failures allowed for a user name within the window before it is locked out.
+     * @param maxSourceFailures The failures allowed from a source within the window before it is locked out.
+     * @param windowMillis      How far back failures are counted.
+     * @param baseLockoutMillis How long the first lockout lasts.
+     * @param maxLockoutMillis  The longest a lockout can last once it has been doubled.
+     */
+    public LoginThrottle(int maxUserFailures, int maxSourceFailures, long windowMillis, long baseLockoutMillis, long maxLockoutMillis) {
+        if (maxUserFailures < 1 || maxSourceFailures < 1 || windowMillis < bucketCount || baseLockoutMillis < 1 || maxLockoutMillis < baseLockoutMillis) {
+            throw new IllegalArgumentException("Invalid login throttle settings");
+        }
+        this.maxUserFailures = maxUserFailures;
+        this.maxSourceFailures = maxSourceFailures;
+        this.bucketMillis = windowMillis / bucketCount;
+        this.baseLockoutMillis = baseLockoutMillis;
+        this.maxLockoutMillis = maxLockoutMillis;
+    }
+
+    /**
+     * Checks whether a login may be attempted. Must be called before the user is looked up.
+     *
+     * @param userName The user name being logged in to.
+     * @param source   Where the attempt comes from, such as the operating system account.
+     * @return 0 if the attempt may go ahead; otherwise, how many milliseconds are left until it may.
+     */
+    public long retryAfterMillis(String userName, String source) {
+        long now = System.currentTimeMillis();
+        long until = Math.max(lockedUntil(users.get(key(userName))), lockedUntil(sources.get(key(source))));
+        if (until > now) {
+            throttledCount.incrementAndGet();
+            return until - now;
+        }
+        allowedCount.incrementAndGet();
+        return 0;
+    }
+
+    /**
+     * Counts a failed login, locking out the user name or the source if it has reached its limit.
+     *
+     * @param userName The user name that was tried.
+     * @param source   Where the attempt came from.
+     */
+    public void recordFailure(String userName, String source) {
+        long now = System.currentTimeMillis();
+        failureCount.incrementAndGet();
+
+        Window user = users.get(key(userName));
+        if (user == null) {
+            if (users.size() >= maxTrackedUsers) {
+                prune(now);
+            }
+            if (users.size() < maxTrackedUsers) {
+                user = users.computeIfAbsent(key(userName), name -> new Window());
+            }
+        }
+        if (user != null) {
+            fail(user, maxUserFailures, now);
+        }
+        fail(sources.computeIfAbsent(key(source), name -> new Window()), maxSourceFailures, now);
+    }
+
+    /**
+     * Forgets the failures of a user name once its password has been accepted.
+     * The source keeps its failures, so a stuffing run can't reset its count by hitting one good password.
+     *
+     * @param userName The user name that logged in.
+     */
+    public void recordSuccess(String userName) {
+        users.remove(key(userName));
+    }
+
+    private void fail(Window window, int maxFailures, long now) {
+        long bucket = now / bucketMillis;
+        if (window.add(bucket) < maxFailures) {
+            return;
+        }
+        long until = window.lockedUntil.get();
+        if (until > now) {
+            return;
+        }
+
+        //Only the thread that wins the compare-and-set extends the lockout, so simultaneous failures lock it out once.
+        int lockouts = window.lockouts.get();
+        long lockout = Math.min(maxLockoutMillis, baseLockoutMillis << Math.min(lockouts, 30));
+        if (window.lockedUntil.compareAndSet(until, now + lockout)) {
+            window.lockouts.incrementAndGet();
+            lockoutCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drops user names that are neither locked out nor have failures left in the window.
+     * Runs at most once per bucket, so a full map doesn't make every new user name scan it.
+     */
+    private void prune(long now) {
+        long bucket = now / bucketMillis;
+        long pruned = lastPrunedBucket.get();
+        if (pruned == bucket || !lastPrunedBucket.compareAndSet(pruned, bucket)) {
+            return;
+        }
+        users.values().removeIf(window -> window.lockedUntil.get() <= now && window.count(bucket) == 0);
+    }
+
+    private static long lockedUntil(Window window) {
+        return window == null ? 0 : window.lockedUntil.get();
+    }
+
+    //MySQL compares user names without regard to case, so the throttle does too.
+    private static String key(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public long getAllowedCount() {
+        return allowedCount.get();
+    }
+
+    public long getThrottledCount() {
+        return throttledCount.get();
+    }
+
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    public long getLockoutCount() {
+        return lockoutCount.get();
+    }
+
+    public int getTrackedUserCount() {
+        return users.size();
+    }
+
+    @Override
+    public String toString() {
+        return "Login throttle | allowed: " + getAllowedCount()
+                + " | throttled: " + getThrottledCount()
+                + " | failures: " + getFailureCount()
+                + " | lockouts: " + getLockoutCount()
+                + " | tracked users: " + getTrackedUserCount()
+                + " | tracked sources: " + sources.size();
+    }
+
+    /**
+     * The failures of one user name or source.
+     */
+    private static final class Window {
+
+        private final AtomicLongArray buckets = new AtomicLongArray(bucketCount);
+        private final AtomicLong lockedUntil = new AtomicLong();
+        private final AtomicInteger lockouts = new AtomicInteger();
+
+        /**
+         * Adds a failure to the current bucket, emptying the bucket first if it last held an older one.
+         *
+         * @return The failures in the window, including this one.
+         */
+        int add(long bucket) {
+
+            //A quiet window ends the backoff, so the next lockout starts again from the shortest.
+            if (count(bucket) == 0) {
+                lockouts.set(0);
+            }
+            int slot = (int) (bucket % bucketCount);
+            long packed, updated;
+            do {
+                packed = buckets.get(slot);
+                long count = (packed >>> countBits) == bucket ? packed & countMask : 0;
+                updated = (bucket << countBits) | Math.min(count + 1, countMask);
+            } while (!buckets.compareAndSet(slot, packed, updated));
+            return count(bucket);
+        }
+
+        /**
+         * Counts the failures in the buckets that still fall within the window.
+         */
+        int count(long bucket) {
+            int total = 0;
+            for (int i = 0; i < bucketCount; i++) {
+                long packed = buckets.get(i);
+                if ((packed >>> countBits) > bucket - bucketCount) {
+                    total += (int) (packed & countMask);
+                }
+            }
+            return total;
+        }
+    }
+}
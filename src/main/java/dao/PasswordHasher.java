@@ -0,0 +1,41 @@
+package dao;
+
+/**
+ * A way of hashing passwords so they are never stored as they were typed.
+ * Every hash starts with "$" followed by the hasher's ID and another "$", and holds everything needed to check
+ * a password against it, such as its salt and cost, so hashes made with older settings can still be checked.
+ */
+public interface PasswordHasher {
+
+    /**
+     * Retrieves the ID written at the start of every hash this hasher makes.
+     *
+     * @return The ID, without any "$".
+     */
+    String getId();
+
+    /**
+     * Hashes a password with a new random salt and the current cost.
+     *
+     * @param password The password as typed by the user.
+     * @return The hash to store.
+     */
+    String hash(String password);
+
+    /**
+     * Checks a password against a hash made by this hasher, taking the same time wherever they differ.
+     *
+     * @param password   The password as typed by the user.
+     * @param storedHash The stored hash.
+     * @return True if the password matches the hash; otherwise, false.
+     */
+    boolean verify(String password, String storedHash);
+
+    /**
+     * Checks whether a hash was made with weaker settings than this hasher now uses.
+     *
+     * @param storedHash The stored hash.
+     * @return True if the password should be hashed again the next time it is typed.
+     */
+    boolean needsRehash(String storedHash);
+}
@@ -0,0 +1,154 @@
+package dao;
+
+import LambdaInterfaces.QueryInterface;
+import javafx.concurrent.Task;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hashes and checks user passwords.
+ * New passwords are hashed with the current hasher, and stored hashes are checked with the hasher named at their
+ * start, so the hasher or its cost can change without locking anyone out. Passwords saved before hashing was added
+ * are still accepted as they were typed, and are hashed the next time the user logs in.
+ * Checking a password is slow on purpose, so logins are checked on their own small pool of threads with a bounded
+ * queue. A burst of logins can neither freeze the screen nor take the threads the other queries run on.
+ */
+public abstract class PasswordVerifier {
+
+    private static final int threadCount = 2;
+    private static final int maxQueuedLogins = 16;
+    private static final AtomicInteger threadNumber = new AtomicInteger();
+
+    private static final ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(maxQueuedLogins), runnable -> {
+        Thread thread = new Thread(runnable, "password-check-" + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Map<String, PasswordHasher> hashers = new ConcurrentHashMap<>();
+    private static volatile PasswordHasher current;
+
+    //Checked against when a user name doesn't exist, so unknown users take as long to turn away as wrong passwords.
+    private static volatile String unknownUserHash;
+
+    static {
+        setHasher(new Pbkdf2PasswordHasher(Pbkdf2PasswordHasher.defaultIterations));
+    }
+
+    /**
+     * Makes a hasher the one new passwords are hashed with. Hashes made by earlier hashers can still be checked,
+     * and are replaced the next time their user logs in.
+     *
+     * @param hasher The hasher.
+     */
+    public static void setHasher(PasswordHasher hasher) {
+        hashers.put(hasher.getId(), hasher);
+        current = hasher;
+        unknownUserHash = null;
+    }
+
+    public static PasswordHasher getHasher() {
+        return current;
+    }
+
+    /**
+     * Hashes a password with the current hasher.
+     *
+     * @param password The password as typed by the user.
+     * @return The hash to store in place of the password.
+     */
+    public static String hash(String password) {
+        return current.hash(password);
+    }
+
+    /**
+     * Checks a password against what is stored for a user.
+     *
+     * @param password   The password as typed by the user.
+     * @param storedHash The stored hash, or the password itself if it was saved before hashing was added.
+     * @return True if the password matches; otherwise, false.
+     */
+    public static boolean verify(String password, String storedHash) {
+        if (password == null || storedHash == null) {
+            return false;
+        }
+        PasswordHasher hasher = hasherFor(storedHash);
+        if (hasher != null) {
+            return hasher.verify(password, storedHash);
+        }
+        return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), storedHash.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Takes as long as checking a password, for user names that don't exist.
+     *
+     * @param password The password as typed by the user.
+     */
+    public static void verifyUnknownUser(String password) {
+        String hash = unknownUserHash;
+        if (hash == null) {
+
+            //Made on first use rather than when the class loads, which may be on the JavaFX thread.
+            hash = current.hash("unknown user");
+            unknownUserHash = hash;
+        }
+        verify(password == null ? "" : password, hash);
+    }
+
+    /**
+     * Checks whether a stored password should be hashed again, either because it isn't hashed yet or because
+     * it was hashed by another hasher or at a lower cost than the current one.
+     *
+     * @param storedHash The stored hash.
+     * @return True if the password should be hashed again once it has been checked.
+     */
+    public static boolean needsRehash(String storedHash) {
+        PasswordHasher hasher = current;
+        return hasherFor(storedHash) != hasher || hasher.needsRehash(storedHash);
+    }
+
+    /**
+     * Runs a login check on the password pool.
+     *
+     * @param check     The check to run, which reads the user and verifies their password.
+     * @param onChecked Receives the result on the JavaFX thread.
+     * @param <T>       The type of the result.
+     * @return The running task.
+     * @throws RejectedExecutionException If too many logins are already waiting to be checked.
+     */
+    public static <T> Task<T> submit(QueryInterface<T> check, Consumer<T> onChecked) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return check.run();
+            }
+        };
+        task.setOnSucceeded(event -> onChecked.accept(task.getValue()));
+        task.setOnFailed(event -> AsyncQuery.showError(task.getException()));
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Finds the hasher named at the start of a hash.
+     *
+     * @return The hasher, or null if the stored value isn't a hash from a known hasher.
+     */
+    private static PasswordHasher hasherFor(String storedHash) {
+        if (storedHash == null || !storedHash.startsWith("$")) {
+            return null;
+        }
+        int end = storedHash.indexOf('$', 1);
+        return end < 0 ? null : hashers.get(storedHash.substring(1, end));
+    }
+}
@@ -0,0 +1,197 @@
+package dao;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Runtime statistics for the connection pool.
+ * Tracks borrow counts, timeouts, leaks and a histogram of how long callers waited for a connection,
+ * as well as how often prepared statements were reused and how many result sets are open.
+ */
+public class PoolStats {
+
+    //Upper bounds of the wait time histogram buckets in milliseconds. The last bucket holds everything slower.
+    private static final long[] waitBucketBounds = {1, 5, 10, 50, 100, 500, 1000};
+
+    private final AtomicLongArray waitBuckets = new AtomicLongArray(waitBucketBounds.length + 1);
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong validationFailureCount = new AtomicLong();
+    private final AtomicLong preparedCount = new AtomicLong();
+    private final AtomicLong statementCacheHitCount = new AtomicLong();
+    private final AtomicLong openCursors = new AtomicLong();
+
+    private volatile int active;
+    private volatile int idle;
+    private volatile int waiting;
+
+    /**
+     * Records how long a caller waited to borrow a connection.
+     *
+     * @param waitNanos The time spent waiting in nanoseconds.
+     */
+    void recordBorrow(long waitNanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+
+        //Finds the histogram bucket the wait time falls into.
+        long waitMillis = waitNanos / 1_000_000;
+        int bucket = 0;
+        while (bucket < waitBucketBounds.length && waitMillis >= waitBucketBounds[bucket]) {
+            bucket++;
+        }
+        waitBuckets.incrementAndGet(bucket);
+    }
+
+    void recordTimeout() {timeoutCount.incrementAndGet();}
+
+    void recordLeak() {leakCount.incrementAndGet();}
+
+    void recordCreated() {createdCount.incrementAndGet();}
+
+    void recordEvicted() {evictedCount.incrementAndGet();}
+
+    void recordValidationFailure() {validationFailureCount.incrementAndGet();}
+
+    void recordStatementPrepared() {preparedCount.incrementAndGet();}
+
+    void recordStatementCacheHit() {statementCacheHitCount.incrementAndGet();}
+
+    void recordCursorOpened() {openCursors.incrementAndGet();}
+
+    void recordCursorClosed() {openCursors.decrementAndGet();}
+
+    /**
+     * Updates the current connection counts.
+     *
+     * @param active  The number of connections currently borrowed.
+     * @param idle    The number of connections waiting in the pool.
+     * @param waiting The number of callers waiting for a connection.
+     */
+    void updateCounts(int active, int idle, int waiting) {
+        this.active = active;
+        this.idle = idle;
+        this.waiting = waiting;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getWaiting() {
+        return waiting;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    public long getLeakCount() {
+        return leakCount.get();
+    }
+
+    public long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    public long getEvictedCount() {
+        return evictedCount.get();
+    }
+
+    public long getValidationFailureCount() {
+        return validationFailureCount.get();
+    }
+
+    /**
+     * Retrieves how many statements were prepared on the physical connections.
+     *
+     * @return The number of prepares.
+     */
+    public long getPreparedCount() {
+        return preparedCount.get();
+    }
+
+    /**
+     * Retrieves how many times a statement was reused from a connection's statement cache instead of being prepared.
+     *
+     * @return The number of cache hits.
+     */
+    public long getStatementCacheHitCount() {
+        return statementCacheHitCount.get();
+    }
+
+    /**
+     * Retrieves how many result sets are open on borrowed connections.
+     *
+     * @return The number of open result sets.
+     */
+    public long getOpenCursors() {
+        return openCursors.get();
+    }
+
+    /**
+     * Retrieves the average time callers waited for a connection.
+     *
+     * @return The average wait in milliseconds, or 0 if nothing has been borrowed.
+     */
+    public double getAverageWaitMillis() {
+        long borrows = borrowCount.get();
+        return borrows == 0 ? 0 : totalWaitNanos.get() / 1_000_000.0 / borrows;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Retrieves a copy of the wait time histogram.
+     * Bucket i counts waits below the i-th bound of 1, 5, 10, 50, 100, 500 and 1000 ms; the last bucket counts the rest.
+     *
+     * @return The number of borrows per bucket.
+     */
+    public long[] getWaitHistogram() {
+        long[] histogram = new long[waitBuckets.length()];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = waitBuckets.get(i);
+        }
+        return histogram;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stats = new StringBuilder("Connection pool | active: ").append(active)
+                .append(" | idle: ").append(idle)
+                .append(" | waiting: ").append(waiting)
+                .append(" | borrows: ").append(getBorrowCount())
+                .append(" | timeouts: ").append(getTimeoutCount())
+                .append(" | leaks: ").append(getLeakCount())
+                .append(" | created: ").append(getCreatedCount())
+                .append(" | evicted: ").append(getEvictedCount())
+                .append(" | prepares: ").append(getPreparedCount())
+                .append(" | statement cache hits: ").append(getStatementCacheHitCount())
+                .append(" | open cursors: ").append(getOpenCursors())
+                .append(String.format(" | avg wait: %.3f ms | max wait: %.3f ms", getAverageWaitMillis(), getMaxWaitMillis()))
+                .append("\nWait histogram:");
+
+        long[] histogram = getWaitHistogram();
+        for (int i = 0; i < histogram.length; i++) {
+            String label = i < waitBucketBounds.length ? "<" + waitBucketBounds[i] + "ms" : ">=" + waitBucketBounds[waitBucketBounds.length - 1] + "ms";
+            stats.append(" ").append(label).append(": ").append(histogram[i]);
+        }
+        return stats.toString();
+    }
+}
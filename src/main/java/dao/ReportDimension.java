@@ -0,0 +1,76 @@
+package dao;
+
+import java.time.Month;
+import java.util.List;
+
+/**
+ * A dimension appointment reports can be grouped by.
+ * Each dimension knows the column it groups on, the column it is labelled with and the joins it needs,
+ * so any combination of dimensions can be counted in a single aggregate query.
+ */
+public enum ReportDimension {
+
+    TYPE("a.Type", "a.Type"),
+
+    //Groups on year * 100 + month so the same month of different years stays separate.
+    MONTH("YEAR(a.Start) * 100 + MONTH(a.Start)", "YEAR(a.Start) * 100 + MONTH(a.Start)") {
+        @Override
+        String formatLabel(String label) {
+            if (label == null) {
+                return null;
+            }
+            int yearMonth = Integer.parseInt(label);
+            return Month.of(yearMonth % 100) + " " + yearMonth / 100;
+        }
+    },
+
+    CONTACT("a.Contact_ID", "ct.Contact_Name", Joins.contacts),
+
+    USER("a.User_ID", "u.User_Name", Joins.users),
+
+    DIVISION("cu.Division_ID", "d.Division", Joins.customers, Joins.divisions),
+
+    COUNTRY("d.Country_ID", "co.Country", Joins.customers, Joins.divisions, Joins.countries);
+
+    private final String groupColumn;
+    private final String labelColumn;
+    private final List<String> joins;
+
+    ReportDimension(String groupColumn, String labelColumn, String... joins) {
+        this.groupColumn = groupColumn;
+        this.labelColumn = labelColumn;
+        this.joins = List.of(joins);
+    }
+
+    String getGroupColumn() {
+        return groupColumn;
+    }
+
+    String getLabelColumn() {
+        return labelColumn;
+    }
+
+    //The joins this dimension needs, shared joins are written identically so they can be added to a query once.
+    List<String> getJoins() {
+        return joins;
+    }
+
+    /**
+     * Formats the value read from the label column for display.
+     *
+     * @param label The label read from the database.
+     * @return The label shown in the report.
+     */
+    String formatLabel(String label) {
+        return label;
+    }
+
+    //Join clauses from appointments, kept outside the enum so constants can share them.
+    private static class Joins {
+        private static final String contacts = " LEFT JOIN contacts ct ON ct.Contact_ID = a.Contact_ID";
+        private static final String users = " LEFT JOIN users u ON u.User_ID = a.User_ID";
+        private static final String customers = " LEFT JOIN customers cu ON cu.Customer_ID = a.Customer_ID";
+        private static final String divisions = " LEFT JOIN first_level_divisions d ON d.Division_ID = cu.Division_ID";
+        private static final String countries = " LEFT JOIN countries co ON co.Country_ID = d.Country_ID";
+    }
+}
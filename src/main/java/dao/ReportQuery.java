@@ -1,20 +1,140 @@
 package dao;
 
 
+import Objects.AppointmentObjects.Appointment;
+import Objects.AppointmentObjects.AppointmentTimeFormat;
+import Objects.ReportObjects.ContactSchedule;
+import Objects.ReportObjects.ReportRow;
+
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Timestamp;
-import java.time.Month;
-import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * A data access object for generating reports related to appointments and contacts.
  * Contains queries that generate reports for appointments, contacts, and divisions.
+ * Every report is computed with a single aggregate or joined query.
  */
 public class ReportQuery {
 
+    /**
+     * Counts appointments grouped by one or more dimensions in a single aggregate query.
+     *
+     * @param dimensions The dimensions to group by, in the order they appear in each row.
+     * @return One row per group, ordered by the dimensions.
+     * @throws SQLException If a database error occurs during the report generation.
+     */
+    public static List<ReportRow> countAppointments(ReportDimension... dimensions) throws SQLException {
+
+        //Builds the select list, the joins every dimension needs, and the group by clause.
+        StringBuilder columns = new StringBuilder();
+        StringBuilder groupBy = new StringBuilder();
+        Set<String> joins = new LinkedHashSet<>();
+        for (int i = 0; i < dimensions.length; i++) {
+            ReportDimension dimension = dimensions[i];
+            columns.append(dimension.getLabelColumn()).append(" AS Label_").append(i).append(", ");
+            if (i > 0) {
+                groupBy.append(", ");
+            }
+            groupBy.append(dimension.getGroupColumn()).append(", ").append(dimension.getLabelColumn());
+            joins.addAll(dimension.getJoins());
+        }
+
+        //Counts the appointments in each group.
+        String sql = "SELECT " + columns + "COUNT(a.Appointment_ID) AS Appointment_Count FROM appointments a" + String.join("", joins)
+                + (dimensions.length > 0 ? " GROUP BY " + groupBy + " ORDER BY " + groupBy : "");
+
+        List<ReportRow> rows = new ArrayList<>();
+        try (Connection connection = JDBC.getConnection()) {
+            //Loads the query into a prepared statement for usage.
+            PreparedStatement ps = connection.prepareStatement(sql);
+
+            //Result set containing one row per group.
+            ResultSet rs = ps.executeQuery();
+            while(rs.next()){
+                List<String> groups = new ArrayList<>(dimensions.length);
+                for (int i = 0; i < dimensions.length; i++) {
+                    groups.add(dimensions[i].formatLabel(rs.getString("Label_" + i)));
+                }
+                rows.add(new ReportRow(groups, rs.getLong("Appointment_Count")));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Retrieves the schedule of every contact, including contacts without appointments, in a single joined query.
+     *
+     * @return The schedule of each contact in contact order, with appointments ordered by start time.
+     * @throws SQLException If a database error occurs during the report generation.
+     */
+    public static List<ContactSchedule> getContactSchedules() throws SQLException {
+
+        //Queries the database for all contacts and their appointments.
+        String sql = "SELECT ct.Contact_ID AS Schedule_Contact_ID, ct.Contact_Name, a.* FROM contacts ct"
+                + " LEFT JOIN appointments a ON a.Contact_ID = ct.Contact_ID ORDER BY ct.Contact_ID, a.Start";
+
+        //Keyed by contact ID, so contacts sharing a name keep separate schedules.
+        Map<Integer, ContactSchedule> schedules = new LinkedHashMap<>();
+        try (Connection connection = JDBC.getConnection()) {
+            //Loads the query into a prepared statement.
+            PreparedStatement ps = connection.prepareStatement(sql);
+
+            //Result set containing one row per appointment, or a single row for a contact without appointments.
+            ResultSet rs = ps.executeQuery();
+            while(rs.next()){
+                int contactID = rs.getInt("Schedule_Contact_ID");
+                ContactSchedule schedule = schedules.get(contactID);
+                if(schedule == null){
+                    schedule = new ContactSchedule(contactID, rs.getString("Contact_Name"));
+                    schedules.put(contactID, schedule);
+                }
+                if(rs.getObject("Appointment_ID") != null){
+                    schedule.getAppointments().add(AppointmentQuery.readAppointment(rs));
+                }
+            }
+        }
+        return new ArrayList<>(schedules.values());
+    }
+
+    /**
+     * Retrieves the divisions of every country in a single joined query.
+     *
+     * @return The division names of each country, keyed by country name in country order.
+     * @throws SQLException If a database error occurs during the report generation.
+     */
+    public static Map<String, List<String>> getDivisionsByCountry() throws SQLException {
+
+        //Queries the database for all countries and their divisions.
+        String sql = "SELECT co.Country, d.Division FROM countries co"
+                + " LEFT JOIN first_level_divisions d ON d.Country_ID = co.Country_ID ORDER BY co.Country_ID, d.Division_ID";
+
+        Map<String, List<String>> divisions = new LinkedHashMap<>();
+        try (Connection connection = JDBC.getConnection()) {
+            //Loads the query into a prepared statement.
+            PreparedStatement ps = connection.prepareStatement(sql);
+
+            //Result set containing one row per division.
+            ResultSet rs = ps.executeQuery();
+            while(rs.next()){
+                List<String> countryDivisions = divisions.computeIfAbsent(rs.getString("Country"), country -> new ArrayList<>());
+                String division = rs.getString("Division");
+                if(division != null){
+                    countryDivisions.add(division);
+                }
+            }
+        }
+        return divisions;
+    }
+
     /**
      * Generates a report of the count of appointments by type.
      *
@@ -25,41 +145,8 @@ public class ReportQuery {
 
         //Builds a string that will contain appointments by type.
         StringBuilder appointmentJunk = new StringBuilder("Appointment report by type\n");
-
-        //Queries the database for distinct appointment types.
-        String sql = "SELECT Distinct Type FROM appointments";
-
-        //Query to count the number of types by type.
-        String sql2 = "SELECT COUNT(Type) FROM appointments WHERE Type = ?";
-
-        //Loads the query into a prepared statement for usage.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        PreparedStatement ps2 = JDBC.connection.prepareStatement(sql2);
-
-        //Result set containing the distinct appointment types.
-        ResultSet rs = ps.executeQuery();
-
-        //Iterates through the result set.
-        while(rs.next()){
-
-            //Retrieves the appointment type from the result set.
-            String type =  rs.getString("Type");
-
-            //Sets the appointment type for the count query.
-            ps2.setString(1, type);
-
-            //Result set containing counted type.
-            ResultSet rs2 = ps2.executeQuery();
-
-            //Iterates through the result set.
-            while(rs2.next()){
-
-                //Counts the number of a type.
-                String newCount = rs2.getString("COUNT(Type)");
-
-                //Updates the string builder with this type and number of appointments by this type.
-                appointmentJunk.append("Total Number of ").append(type).append(" appointments. | ").append(newCount).append("\n");
-            }
+        for(ReportRow row : countAppointments(ReportDimension.TYPE)){
+            appointmentJunk.append("Total Number of ").append(row.getGroup(0)).append(" appointments. | ").append(row.getCount()).append("\n");
         }
 
         //Returns the appointments by type.
@@ -69,48 +156,15 @@ public class ReportQuery {
     /**
      * Generates a report of the count of appointments by month.
      *
-     * @return A report showing the count of appointments for each month.
+     * @return A report showing the count of appointments for each month of each year.
      * @throws SQLException If a database error occurs during the report generation.
      */
     public static String countAppointmentsByMonth() throws SQLException{
 
         //Builds a string that will contain appointments by month.
         StringBuilder appointmentJunk = new StringBuilder("Appointment report by month\n");
-
-        //Query used to select distinct months using the Start column
-        String sql = "SELECT Distinct Month(Start) FROM appointments";
-
-        //Query used to count the number of appointments by Month.
-        String sql2 = "SELECT COUNT(Start) FROM appointments WHERE Month(Start) = ?";
-
-        //Loads the query into a prepared statement for usage.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        PreparedStatement ps2 = JDBC.connection.prepareStatement(sql2);
-
-        //Result set containing the distinct months.
-        ResultSet rs = ps.executeQuery();
-
-        //Iterates through the result set.
-        while(rs.next()){
-
-            //Gets the month from the result set.
-            int month = rs.getInt("MONTH(Start)");
-
-            //Sets the month for the count query.
-            ps2.setInt(1, month);
-
-            //Result set containing counted months
-            ResultSet rs2 = ps2.executeQuery();
-
-            //Iterates through the count result set.
-            while(rs2.next()){
-
-                //Gets the number of months by month.
-                String newCount = rs2.getString("COUNT(Start)");
-
-                //Adds the number of appointment by months to the string
-                appointmentJunk.append("Total Number of appointments in ").append(Month.of(month)).append(" | ").append(newCount).append("\n");
-            }
+        for(ReportRow row : countAppointments(ReportDimension.MONTH)){
+            appointmentJunk.append("Total Number of appointments in ").append(row.getGroup(0)).append(" | ").append(row.getCount()).append("\n");
         }
 
         //Returns a report of the number of appointments by month.
@@ -128,114 +182,26 @@ public class ReportQuery {
         //Builds a string that will contain contacts
         StringBuilder contactSchedule = new StringBuilder("Contact Schedules \n\n");
 
-        //Queries the database for all contacts.
-        String sql = "SELECT * FROM contacts";
-
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
+        for(ContactSchedule schedule : getContactSchedules()){
+            contactSchedule.append("Contact Name: ").append(schedule.getContactName()).append("\n");
 
-        //Result set that will contain the contacts from the database.
-        ResultSet rs = ps.executeQuery();
-
-        //Iterates through the result set.
-        while(rs.next()){
-
-            //Assigns the contact ID from the result set to an integer.
-            int contactID = rs.getInt("Contact_ID");
-
-            //Adds the contacts schedule to the string.
-            contactSchedule.append("Contact Name: ").append(rs.getString("Contact_Name")).append(getSchedule(contactID)).append("\n");
+            //Adds the appointment information to the string.
+            for(Appointment appointment : schedule.getAppointments()){
+                contactSchedule.append("Appointment ID: ").append(appointment.getA_id()).append(" | ").
+                        append(appointment.getTitle()).append(" | ").
+                        append(appointment.getType()).append(" | ").
+                        append(appointment.getDescription()).append(" | ").
+                        append(AppointmentTimeFormat.format(appointment.getStartMillis(), FormatStyle.MEDIUM)).append(" - ").
+                        append(AppointmentTimeFormat.format(appointment.getEndMillis(), FormatStyle.MEDIUM)).append(" | ").
+                        append("Customer ID: ").append(appointment.getCustomerID()).append(" \n");
+            }
+            contactSchedule.append("\n");
         }
 
         //Returns the schedules for each contact.
         return  contactSchedule.toString();
     }
 
-    /**
-     * Gets the schedule for a specific contact by their ID.
-     *
-     * @param contactID The ID of the contact.
-     * @return A schedule of appointments for the specified contact.
-     * @throws SQLException If a database error occurs during the schedule retrieval.
-     */
-    public static StringBuilder getSchedule(int contactID) throws SQLException{
-
-        //Builds a string that wil contain appointment schedules
-        StringBuilder schedule = new StringBuilder("\n");
-
-        //Queries the database for appointments by contact ID
-        String sql = "Select * from appointments where Contact_ID = ?";
-
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        //Sets the contact ID to be used in the query.
-        ps.setInt(1, contactID);
-
-        //Result set containing the appointments by contact.
-        ResultSet rs = ps.executeQuery();
-
-        //Iterates through the result set.
-        while(rs.next()){
-
-            //Variables used to hold appointment information contained in the result set.
-            int appointmentID = rs.getInt("Appointment_ID");
-            int customerID = rs.getInt("Customer_ID");
-            String title = rs.getString("Title");
-            String type = rs.getString("Type");
-            String description = rs.getString("Description");
-            Timestamp start = rs.getTimestamp("Start");
-            Timestamp end = rs.getTimestamp("End");
-
-            //Adds the appointment information to the string.
-            schedule.append("Appointment ID: ").append(appointmentID).append(" | ").
-                    append(title).append(" | ").
-                    append(type).append(" | ").
-                    append(description).append(" | ").
-                    append(start.toLocalDateTime().format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM))).append(" - ").
-                    append(end.toLocalDateTime().format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM))).append(" | ").
-                    append("Customer ID: ").append(customerID).append(" \n");
-        }
-
-        //Returns the contact schedules.
-        return schedule;
-    }
-
-    /**
-     * Generates a report of divisions for a given country.
-     *
-     * @param Country_ID The ID of the country for which divisions are to be reported.
-     * @return A report showing the divisions for the specified country.
-     * @throws SQLException If a database error occurs during the report generation.
-     */
-    public static String getDivisions(int Country_ID) throws SQLException{
-
-        //Builds a string to contain the divisions
-        StringBuilder divisions = new StringBuilder();
-
-        //Queries the database for divisions by country ID
-        String sql = "SELECT * FROM first_level_divisions where Country_ID = ?";
-
-        //Loads the query into a prepare statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        //Sets the country ID for the query.
-        ps.setInt(1, Country_ID);
-
-        //Result set containing the divisions by country ID
-        ResultSet rs = ps.executeQuery();
-
-        //Iterates through the result set.
-        while(rs.next()){
-
-            //Adds the division to the string
-            divisions.append(rs.getString("Division")).append(" Division").append("\n");
-        }
-
-        //Returns the divisions string
-        return  divisions.toString();
-    }
-
     /**
      * Generates a report of countries and their associated divisions.
      *
@@ -247,20 +213,12 @@ public class ReportQuery {
         //Builds a string containing countries.
         StringBuilder countries = new StringBuilder("Divisions by Country\n\n");
 
-        //Queries the database for all countries.
-        String sql = "SELECT * FROM countries";
-
-        //Loads the query into a prepared statement.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        //Result set containing countries.
-        ResultSet rs = ps.executeQuery();
-
-        //Iterates through the result set.
-        while(rs.next()){
-
-            //Adds the country to the string.
-            countries.append("Country: ").append(rs.getString("Country")).append("\n").append(getDivisions(rs.getInt("Country_ID"))).append("\n");
+        for(Map.Entry<String, List<String>> entry : getDivisionsByCountry().entrySet()){
+            countries.append("Country: ").append(entry.getKey()).append("\n");
+            for(String division : entry.getValue()){
+                countries.append(division).append(" Division").append("\n");
+            }
+            countries.append("\n");
         }
 
         //Returns the countries string.
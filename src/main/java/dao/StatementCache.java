@@ -0,0 +1,306 @@
+package dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * The prepared statements of one physical connection.
+ * Each distinct SQL is prepared once and handed out again every time it is asked for, so the driver and server
+ * don't parse it again. Callers get proxies whose close method hands the statement back instead of closing it.
+ * Everything a borrower opened is released when its connection is returned to the pool, so statements and result
+ * sets the data access objects never close don't accumulate, and everything is closed with the physical connection.
+ * A connection is only used by one borrower at a time, so the cache needs no locking.
+ */
+class StatementCache {
+
+    //Statements kept per connection, the least recently used one is closed once there are more.
+    private static final int maxCachedStatements = 64;
+
+    private final Connection physical;
+    private final PoolStats stats;
+    private final LinkedHashMap<String, CachedStatement> cached = new LinkedHashMap<>(16, 0.75f, true);
+    private final List<StatementHandler> borrowed = new ArrayList<>();
+
+    StatementCache(Connection physical, PoolStats stats) {
+        this.physical = physical;
+        this.stats = stats;
+    }
+
+    /**
+     * Hands out a prepared statement for the SQL, preparing it only if it isn't cached or is already in use.
+     *
+     * @param owner             The connection proxy the statement is reported to belong to.
+     * @param sql               The SQL of the statement.
+     * @param autoGeneratedKeys Whether generated keys are returned, one of the Statement constants.
+     * @return A proxy of the statement.
+     * @throws SQLException If the statement couldn't be prepared.
+     */
+    PreparedStatement prepare(Connection owner, String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys + ":" + sql;
+        CachedStatement statement = cached.get(key);
+        if (statement != null && !statement.inUse) {
+            stats.recordStatementCacheHit();
+        } else {
+            PreparedStatement prepared = physical.prepareStatement(sql, autoGeneratedKeys);
+            stats.recordStatementPrepared();
+
+            //The same SQL used twice at once on one connection gets a statement that is closed on release.
+            try {
+                statement = new CachedStatement(prepared, statement == null);
+            } catch (SQLException e) {
+                closeQuietly(prepared);
+                throw e;
+            }
+            if (statement.cacheable) {
+                cached.put(key, statement);
+                evictOldest();
+            }
+        }
+        statement.inUse = true;
+        return (PreparedStatement) track(owner, statement.statement, statement, PreparedStatement.class);
+    }
+
+    /**
+     * Hands out a plain statement, which isn't cached and is closed when the connection is returned.
+     *
+     * @param owner     The connection proxy the statement is reported to belong to.
+     * @param statement The statement created on the physical connection.
+     * @return A proxy of the statement.
+     */
+    Statement track(Connection owner, Statement statement) {
+        return (Statement) track(owner, statement, null, Statement.class);
+    }
+
+    /**
+     * Releases everything handed out since the connection was borrowed.
+     * Open result sets are closed, cached statements become available again and the rest are closed.
+     */
+    void releaseAll() {
+        for (StatementHandler handler : new ArrayList<>(borrowed)) {
+            handler.release();
+        }
+        borrowed.clear();
+    }
+
+    /**
+     * Closes every statement, for when the physical connection is closed.
+     */
+    void closeAll() {
+        releaseAll();
+        for (CachedStatement statement : cached.values()) {
+            closeQuietly(statement.statement);
+        }
+        cached.clear();
+    }
+
+    private Object track(Connection owner, Statement statement, CachedStatement cachedStatement, Class<?> type) {
+        StatementHandler handler = new StatementHandler(owner, statement, cachedStatement);
+        borrowed.add(handler);
+        return Proxy.newProxyInstance(StatementCache.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private void evictOldest() {
+        Iterator<CachedStatement> statements = cached.values().iterator();
+        while (cached.size() > maxCachedStatements && statements.hasNext()) {
+            CachedStatement oldest = statements.next();
+            if (!oldest.inUse) {
+                statements.remove();
+                closeQuietly(oldest.statement);
+            }
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
+        }
+    }
+
+    /**
+     * A prepared statement, the settings it was prepared with and whether it is handed out.
+     */
+    private static class CachedStatement {
+        private final PreparedStatement statement;
+        private final boolean cacheable;
+        private final int fetchSize;
+        private final int fetchDirection;
+        private final int maxRows;
+        private final int maxFieldSize;
+        private final int queryTimeout;
+        private boolean inUse;
+
+        CachedStatement(PreparedStatement statement, boolean cacheable) throws SQLException {
+            this.statement = statement;
+            this.cacheable = cacheable;
+            this.fetchSize = statement.getFetchSize();
+            this.fetchDirection = statement.getFetchDirection();
+            this.maxRows = statement.getMaxRows();
+            this.maxFieldSize = statement.getMaxFieldSize();
+            this.queryTimeout = statement.getQueryTimeout();
+        }
+
+        /**
+         * Clears what the last borrower left on the statement, so the next one starts from a freshly prepared state.
+         * A batch that failed halfway would otherwise be sent again by the next executeBatch.
+         *
+         * @throws SQLException If the statement couldn't be reset.
+         */
+        void reset() throws SQLException {
+            statement.clearParameters();
+            statement.clearBatch();
+            statement.clearWarnings();
+            statement.setFetchSize(fetchSize);
+            statement.setFetchDirection(fetchDirection);
+            statement.setMaxRows(maxRows);
+            statement.setMaxFieldSize(maxFieldSize);
+            statement.setQueryTimeout(queryTimeout);
+        }
+    }
+
+    /**
+     * Routes calls on a handed out statement to the real one and keeps track of the result sets it opens.
+     */
+    private class StatementHandler implements InvocationHandler {
+        private final Connection owner;
+        private final Statement statement;
+        private final CachedStatement cachedStatement;
+        private final List<ResultSet> openResults = new ArrayList<>(1);
+        private boolean released;
+
+        StatementHandler(Connection owner, Statement statement, CachedStatement cachedStatement) {
+            this.owner = owner;
+            this.statement = statement;
+            this.cachedStatement = cachedStatement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        release();
+                        borrowed.remove(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached " + statement;
+            }
+            if (released) {
+                throw new SQLException("Statement has already been closed");
+            }
+
+            //Running the statement again closes its previous result set.
+            if (method.getName().startsWith("execute")) {
+                closeResults();
+            }
+            Object result;
+            try {
+                result = method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof ResultSet) {
+                stats.recordCursorOpened();
+                ResultSet results = (ResultSet) result;
+                openResults.add(results);
+                return Proxy.newProxyInstance(StatementCache.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                        new ResultSetHandler(results, (Statement) proxy, this));
+            }
+            return result;
+        }
+
+        /**
+         * Closes the open result sets, then hands a cached statement back or closes any other statement.
+         */
+        private void release() {
+            released = true;
+            closeResults();
+            if (cachedStatement != null && cachedStatement.cacheable) {
+                try {
+                    cachedStatement.reset();
+                    cachedStatement.inUse = false;
+                } catch (SQLException e) {
+
+                    //A statement that can't be reset is dropped from the cache.
+                    cached.values().remove(cachedStatement);
+                    closeQuietly(statement);
+                }
+            } else {
+                closeQuietly(statement);
+            }
+        }
+
+        private void closeResults() {
+            for (ResultSet results : openResults) {
+                closeQuietly(results);
+                stats.recordCursorClosed();
+            }
+            openResults.clear();
+        }
+
+        /**
+         * Stops tracking a result set the caller closed.
+         */
+        private void resultClosed(ResultSet results) {
+            if (openResults.remove(results)) {
+                stats.recordCursorClosed();
+            }
+        }
+    }
+
+    /**
+     * Routes calls on a result set to the real one and reports when it is closed.
+     */
+    private static class ResultSetHandler implements InvocationHandler {
+        private final ResultSet results;
+        private final Statement statement;
+        private final StatementHandler owner;
+
+        ResultSetHandler(ResultSet results, Statement statement, StatementHandler owner) {
+            this.results = results;
+            this.statement = statement;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    results.close();
+                    owner.resultClosed(results);
+                    return null;
+                case "getStatement":
+                    return statement;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+            }
+            try {
+                return method.invoke(results, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,466 @@
+package dao;
+
+import Controllers.AppointmentControllers.AppointmentAlertService;
+import Objects.AppointmentObjects.Appointment;
+import Objects.AppointmentObjects.AppointmentList;
+import Objects.ContactObjects.ContactInHouse;
+import Objects.ContactObjects.ContactList;
+import Objects.CustomerObjects.Customer;
+import Objects.CustomerObjects.CustomersList;
+import Objects.UserObjects.UsersInHouse;
+import Objects.UserObjects.UsersList;
+import javafx.concurrent.Task;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Saves several changes to appointments, customers and users in one database transaction.
+ * Changes are queued, then written when the unit is committed: changes of the same kind are sent as one JDBC batch,
+ * and kinds are written in an order that respects the foreign keys, so new users come before their contacts and
+ * appointments are deleted before their customers. Either every change is saved or, if anything fails, none are.
+ * The lists kept in memory are only changed once the transaction has been committed, so a failed commit leaves both
+ * the database and the lists as they were. A unit can only be committed once.
+ */
+public class UnitOfWork {
+
+    /**
+     * The kinds of change, in the order they are written.
+     */
+    private enum Kind {
+        INSERT_USER("INSERT INTO users (User_ID, User_Name, Password, Type) VALUES(?, ?, ?, ?)", false),
+        INSERT_CONTACT("INSERT INTO contacts (Contact_Name, Email, User_ID) VALUES(?, ?, ?)", true),
+        INSERT_CUSTOMER("INSERT INTO customers (Customer_Name, Address, Postal_Code, Phone, Division_ID) VALUES(?, ?, ?, ?, ?)", true),
+        UPDATE_CUSTOMER("UPDATE customers SET Customer_Name = ?, Address = ?, Postal_Code = ?, Phone = ?, Division_ID = ? WHERE Customer_ID = ?", false),
+        INSERT_APPOINTMENT("INSERT INTO appointments (Title, Description, Location, Type, Start, End, Customer_ID, User_ID, Contact_ID) VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?)", true),
+        UPDATE_APPOINTMENT("UPDATE appointments SET Title = ?, Description = ?, Location = ?, Type = ?, Start = ?, End = ?, Customer_ID = ?, User_ID = ?, Contact_ID = ? WHERE Appointment_ID = ?", false),
+        DELETE_APPOINTMENT("DELETE FROM appointments WHERE Appointment_ID = ?", false),
+        DELETE_CUSTOMER_APPOINTMENTS("DELETE FROM appointments WHERE Customer_ID = ?", false),
+        DELETE_CUSTOMER("DELETE FROM customers WHERE Customer_ID = ?", false);
+
+        private final String sql;
+        private final boolean generatesKey;
+
+        Kind(String sql, boolean generatesKey) {
+            this.sql = sql;
+            this.generatesKey = generatesKey;
+        }
+    }
+
+    /**
+     * A queued change: how it is written, and what is remembered about it once it has been committed.
+     */
+    private abstract static class Change {
+
+        private final Kind kind;
+
+        //Filled in by the commit.
+        int rowsAffected;
+        int generatedKey;
+
+        Change(Kind kind) {
+            this.kind = kind;
+        }
+
+        //Runs on the committing thread before a connection is borrowed, for work too slow for the thread that queued the change.
+        void prepare() {
+        }
+
+        abstract void bind(PreparedStatement ps) throws SQLException;
+
+        //Runs once the transaction has been committed, for changes that wrote a row.
+        void committed() {
+        }
+    }
+
+    private final Map<Kind, List<Change>> changes = new EnumMap<>(Kind.class);
+    private boolean committed;
+    private boolean applied;
+
+    //Filled in once the transaction has been committed, then applied to the lists kept in memory.
+    private final List<Appointment> insertedAppointments = new ArrayList<>();
+    private final List<Appointment> updatedAppointments = new ArrayList<>();
+    private final List<Integer> deletedAppointmentIDs = new ArrayList<>();
+    private final List<Customer> insertedCustomers = new ArrayList<>();
+    private final List<Customer> updatedCustomers = new ArrayList<>();
+    private final List<Integer> deletedCustomerIDs = new ArrayList<>();
+    private final List<UsersInHouse> insertedUsers = new ArrayList<>();
+    private final List<ContactInHouse> insertedContacts = new ArrayList<>();
+
+    /**
+     * Queues a new appointment. Its ID is set to the one generated by the database when the unit is committed.
+     *
+     * @param appointment The appointment, with any ID.
+     * @return This unit of work.
+     */
+    public UnitOfWork insertAppointment(Appointment appointment) {
+        return add(new Change(Kind.INSERT_APPOINTMENT) {
+            @Override
+            void bind(PreparedStatement ps) throws SQLException {
+                bindAppointment(ps, appointment);
+            }
+
+            @Override
+            void committed() {
+                appointment.setA_id(generatedKey);
+                insertedAppointments.add(appointment);
+            }
+        });
+    }
+
+    /**
+     * Queues changes to an existing appointment.
+     *
+     * @param appointment The appointment with its new details.
+     * @return This unit of work.
+     */
+    public UnitOfWork updateAppointment(Appointment appointment) {
+        return add(new Change(Kind.UPDATE_APPOINTMENT) {
+            @Override
+            void bind(PreparedStatement ps) throws SQLException {
+                bindAppointment(ps, appointment);
+                ps.setInt(10, appointment.getA_id());
+            }
+
+            @Override
+            void committed() {
+                updatedAppointments.add(appointment);
+            }
+        });
+    }
+
+    /**
+     * Queues the deletion of an appointment.
+     *
+     * @param appointmentID The ID of the appointment.
+     * @return This unit of work.
+     */
+    public UnitOfWork deleteAppointment(int appointmentID) {
+        return add(new Change(Kind.DELETE_APPOINTMENT) {
+            @Override
+            void bind(PreparedStatement ps) throws SQLException {
+                ps.setInt(1, appointmentID);
+            }
+
+            @Override
+            void committed() {
+                deletedAppointmentIDs.add(appointmentID);
+            }
+        });
+    }
+
+    /**
+     * Queues a new customer. Its ID is set to the one generated by the database when the unit is committed.
+     *
+     * @param customer The customer, with any ID.
+     * @return This unit of work.
+     */
+    public UnitOfWork insertCustomer(Customer customer) {
+        return add(new Change(Kind.INSERT_CUSTOMER) {
+            @Override
+            void bind(PreparedStatement ps) throws SQLException {
+                bindCustomer(ps, customer);
+            }
+
+            @Override
+            void committed() {
+                customer.setId(generatedKey);
+                insertedCustomers.add(customer);
+            }
+        });
+    }
+
+    /**
+     * Queues changes to an existing customer.
+     *
+     * @param customer The customer with their new details.
+     * @return This unit of work.
+     */
+    public UnitOfWork updateCustomer(Customer customer) {
+        return add(new Change(Kind.UPDATE_CUSTOMER) {
+            @Override
+            void bind(PreparedStatement ps) throws SQLException {
+                bindCustomer(ps, customer);
+                ps.setInt(6, customer.getId());
+            }
+
+            @Override
+            void committed() {
+                updatedCustomers.add(customer);
+            }
+        });
+    }
+
+    /**
+     * Queues the deletion of a customer and all of their appointments.
+     *
+     * @param customerID The ID of the customer.
+     * @return This unit of work.
+     */
+    public UnitOfWork deleteCustomer(int customerID) {
+        add(new Change(Kind.DELETE_CUSTOMER_APPOINTMENTS) {
+            @Override
+            void bind(PreparedStatement ps) throws SQLException {
+                ps.setInt(1, customerID);
+            }
+        });
+        return add(new Change(Kind.DELETE_CUSTOMER) {
+            @Override
+            void bind(PreparedStatement ps) throws SQLException {
+                ps.setInt(1, customerID);
+            }
+
+            @Override
+            void committed() {
+                deletedCustomerIDs.add(customerID);
+            }
+        });
+    }
+
+    /**
+     * Queues a new user and the contact they are linked to.
+     * The password is hashed when the unit is committed, so the thread that queues the user isn't held up by the hashing.
+     *
+     * @param userID       The ID of the new user.
+     * @param userName     The name the user logs in with.
+     * @param userPassword The password as typed by the user.
+     * @param userType     The type of the user, such as admin or contact.
+     * @param contactName  The name of the user's contact.
+     * @param contactEmail The email of the user's contact.
+     * @return This unit of work.
+     */
+    public UnitOfWork insertUser(int userID, String userName, String userPassword, String userType, String contactName, String contactEmail) {
+        add(new Change(Kind.INSERT_USER) {
+            private String hash;
+
+            @Override
+            void prepare() {
+                hash = PasswordVerifier.hash(userPassword);
+            }
+
+            @Override
+            void bind(PreparedStatement ps) throws SQLException {
+                ps.setInt(1, userID);
+                ps.setString(2, userName);
+                ps.setString(3, hash);
+                ps.setString(4, userType);
+            }
+
+            @Override
+            void committed() {
+                insertedUsers.add(new UsersInHouse(userID, userName, null, userType));
+            }
+        });
+        return add(new Change(Kind.INSERT_CONTACT) {
+            @Override
+            void bind(PreparedStatement ps) throws SQLException {
+                ps.setString(1, contactName);
+                ps.setString(2, contactEmail);
+                ps.setInt(3, userID);
+            }
+
+            @Override
+            void committed() {
+                insertedContacts.add(new ContactInHouse(generatedKey, contactName, contactEmail, userID));
+            }
+        });
+    }
+
+    /**
+     * Checks whether any changes have been queued.
+     *
+     * @return True if nothing has been queued; otherwise, false.
+     */
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * Writes every queued change in one transaction. Can run on a background thread, as the lists kept in memory
+     * aren't touched until apply is called.
+     *
+     * @return The number of rows written.
+     * @throws SQLException If a database error occurs, in which case nothing is saved.
+     */
+    public int commit() throws SQLException {
+        if (committed) {
+            throw new IllegalStateException("Unit of work has already been committed");
+        }
+        for (List<Change> kindChanges : changes.values()) {
+            for (Change change : kindChanges) {
+                change.prepare();
+            }
+        }
+
+        int rowsAffected = 0;
+        try (Connection connection = JDBC.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                for (Map.Entry<Kind, List<Change>> entry : changes.entrySet()) {
+                    rowsAffected += executeBatch(connection, entry.getKey(), entry.getValue());
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+        committed = true;
+
+        //Nothing is remembered until the commit succeeds, so a failed commit leaves the queued objects as they were.
+        for (List<Change> kindChanges : changes.values()) {
+            for (Change change : kindChanges) {
+                if (change.rowsAffected > 0) {
+                    change.committed();
+                }
+            }
+        }
+        return rowsAffected;
+    }
+
+    /**
+     * Applies the committed changes to the lists kept in memory and to the appointment alerts.
+     * Must run on the JavaFX thread. Changes that found no row, such as an update of a deleted appointment, are skipped.
+     */
+    public void apply() {
+        if (!committed || applied) {
+            throw new IllegalStateException("Unit of work has not been committed, or has already been applied");
+        }
+        applied = true;
+        List<Appointment> savedAppointments = new ArrayList<>(insertedAppointments);
+
+        if (!insertedUsers.isEmpty()) {
+            insertedUsers.forEach(UsersList::addUser);
+            insertedContacts.forEach(ContactList::addContact);
+        }
+
+        //Customers are changed before appointments, so appointment screens never show a customer that isn't loaded.
+        if (!insertedCustomers.isEmpty()) {
+            CustomersList.addCustomers(insertedCustomers);
+        }
+        for (Customer customer : updatedCustomers) {
+            CustomersList.replaceCustomer(customer);
+        }
+
+        if (!insertedAppointments.isEmpty()) {
+            AppointmentList.addAppointments(insertedAppointments);
+        }
+        for (Appointment appointment : updatedAppointments) {
+
+            //Only appointments on a loaded page are in the list, the others are left to be read with their page.
+            AppointmentList.replaceAppointment(appointment);
+            savedAppointments.add(appointment);
+        }
+        if (!deletedAppointmentIDs.isEmpty()) {
+            AppointmentList.deleteAppointments(deletedAppointmentIDs);
+        }
+        if (!deletedCustomerIDs.isEmpty()) {
+            AppointmentList.deleteAppointmentsByCustomers(deletedCustomerIDs);
+            CustomersList.deleteCustomers(deletedCustomerIDs);
+        }
+
+        //A deleted customer can take appointments that were never loaded with them, so the alerts are reloaded.
+        if (!deletedCustomerIDs.isEmpty()) {
+            AppointmentAlertService.reload();
+        } else {
+            savedAppointments.forEach(AppointmentAlertService::appointmentSaved);
+            deletedAppointmentIDs.forEach(AppointmentAlertService::appointmentDeleted);
+        }
+    }
+
+    /**
+     * Commits the unit and applies it on the JavaFX thread.
+     *
+     * @return The number of rows written.
+     * @throws SQLException If a database error occurs, in which case nothing is saved or applied.
+     */
+    public int commitAndApply() throws SQLException {
+        int rowsAffected = commit();
+        apply();
+        return rowsAffected;
+    }
+
+    /**
+     * Commits the unit in the background, then applies it on the JavaFX thread.
+     *
+     * @param onApplied Receives the number of rows written once the changes have been applied.
+     * @return The running task.
+     */
+    public Task<Integer> submit(Consumer<Integer> onApplied) {
+        return AsyncQuery.submit(this::commit, rowsAffected -> {
+            apply();
+            onApplied.accept(rowsAffected);
+        });
+    }
+
+    /**
+     * Writes every change of one kind with a single batch, reading back the generated IDs of inserts.
+     */
+    private static int executeBatch(Connection connection, Kind kind, List<Change> kindChanges) throws SQLException {
+        PreparedStatement ps = kind.generatesKey
+                ? connection.prepareStatement(kind.sql, Statement.RETURN_GENERATED_KEYS)
+                : connection.prepareStatement(kind.sql);
+        for (Change change : kindChanges) {
+            change.bind(ps);
+            ps.addBatch();
+        }
+        int[] counts = ps.executeBatch();
+
+        int rowsAffected = 0;
+        for (int i = 0; i < counts.length; i++) {
+
+            //Drivers that rewrite a batch into one statement can't tell how many rows each change wrote.
+            int count = counts[i] == Statement.SUCCESS_NO_INFO ? 1 : counts[i];
+            kindChanges.get(i).rowsAffected = count;
+            rowsAffected += count;
+        }
+        if (kind.generatesKey) {
+            ResultSet rs = ps.getGeneratedKeys();
+            for (Change change : kindChanges) {
+                if (!rs.next()) {
+                    throw new SQLException("The database didn't return an ID for every inserted row");
+                }
+                change.generatedKey = rs.getInt(1);
+            }
+        }
+        return rowsAffected;
+    }
+
+    private UnitOfWork add(Change change) {
+        if (committed) {
+            throw new IllegalStateException("Unit of work has already been committed");
+        }
+        changes.computeIfAbsent(change.kind, kind -> new ArrayList<>()).add(change);
+        return this;
+    }
+
+    private static void bindAppointment(PreparedStatement ps, Appointment appointment) throws SQLException {
+        ps.setString(1, appointment.getTitle());
+        ps.setString(2, appointment.getDescription());
+        ps.setString(3, appointment.getLocation());
+        ps.setString(4, appointment.getType());
+        ps.setTimestamp(5, appointment.getStart());
+        ps.setTimestamp(6, appointment.getEnd());
+        ps.setInt(7, appointment.getCustomerID());
+        ps.setInt(8, appointment.getUserID());
+        ps.setInt(9, appointment.getContactID());
+    }
+
+    private static void bindCustomer(PreparedStatement ps, Customer customer) throws SQLException {
+        ps.setString(1, customer.getName());
+        ps.setString(2, customer.getAddress());
+        ps.setString(3, customer.getPostalCode());
+        ps.setString(4, customer.getPhone());
+        ps.setInt(5, customer.getDivisionID());
+    }
+}
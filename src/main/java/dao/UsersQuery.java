@@ -3,6 +3,8 @@ package dao;
 import Controllers.FileControllers.LoginActivityFile;
 import Objects.ContactObjects.ContactInHouse;
 import Objects.ContactObjects.ContactList;
+import Objects.UserObjects.User;
+import Objects.UserObjects.UserSession;
 import Objects.UserObjects.UsersInHouse;
 import Objects.UserObjects.UsersList;
 import javafx.collections.FXCollections;
@@ -10,9 +12,13 @@ import javafx.collections.ObservableList;
 import javafx.scene.control.Alert;
 
 import javax.xml.transform.Result;
+import java.text.MessageFormat;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.ResourceBundle;
@@ -23,19 +29,87 @@ import java.util.ResourceBundle;
  */
 public abstract class UsersQuery {
 
+    // Login throttle settings
+    private static final int maxUserFailures = 5;
+    private static final int maxSourceFailures = 30;
+    private static final long failureWindowMillis = 15 * 60 * 1000;
+    private static final long baseLockoutMillis = 30 * 1000;
+    private static final long maxLockoutMillis = 30 * 60 * 1000;
+
+    private static final LoginThrottle loginThrottle = new LoginThrottle(maxUserFailures, maxSourceFailures, failureWindowMillis, baseLockoutMillis, maxLockoutMillis);
+
+    /**
+     * Retrieves the throttle that failed logins are counted by, so the screen can check it before submitting a login.
+     *
+     * @return The login throttle.
+     */
+    public static LoginThrottle getLoginThrottle() {
+        return loginThrottle;
+    }
+
     /**
-     * Validates user credentials for login.
+     * Checks user credentials for login and starts the user's session if they are valid.
+     * The user and their contact are read with a single query, so logging in needs no further lookups.
+     * A password stored with an older hasher or cost, or saved before hashing was added, is hashed again with the
+     * current one. Checking the password is slow on purpose, so this should run on the password pool.
+     * Logins from a user name or source that is locked out are turned away before the database is queried.
      *
-     * @param userName     The username provided by the user.
+     * @param userName      The username provided by the user.
      * @param passwordInput The password input provided by the user.
-     * @return True if the credentials are valid; otherwise, false.
+     * @param source        Where the login comes from, which failures are also counted against.
+     * @return The user's session if the credentials are valid; otherwise, null.
      * @throws SQLException If a database error occurs during the credential validation.
      */
-    public static boolean getUserCredentials(String userName, String passwordInput) throws SQLException {
-        String sql = "SELECT * FROM users WHERE User_Name = ?";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ps.setString(1, userName);
-        ResultSet rs = ps.executeQuery();
+    public static UserSession authenticate(String userName, String passwordInput, String source) throws SQLException {
+        if (loginThrottle.retryAfterMillis(userName, source) > 0) {
+            return null;
+        }
+
+        String sql = "SELECT u.User_ID, u.User_Name, u.Password, u.Type, c.Contact_ID, c.Contact_Name FROM users u "
+                + "LEFT JOIN contacts c ON c.User_ID = u.User_ID WHERE u.User_Name = ?";
+        String passwordDB;
+        UserSession session;
+
+        //Reads the stored password and returns the connection before the slow password check.
+        try (Connection connection = JDBC.getConnection()) {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setString(1, userName);
+            ResultSet rs = ps.executeQuery();
+            if (!rs.next()) {
+                PasswordVerifier.verifyUnknownUser(passwordInput);
+                loginThrottle.recordFailure(userName, source);
+                return null;
+            }
+            passwordDB = rs.getString("Password");
+            session = new UserSession(rs.getInt("User_ID"), rs.getString("User_Name"), rs.getString("Type"), rs.getInt("Contact_ID"), rs.getString("Contact_Name"));
+        }
+
+        if (!PasswordVerifier.verify(passwordInput, passwordDB)) {
+            loginThrottle.recordFailure(userName, source);
+            return null;
+        }
+        loginThrottle.recordSuccess(userName);
+
+        //A failed upgrade leaves the old hash in place, which still works, so it doesn't stop the user logging in.
+        if (PasswordVerifier.needsRehash(passwordDB)) {
+            try {
+                updatePassword(session.getUserID(), passwordInput);
+            } catch (SQLException e) {
+                System.out.println("Error:" + e.getMessage());
+            }
+        }
+        UserSession.start(session);
+        return session;
+    }
+
+    /**
+     * Tells the user whether their login was accepted, and records failed attempts.
+     *
+     * @param userName The username provided by the user.
+     * @param valid    Whether the credentials were valid.
+     * @return True if the credentials were valid; otherwise, false.
+     */
+    public static boolean showLoginResult(String userName, boolean valid) {
 
         //Gets the users default language and country
         String lang = Locale.getDefault().getLanguage();
@@ -47,74 +121,45 @@ public abstract class UsersQuery {
         //Creates a new alert object
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
 
-        if (rs.next()) {
-            String passwordDB = rs.getString("Password");
-
-            //Displays messages in English if that is the user's language.
-            if(Objects.equals(lang, "en")){
-
-                //Loads the english language resource bundle
-                ResourceBundle r = ResourceBundle.getBundle("Bundle", l);
-
-                //Checks to see if the input username and password match the database.
-                if(Objects.equals(passwordDB, passwordInput)){
-
-                    //Displays a successful login alert
-                    alert.setTitle(r.getString("en.loginSuccessfulTitle"));
-                    alert.setContentText(r.getString("en.loginSuccessful"));
-                    alert.showAndWait();
-                    return true;
-                } else {
-
-                    //Displays an unsuccessful login alert.
-                    alert.setTitle(r.getString("en.passwordInvalidTitle"));
-                    alert.setContentText(r.getString("en.passwordIncorrect"));
-                    alert.showAndWait();
-                    LoginActivityFile.getUserActivity(userName, "Unsuccessful");
-                    return false;
-                }
-
-            //Displays messages in French if that is the user's language.
-            }else if((Objects.equals(lang, "fr"))){
-
-                //Loads the French language resource bundle.
-                ResourceBundle r = ResourceBundle.getBundle("Bundle_fr_FR", l);
-
-                //Checks to see if the input username and password match the database.
-                if(Objects.equals(passwordDB, passwordInput)){
-                    alert.setTitle(r.getString("fr.loginSuccessful"));
-                    alert.setContentText(r.getString("fr.loginSuccessful"));
-                    alert.showAndWait();
-                    return true;
-                } else {
-
-                    //Displays an unsuccessful login alert.
-                    alert.setTitle(r.getString("fr.passwordInvalidTitle"));
-                    alert.setContentText(r.getString("fr.passwordIncorrect"));
-                    alert.showAndWait();
-                    LoginActivityFile.getUserActivity(userName, "Unsuccessful");
-                    return false;
-                }
-            }
-        //If the username doesn't exist in the database, system will still display a valid alert.
-        }else {
+        //Displays messages in English if that is the user's language.
+        if(Objects.equals(lang, "en")){
+
+            //Loads the english language resource bundle
+            ResourceBundle r = ResourceBundle.getBundle("Bundle", l);
 
-            //Displays messages in English.
-            if(Objects.equals(lang, "en")) {
+            //Checks to see if the input username and password match the database.
+            if(valid){
+
+                //Displays a successful login alert
+                alert.setTitle(r.getString("en.loginSuccessfulTitle"));
+                alert.setContentText(r.getString("en.loginSuccessful"));
+                alert.showAndWait();
+                return true;
+            } else {
 
-                //Loads the english resource bundle.
-                ResourceBundle r = ResourceBundle.getBundle("Bundle", l);
+                //Displays an unsuccessful login alert, whether the username or the password was wrong.
                 alert.setTitle(r.getString("en.passwordInvalidTitle"));
                 alert.setContentText(r.getString("en.passwordIncorrect"));
                 alert.showAndWait();
                 LoginActivityFile.getUserActivity(userName, "Unsuccessful");
                 return false;
+            }
+
+        //Displays messages in French if that is the user's language.
+        }else if((Objects.equals(lang, "fr"))){
 
-            //Displays messages in French
-            }else if(Objects.equals(lang, "fr")){
+            //Loads the French language resource bundle.
+            ResourceBundle r = ResourceBundle.getBundle("Bundle_fr_FR", l);
 
-                //Loads the english resource bundle.
-                ResourceBundle r = ResourceBundle.getBundle("Bundle_fr_FR", l);
+            //Checks to see if the input username and password match the database.
+            if(valid){
+                alert.setTitle(r.getString("fr.loginSuccessful"));
+                alert.setContentText(r.getString("fr.loginSuccessful"));
+                alert.showAndWait();
+                return true;
+            } else {
+
+                //Displays an unsuccessful login alert, whether the username or the password was wrong.
                 alert.setTitle(r.getString("fr.passwordInvalidTitle"));
                 alert.setContentText(r.getString("fr.passwordIncorrect"));
                 alert.showAndWait();
@@ -125,6 +170,30 @@ public abstract class UsersQuery {
         return false;
     }
 
+    /**
+     * Tells the user that too many logins have failed and how long to wait, and records the attempt.
+     *
+     * @param userName         The username provided by the user.
+     * @param retryAfterMillis How long until another login may be attempted.
+     */
+    public static void showLoginThrottled(String userName, long retryAfterMillis) {
+        String lang = Locale.getDefault().getLanguage();
+        Locale l = new Locale(lang, Locale.getDefault().getCountry());
+
+        //Rounds up so the user is never told to wait 0 seconds.
+        long seconds = (retryAfterMillis + 999) / 1000;
+
+        //Uses French only if that is the user's language, and English otherwise.
+        ResourceBundle r = Objects.equals(lang, "fr") ? ResourceBundle.getBundle("Bundle_fr_FR", l) : ResourceBundle.getBundle("Bundle", l);
+        String prefix = Objects.equals(lang, "fr") ? "fr." : "en.";
+
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle(r.getString(prefix + "loginLockedTitle"));
+        alert.setContentText(MessageFormat.format(r.getString(prefix + "loginLocked"), seconds));
+        alert.showAndWait();
+        LoginActivityFile.getUserActivity(userName, "Unsuccessful");
+    }
+
     /**
      * Retrieves a list of user IDs.
      *
@@ -138,25 +207,27 @@ public abstract class UsersQuery {
 
         //Query to retrieve all users from the database.
         String sql = "SELECT * from users";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
+        try (Connection connection = JDBC.getConnection()) {
+            PreparedStatement ps = connection.prepareStatement(sql);
 
-        //Result set containing all the users returned from the database.
-        ResultSet rs = ps.executeQuery();
+            //Result set containing all the users returned from the database.
+            ResultSet rs = ps.executeQuery();
 
-        int userID;
+            int userID;
 
-        //Iterates through the result set.
-        while(rs.next()){
+            //Iterates through the result set.
+            while(rs.next()){
 
-            //Gets the userID from the result set.
-            userID = rs.getInt("User_ID");
+                //Gets the userID from the result set.
+                userID = rs.getInt("User_ID");
 
-            //Adds the userID to the observable list.
-            userIDs.add(userID);
-        }
+                //Adds the userID to the observable list.
+                userIDs.add(userID);
+            }
 
-        //Returns the observable list of user IDs
-        return userIDs;
+            //Returns the observable list of user IDs
+            return userIDs;
+        }
     }
 
     public static int getUserCount() throws SQLException {
@@ -164,114 +235,66 @@ public abstract class UsersQuery {
         // Query to count the number of records in the user id column.
         String sql = "SELECT COUNT(User_ID) as userCount FROM users";
 
-        // Load the query into a prepared statement for execution.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        // Result set containing the count
-        ResultSet rs = ps.executeQuery();
-        int userCount = 0;
-        if (rs.next()) {
-            userCount = rs.getInt("userCount");
-        }
-        return userCount;
-    }
-
-    public static int insertNewUser(int userID, String userName, String userPassword, String userType, String contactName, String contactEmail) throws SQLException{
-
-        //Query to add a new user to the database.
-        String sql = "INSERT INTO users (User_ID, User_Name, Password, Type) VALUES(?, ?, ?, ?)";
-
-        //Load query into a prepared statement for execution.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
+        try (Connection connection = JDBC.getConnection()) {
+            // Load the query into a prepared statement for execution.
+            PreparedStatement ps = connection.prepareStatement(sql);
 
-        //Add users values to prepared statement.
-        ps.setInt(1, userID);
-        ps.setString(2, userName);
-        ps.setString(3, userPassword);
-        ps.setString(4, userType);
-        int rowsAffected = ps.executeUpdate();
-        if (rowsAffected > 0){
-            ContactQuery.insertContact(contactName, contactEmail, userID);
+            // Result set containing the count
+            ResultSet rs = ps.executeQuery();
+            int userCount = 0;
+            if (rs.next()) {
+                userCount = rs.getInt("userCount");
+            }
+            return userCount;
         }
-
-        return rowsAffected;
     }
 
-    public static String getUserType(String userNameInput) throws SQLException {
-
-        //Query to look up user by name
-        String sql = "SELECT * FROM users WHERE User_Name = ?";
-
-        //Load query into a prepared statement for execution.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        //Add user name to prepared statement
-        ps.setString(1,userNameInput);
-
-        //Result set containing user information.
-        ResultSet rs = ps.executeQuery();
-
-        String userType = null;
-        //Iterate through result set
-        while(rs.next()){
-
-            //Variables to hold user info
-            int id = rs.getInt("User_ID");
-            String name = rs.getString("User_Name");
-            String password = rs.getString("Password");
-            String type = rs.getString("Type");
-
-            UsersInHouse loggedInUser = new UsersInHouse(id, name, password, type);
-            UsersList.setLoggedInUser(loggedInUser);
-
-            userType = type;
-
-            if(Objects.equals(userType, "contact")){
-                //Loads contact appointment info into the local table
-                int contactID = getContactID(rs.getInt("User_ID"));
-                AppointmentQuery.getAppointmentsByContact(contactID);
-            }
+    /**
+     * Replaces a user's stored password with a hash made by the current hasher.
+     *
+     * @param userID   The ID of the user.
+     * @param password The password as typed by the user.
+     * @throws SQLException If a database error occurs during the update.
+     */
+    public static void updatePassword(int userID, String password) throws SQLException {
+        String sql = "UPDATE users SET Password = ? WHERE User_ID = ?";
+        String hash = PasswordVerifier.hash(password);
+        try (Connection connection = JDBC.getConnection()) {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setString(1, hash);
+            ps.setInt(2, userID);
+            ps.executeUpdate();
         }
-
-        return userType;
     }
 
-    public static int getContactID(int userID) throws SQLException {
-        //Query to look up user by name
-        String sql = "SELECT * FROM contacts WHERE User_ID = ?";
-
-        //Load query into a prepared statement for execution.
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-
-        //Add userID to prepared statement
-        ps.setInt(1, userID);
-
-        //Result set containing user information.
-        ResultSet rs = ps.executeQuery();
-
-        int contactID = 0;
-
-        //Iterate through the result set
-        while(rs.next()){
-            contactID = rs.getInt("Contact_ID");
+    public static void getUsers() throws SQLException {
+        for (User user : findUsers()) {
+            UsersList.addUser(user);
         }
-
-        return  contactID;
     }
 
-    public static void getUsers() throws SQLException {
+    /**
+     * Retrieves all users without touching the user list, so it can run on a background thread.
+     *
+     * @return All users.
+     * @throws SQLException If a database error occurs during the retrieval.
+     */
+    public static List<User> findUsers() throws SQLException {
         String sql = "SELECT * FROM users";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ResultSet rs = ps.executeQuery();
-
-        while(rs.next()){
-            int id = rs.getInt("User_ID");
-            String name = rs.getString("User_Name");
-            String password = rs.getString("Password");
-            String type = rs.getString("Type");
-
-            UsersInHouse newUser = new UsersInHouse(id,name, password, type);
-            UsersList.addUser(newUser);
+        List<User> users = new ArrayList<>();
+        try (Connection connection = JDBC.getConnection()) {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ResultSet rs = ps.executeQuery();
+
+            while(rs.next()){
+                int id = rs.getInt("User_ID");
+                String name = rs.getString("User_Name");
+                String type = rs.getString("Type");
+
+                //Password hashes are only needed when logging in, so they aren't kept in memory.
+                users.add(new UsersInHouse(id,name, null, type));
+            }
         }
+        return users;
     }
 }
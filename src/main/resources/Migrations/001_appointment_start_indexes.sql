@@ -0,0 +1,10 @@
+-- Indexes for appointment date range queries.
+-- Month, week and alert lookups filter on Start with half-open ranges (Start >= ? AND Start < ?),
+-- contact screens add Contact_ID and overlap checks add Customer_ID, so each of them is answered by an index range scan.
+-- Run once against client_schedule:
+--   mysql -u sqlUser -p client_schedule < 001_appointment_start_indexes.sql
+-- EXPLAIN on the range queries should then report type "range" on these keys instead of "ALL".
+
+CREATE INDEX idx_appointments_start ON appointments (Start);
+CREATE INDEX idx_appointments_contact_start ON appointments (Contact_ID, Start);
+CREATE INDEX idx_appointments_customer_start ON appointments (Customer_ID, Start);
@@ -0,0 +1,11 @@
+-- Removes placeholder rows left behind by the old ID reservation.
+-- New appointments and customers used to be inserted as "placeholder" rows as soon as their form opened, and were
+-- only cleaned up when the form was cancelled or the application restarted. IDs now come from the insert itself,
+-- so nothing creates these rows any more and the startup cleanup has been dropped.
+-- Run once against client_schedule:
+--   mysql -u sqlUser -p client_schedule < 002_remove_placeholder_rows.sql
+
+DELETE FROM appointments WHERE Title = 'placeholder';
+DELETE FROM customers
+WHERE Customer_Name = 'placeholder'
+  AND NOT EXISTS (SELECT 1 FROM appointments WHERE appointments.Customer_ID = customers.Customer_ID);